@@ -0,0 +1,13 @@
+-- Track index for the on-demand common-view matching (/api/data/common-view-match)
+-- The matcher reads the tracks of one source for an MJD range ordered by (mjd, sttime, satellite letter, sat);
+-- this index delivers (mjd, sttime) in order, leaving only a small per-epoch sort, and the included columns
+-- let the read run as an index-only scan.
+-- The application creates the plain index (ddl-auto); this script adds the covering columns.
+
+DROP INDEX IF EXISTS idx_irnss_data_source_mjd;
+
+CREATE INDEX IF NOT EXISTS idx_irnss_data_source_mjd
+ON irnss_data (source, mjd, sttime)
+INCLUDE (sat_id, sat, refsys, dsg);
+
+ANALYZE irnss_data;
@@ -0,0 +1,24 @@
+-- Ingest error records and file availability index backing the statistics report's
+-- filesWithErrors and missingFiles sections
+-- ingest_error: one row per received file with lines that could not be ingested (or that could not be read);
+-- counters accumulate over the incremental ingest passes. The application creates the table (ddl-auto).
+
+CREATE TABLE IF NOT EXISTS ingest_error (
+    id            BIGSERIAL PRIMARY KEY,
+    source        VARCHAR(255)  NOT NULL,
+    mjd           INTEGER       NOT NULL,
+    file_name     VARCHAR(255)  NOT NULL,
+    lines_read    BIGINT        NOT NULL,
+    lines_skipped BIGINT        NOT NULL,
+    last_error    VARCHAR(1000),
+    first_seen_at TIMESTAMP,
+    last_seen_at  TIMESTAMP,
+    CONSTRAINT uk_ingest_error_source_mjd_file UNIQUE (source, mjd, file_name)
+);
+
+CREATE INDEX IF NOT EXISTS idx_ingest_error_mjd ON ingest_error (mjd, source);
+
+-- Missing / late files of an MJD range without scanning the (mostly AVAILABLE) rest of the table
+CREATE INDEX IF NOT EXISTS idx_file_availability_not_available
+ON file_availability (mjd, source)
+WHERE status IN ('MISSING', 'LATE');
@@ -0,0 +1,21 @@
+-- Indexes backing the keyset (seek) pagination endpoints
+--   /api/data/optimized-sat-differences/keyset
+--   /api/data/pivoted-sat-data/keyset
+-- Both order by (mjd_date_time, id); with these indexes every page is an index range scan
+-- that starts at the cursor, so deep pages cost the same as the first one.
+-- Materialized views keep their indexes across REFRESH MATERIALIZED VIEW CONCURRENTLY.
+
+-- Combined differences are always filtered by source2, so lead with it
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sat_combined_mat_source2_time_id
+ON sat_combined_view_difference_materialized (source2, mjd_date_time, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sat_combined_mat_time_id
+ON sat_combined_view_difference_materialized (mjd_date_time, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sat_pivoted_mat_time_id
+ON sat_pivoted_view_materialized (mjd_date_time, id);
+
+-- Verification: the plan should show an Index Scan (Backward for DESC) with no Sort node
+-- EXPLAIN SELECT * FROM sat_pivoted_view_materialized s
+-- WHERE (s.mjd_date_time, s.id) < ('2025-01-01 00:00:00', 'x')
+-- ORDER BY s.mjd_date_time DESC, s.id DESC LIMIT 16;
@@ -0,0 +1,20 @@
+-- MJD catalogue backing /api/data/available-mjds and /api/data/mjd-catalogue
+-- One row per (source, mjd) present in irnss_data with its raw row count. Live ingest adds to row_count
+-- as it stores rows, so the endpoints never scan irnss_data. The application creates the table
+-- (ddl-auto) and backfills it on startup when it is empty; this script does the same by hand.
+
+CREATE TABLE IF NOT EXISTS mjd_catalog (
+    id         BIGSERIAL PRIMARY KEY,
+    source     VARCHAR(255) NOT NULL,
+    mjd        INTEGER      NOT NULL,
+    row_count  BIGINT       NOT NULL,
+    updated_at TIMESTAMP,
+    CONSTRAINT uk_mjd_catalog_source_mjd UNIQUE (source, mjd)
+);
+
+INSERT INTO mjd_catalog (source, mjd, row_count, updated_at)
+SELECT source, mjd, count(*), now() FROM irnss_data GROUP BY source, mjd
+ON CONFLICT (source, mjd) DO NOTHING;
+
+-- Verification: should match SELECT count(*) FROM irnss_data
+-- SELECT sum(row_count) FROM mjd_catalog;
@@ -0,0 +1,41 @@
+-- Session rollup backing /api/data/session-completeness
+-- One row per (source, mjd): the 90 CGGTTS tracking slots of the day (slot = minute of day / 16) observed in
+-- irnss_data, as a bitset split over two bigints (slots 0-63 in slots_lo, 64-89 in slots_hi), and its
+-- population count. Live ingest ORs new sessions in. The application creates the table (ddl-auto) and
+-- builds it on the first ingest run when it is empty; this script does the same by hand.
+
+CREATE TABLE IF NOT EXISTS session_rollup (
+    id             BIGSERIAL PRIMARY KEY,
+    source         VARCHAR(255) NOT NULL,
+    mjd            INTEGER      NOT NULL,
+    slots_lo       BIGINT       NOT NULL,
+    slots_hi       BIGINT       NOT NULL,
+    observed_count INTEGER      NOT NULL,
+    updated_at     TIMESTAMP,
+    CONSTRAINT uk_session_rollup_source_mjd UNIQUE (source, mjd)
+);
+
+CREATE INDEX IF NOT EXISTS idx_session_rollup_mjd ON session_rollup (mjd);
+
+INSERT INTO session_rollup (source, mjd, slots_lo, slots_hi, observed_count, updated_at)
+SELECT source, mjd, lo, hi,
+       length(replace(CAST(lo AS bit(64))::text, '0', '')) + length(replace(CAST(hi AS bit(64))::text, '0', '')),
+       now()
+FROM (
+    SELECT source, mjd,
+           bit_or(CASE WHEN slot < 64 THEN 1::bigint << slot ELSE 0 END) AS lo,
+           bit_or(CASE WHEN slot >= 64 THEN 1::bigint << (slot - 64) ELSE 0 END) AS hi
+    FROM (
+        SELECT source, mjd, (substr(sttime, 1, 2)::int * 60 + substr(sttime, 3, 2)::int) / 16 AS slot
+        FROM irnss_data
+        WHERE sttime ~ '^[0-9]{6}$'
+    ) t
+    WHERE slot < 90
+    GROUP BY source, mjd
+) g
+ON CONFLICT (source, mjd) DO NOTHING;
+
+-- Verification: observed_count should equal the distinct session count
+-- SELECT r.source, r.mjd, r.observed_count, count(DISTINCT d.sttime)
+-- FROM session_rollup r JOIN irnss_data d USING (source, mjd)
+-- GROUP BY 1, 2, 3 HAVING r.observed_count <> count(DISTINCT d.sttime);
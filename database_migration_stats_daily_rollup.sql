@@ -0,0 +1,50 @@
+-- Statistics rollup backing /api/statistics/file-upload-stats (and its location / MJD variants)
+-- One row per (source2, mjd) of sat_common_view_difference_materialized: record count, quality sum
+-- (95 per record within 30 ns, 75 otherwise; divide by record_count for the average), first / last record
+-- time and the record count of each UTC hour. The application creates the table (ddl-auto), builds it on the
+-- first common-view refresh when it is empty and rebuilds recent and changed days after every refresh;
+-- this script does the same by hand.
+
+CREATE TABLE IF NOT EXISTS stats_daily_rollup (
+    id             BIGSERIAL PRIMARY KEY,
+    source2        VARCHAR(255) NOT NULL,
+    mjd            INTEGER      NOT NULL,
+    day            DATE         NOT NULL,
+    record_count   BIGINT       NOT NULL,
+    quality_sum    BIGINT       NOT NULL,
+    first_upload   TIMESTAMP,
+    last_upload    TIMESTAMP,
+    hourly_records INTEGER[]    NOT NULL,
+    updated_at     TIMESTAMP,
+    CONSTRAINT uk_stats_daily_rollup_source2_mjd UNIQUE (source2, mjd)
+);
+
+CREATE INDEX IF NOT EXISTS idx_stats_daily_rollup_day ON stats_daily_rollup (day, source2);
+CREATE INDEX IF NOT EXISTS idx_stats_daily_rollup_last_upload ON stats_daily_rollup (last_upload);
+
+INSERT INTO stats_daily_rollup
+    (source2, mjd, day, record_count, quality_sum, first_upload, last_upload, hourly_records, updated_at)
+SELECT source2, mjd, day, record_count, quality_sum, first_upload, last_upload,
+       ARRAY(SELECT COALESCE((hist ->> h::text)::int, 0) FROM generate_series(0, 23) h ORDER BY h),
+       now()
+FROM (
+    SELECT source2, mjd, MIN(day) AS day, SUM(records) AS record_count, SUM(quality) AS quality_sum,
+           MIN(first_upload) AS first_upload, MAX(last_upload) AS last_upload,
+           jsonb_object_agg(hour, records) AS hist
+    FROM (
+        SELECT source2, mjd, DATE(mjd_date_time) AS day, EXTRACT(HOUR FROM mjd_date_time)::int AS hour,
+               COUNT(*) AS records,
+               SUM(CASE WHEN ABS(avg_refsys_difference) <= 30 THEN 95 ELSE 75 END) AS quality,
+               MIN(mjd_date_time) AS first_upload, MAX(mjd_date_time) AS last_upload
+        FROM sat_common_view_difference_materialized
+        WHERE source2 IS NOT NULL AND mjd_date_time IS NOT NULL
+        GROUP BY 1, 2, 3, 4
+    ) cells
+    GROUP BY source2, mjd
+) days
+ON CONFLICT (source2, mjd) DO NOTHING;
+
+-- Verification: record counts should match the view
+-- SELECT r.source2, r.mjd, r.record_count, count(v.*)
+-- FROM stats_daily_rollup r JOIN sat_common_view_difference_materialized v USING (source2, mjd)
+-- GROUP BY 1, 2, 3 HAVING r.record_count <> count(v.*);
@@ -0,0 +1,32 @@
+-- Supports the dynamic view queries (ViewQueryBuilder / SatViewQueryRepository) used by
+--   /api/data/bulk-location-data, /api/data/optimized-sat-differences, /api/data/pivoted-sat-data
+-- Queries now contain only the filters a request supplies, as plain predicates:
+--   s.source2 IN (...), s.mjd_date_time >= / <= ..., s.sat_letter = 'G'
+-- so each filter combination can use an ordinary b-tree index.
+
+-- Step 1: Satellite ids are upper-cased at ingest from now on; bring existing rows in line.
+-- The parser only accepted upper-case letters before, so this normally updates nothing.
+UPDATE irnss_data SET sat_id = UPPER(sat_id) WHERE sat_id <> UPPER(sat_id);
+
+-- Step 2: Indexes per filter shape (the keyset migration already adds (source2, mjd_date_time, id)
+-- and (mjd_date_time, id) on the combined view and (mjd_date_time, id) on the pivoted view)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sat_common_mat_source2_time
+ON sat_common_view_difference_materialized (source2, mjd_date_time);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sat_common_mat_source1_time
+ON sat_common_view_difference_materialized (source1, mjd_date_time);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sat_combined_mat_source2_letter_time
+ON sat_combined_view_difference_materialized (source2, sat_letter, mjd_date_time);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sat_pivoted_mat_letter_time
+ON sat_pivoted_view_materialized (sat_letter, mjd_date_time);
+
+-- Step 3: Rebuild the views so sat_letter reflects the normalised ids
+REFRESH MATERIALIZED VIEW CONCURRENTLY sat_common_view_difference_materialized;
+REFRESH MATERIALIZED VIEW CONCURRENTLY sat_combined_view_difference_materialized;
+REFRESH MATERIALIZED VIEW CONCURRENTLY sat_pivoted_view_materialized;
+
+-- Verification: the plan should show an Index Scan / Bitmap Index Scan on the index above, no Seq Scan
+-- EXPLAIN SELECT * FROM sat_combined_view_difference_materialized s
+-- WHERE s.source2 IN ('GZLMB1') AND s.sat_letter = 'G' AND s.mjd_date_time >= '2025-01-01';
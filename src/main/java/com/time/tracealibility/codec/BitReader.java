@@ -0,0 +1,45 @@
+package com.time.tracealibility.codec;
+
+/**
+ * Reads bits written by {@link BitWriter}.
+ */
+public class BitReader {
+
+    private final byte[] buffer;
+    private long position;
+
+    public BitReader(byte[] buffer) {
+        this.buffer = buffer;
+    }
+
+    public boolean readBit() {
+        checkAvailable(1);
+        boolean bit = (buffer[(int) (position >>> 3)] & (0x80 >>> (position & 7))) != 0;
+        position++;
+        return bit;
+    }
+
+    public long readBits(int count) {
+        if (count < 0 || count > 64) {
+            throw new IllegalArgumentException("Bit count out of range: " + count);
+        }
+        checkAvailable(count);
+        long value = 0;
+        while (count > 0) {
+            int byteIndex = (int) (position >>> 3);
+            int availableInByte = 8 - (int) (position & 7);
+            int take = Math.min(availableInByte, count);
+            int bits = (buffer[byteIndex] >>> (availableInByte - take)) & ((1 << take) - 1);
+            value = (value << take) | bits;
+            position += take;
+            count -= take;
+        }
+        return value;
+    }
+
+    private void checkAvailable(int count) {
+        if (position + count > (long) buffer.length * 8) {
+            throw new IllegalStateException("Read past end of bit buffer");
+        }
+    }
+}
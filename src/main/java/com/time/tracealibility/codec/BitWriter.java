@@ -0,0 +1,65 @@
+package com.time.tracealibility.codec;
+
+import java.util.Arrays;
+
+/**
+ * Append-only bit buffer, most significant bit first.
+ */
+public class BitWriter {
+
+    private byte[] buffer;
+    private long bitLength;
+
+    public BitWriter() {
+        this(64);
+    }
+
+    public BitWriter(int initialBytes) {
+        buffer = new byte[Math.max(8, initialBytes)];
+    }
+
+    public void writeBit(boolean bit) {
+        ensureCapacity(1);
+        if (bit) {
+            buffer[(int) (bitLength >>> 3)] |= (byte) (0x80 >>> (bitLength & 7));
+        }
+        bitLength++;
+    }
+
+    /**
+     * Writes the low {@code count} bits of {@code value}, highest first.
+     */
+    public void writeBits(long value, int count) {
+        if (count < 0 || count > 64) {
+            throw new IllegalArgumentException("Bit count out of range: " + count);
+        }
+        ensureCapacity(count);
+        while (count > 0) {
+            int byteIndex = (int) (bitLength >>> 3);
+            int freeInByte = 8 - (int) (bitLength & 7);
+            int take = Math.min(freeInByte, count);
+            int bits = (int) ((value >>> (count - take)) & ((1 << take) - 1));
+            buffer[byteIndex] |= (byte) (bits << (freeInByte - take));
+            bitLength += take;
+            count -= take;
+        }
+    }
+
+    public long getBitLength() {
+        return bitLength;
+    }
+
+    /**
+     * The written bits, padded with zeros to a whole byte.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, (int) ((bitLength + 7) >>> 3));
+    }
+
+    private void ensureCapacity(int extraBits) {
+        long neededBytes = (bitLength + extraBits + 7) >>> 3;
+        if (neededBytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, (int) Math.max(neededBytes, buffer.length * 2L));
+        }
+    }
+}
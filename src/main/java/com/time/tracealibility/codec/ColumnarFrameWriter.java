@@ -0,0 +1,178 @@
+package com.time.tracealibility.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a compact columnar binary frame ({@code application/vnd.trace.columnar}).
+ *
+ * Layout, little-endian, every section padded to 8 bytes so a browser can view columns
+ * directly as typed arrays ({@code Float64Array}, {@code BigInt64Array}, {@code Int32Array}) without copying:
+ * <pre>
+ *   "TCOL" | u32 version | u32 rowCount | u32 columnCount | u32 metadataLength | metadata (UTF-8 JSON) | pad
+ *   per column:
+ *     u32 nameLength | name (UTF-8) | pad | u32 type | u32 payloadLength | pad | payload | pad
+ * </pre>
+ * Column types and payloads:
+ * <ul>
+ *   <li>{@link #TYPE_INT64} epoch milliseconds or other longs, {@code rowCount} x i64</li>
+ *   <li>{@link #TYPE_INT32} {@code rowCount} x i32</li>
+ *   <li>{@link #TYPE_FLOAT64} {@code rowCount} x f64, null encoded as NaN</li>
+ *   <li>{@link #TYPE_DICTIONARY} u32 dictionarySize, dictionarySize x (u32 length, UTF-8), pad, {@code rowCount} x i32 codes (-1 = null)</li>
+ *   <li>{@link #TYPE_STRING} (rowCount + 1) x u32 offsets into the UTF-8 blob that follows, null stored as empty</li>
+ * </ul>
+ */
+public class ColumnarFrameWriter {
+
+    public static final int VERSION = 1;
+
+    public static final int TYPE_INT64 = 1;
+    public static final int TYPE_INT32 = 2;
+    public static final int TYPE_FLOAT64 = 3;
+    public static final int TYPE_DICTIONARY = 4;
+    public static final int TYPE_STRING = 5;
+
+    private static final byte[] MAGIC = {'T', 'C', 'O', 'L'};
+
+    private final int rowCount;
+    private final List<byte[]> columns = new ArrayList<>();
+
+    public ColumnarFrameWriter(int rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public ColumnarFrameWriter int64Column(String name, long[] values) {
+        checkLength(name, values.length);
+        ByteBuffer payload = allocate(values.length * 8);
+        for (long value : values) {
+            payload.putLong(value);
+        }
+        return addColumn(name, TYPE_INT64, payload.array());
+    }
+
+    public ColumnarFrameWriter int32Column(String name, int[] values) {
+        checkLength(name, values.length);
+        ByteBuffer payload = allocate(values.length * 4);
+        for (int value : values) {
+            payload.putInt(value);
+        }
+        return addColumn(name, TYPE_INT32, payload.array());
+    }
+
+    public ColumnarFrameWriter float64Column(String name, double[] values) {
+        checkLength(name, values.length);
+        ByteBuffer payload = allocate(values.length * 8);
+        for (double value : values) {
+            payload.putDouble(value);
+        }
+        return addColumn(name, TYPE_FLOAT64, payload.array());
+    }
+
+    /**
+     * Dictionary-encodes a low-cardinality string column (sources, satellite letters, session start times).
+     */
+    public ColumnarFrameWriter dictionaryColumn(String name, String[] values) {
+        checkLength(name, values.length);
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        int[] codes = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            codes[i] = values[i] == null ? -1 : dictionary.computeIfAbsent(values[i], k -> dictionary.size());
+        }
+
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        writeInt(payload, dictionary.size());
+        for (String entry : dictionary.keySet()) {
+            byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+            writeInt(payload, bytes.length);
+            payload.writeBytes(bytes);
+        }
+        pad(payload);
+        ByteBuffer codeBuffer = allocate(codes.length * 4);
+        for (int code : codes) {
+            codeBuffer.putInt(code);
+        }
+        payload.writeBytes(codeBuffer.array());
+        return addColumn(name, TYPE_DICTIONARY, payload.toByteArray());
+    }
+
+    /**
+     * High-cardinality strings (row ids) as an offsets array plus one UTF-8 blob.
+     */
+    public ColumnarFrameWriter stringColumn(String name, String[] values) {
+        checkLength(name, values.length);
+        ByteArrayOutputStream blob = new ByteArrayOutputStream();
+        ByteBuffer offsets = allocate((values.length + 1) * 4);
+        offsets.putInt(0);
+        for (String value : values) {
+            if (value != null) {
+                blob.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+            }
+            offsets.putInt(blob.size());
+        }
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        payload.writeBytes(offsets.array());
+        payload.writeBytes(blob.toByteArray());
+        return addColumn(name, TYPE_STRING, payload.toByteArray());
+    }
+
+    public void writeTo(OutputStream out, byte[] metadataJson) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        header.writeBytes(MAGIC);
+        writeInt(header, VERSION);
+        writeInt(header, rowCount);
+        writeInt(header, columns.size());
+        writeInt(header, metadataJson.length);
+        header.writeBytes(metadataJson);
+        pad(header);
+        out.write(header.toByteArray());
+        for (byte[] column : columns) {
+            out.write(column);
+        }
+    }
+
+    private ColumnarFrameWriter addColumn(String name, int type, byte[] payload) {
+        ByteArrayOutputStream column = new ByteArrayOutputStream();
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        writeInt(column, nameBytes.length);
+        column.writeBytes(nameBytes);
+        pad(column);
+        writeInt(column, type);
+        writeInt(column, payload.length);
+        column.writeBytes(payload);
+        pad(column);
+        columns.add(column.toByteArray());
+        return this;
+    }
+
+    private void checkLength(String name, int length) {
+        if (length != rowCount) {
+            throw new IllegalArgumentException("Column '" + name + "' has " + length + " values, expected " + rowCount);
+        }
+    }
+
+    private static ByteBuffer allocate(int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.writeBytes(allocate(4).putInt(value).array());
+    }
+
+    private static void pad(ByteArrayOutputStream out) {
+        while (out.size() % 8 != 0) {
+            out.write(0);
+        }
+    }
+}
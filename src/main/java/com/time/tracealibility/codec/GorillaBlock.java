@@ -0,0 +1,36 @@
+package com.time.tracealibility.codec;
+
+/**
+ * An immutable compressed run of rows produced by {@link GorillaEncoder}.
+ */
+public final class GorillaBlock {
+
+    private final byte[] data;
+    private final int count;
+    private final int columns;
+
+    GorillaBlock(byte[] data, int count, int columns) {
+        this.data = data;
+        this.count = count;
+        this.columns = columns;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getSizeInBytes() {
+        return data.length;
+    }
+
+    /**
+     * A fresh iterator positioned before the first row. Blocks can be decoded concurrently.
+     */
+    public GorillaDecoder decoder() {
+        return new GorillaDecoder(data, count, columns);
+    }
+}
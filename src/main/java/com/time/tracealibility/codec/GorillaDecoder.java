@@ -0,0 +1,108 @@
+package com.time.tracealibility.codec;
+
+/**
+ * Forward-only iterator over a {@link GorillaBlock}. Call {@link #next()} to advance,
+ * then read the current row with {@link #getTimestamp()} and {@link #getValue(int)}.
+ * Allocation-free after construction.
+ */
+public class GorillaDecoder {
+
+    private final BitReader reader;
+    private final int count;
+    private final int columns;
+
+    private int position;
+    private long timestamp;
+    private long delta;
+
+    private final long[] values;
+    private final int[] leading;
+    private final int[] trailing;
+
+    GorillaDecoder(byte[] data, int count, int columns) {
+        this.reader = new BitReader(data);
+        this.count = count;
+        this.columns = columns;
+        this.values = new long[columns];
+        this.leading = new int[columns];
+        this.trailing = new int[columns];
+    }
+
+    public boolean hasNext() {
+        return position < count;
+    }
+
+    /**
+     * Advances to the next row.
+     * @return false when the block is exhausted
+     */
+    public boolean next() {
+        if (position >= count) {
+            return false;
+        }
+        if (position == 0) {
+            timestamp = reader.readBits(64);
+            for (int column = 0; column < columns; column++) {
+                values[column] = reader.readBits(64);
+            }
+        } else {
+            delta += readDeltaOfDelta();
+            timestamp += delta;
+            for (int column = 0; column < columns; column++) {
+                readValue(column);
+            }
+        }
+        position++;
+        return true;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public double getValue(int column) {
+        return Double.longBitsToDouble(values[column]);
+    }
+
+    /**
+     * Zero-based index of the current row.
+     */
+    public int getIndex() {
+        return position - 1;
+    }
+
+    private long readDeltaOfDelta() {
+        int bits;
+        if (!reader.readBit()) {
+            return 0;
+        } else if (!reader.readBit()) {
+            bits = 7;
+        } else if (!reader.readBit()) {
+            bits = 9;
+        } else if (!reader.readBit()) {
+            bits = 12;
+        } else if (!reader.readBit()) {
+            bits = 32;
+        } else {
+            bits = 64;
+        }
+        long zigzag = reader.readBits(bits);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    private void readValue(int column) {
+        if (!reader.readBit()) {
+            return;
+        }
+        if (reader.readBit()) {
+            leading[column] = (int) reader.readBits(5);
+            int meaningful = (int) reader.readBits(6);
+            if (meaningful == 0) {
+                meaningful = 64;
+            }
+            trailing[column] = 64 - leading[column] - meaningful;
+        }
+        int meaningful = 64 - leading[column] - trailing[column];
+        values[column] ^= reader.readBits(meaningful) << trailing[column];
+    }
+}
@@ -0,0 +1,142 @@
+package com.time.tracealibility.codec;
+
+/**
+ * Gorilla-style compressor for a time series with one or more double columns per timestamp
+ * (Pelkonen et al., "Gorilla: A Fast, Scalable, In-Memory Time Series Database", VLDB 2015).
+ *
+ * Per row the stream holds the timestamp as a delta-of-delta followed by each value XORed with the previous
+ * value of the same column. Regular sampling (such as the 16-minute CGGTTS tracks) makes most delta-of-deltas
+ * zero, which costs a single bit; repeated or slowly varying values cost one or a few bits.
+ *
+ * Timestamp delta-of-delta, zigzag encoded:
+ * <pre>
+ *   0                    dod == 0
+ *   10    + 7 bits       |dod| fits 7 bits
+ *   110   + 9 bits
+ *   1110  + 12 bits
+ *   11110 + 32 bits
+ *   11111 + 64 bits
+ * </pre>
+ * Values (first value of each column raw, 64 bits):
+ * <pre>
+ *   0                                        same as previous
+ *   10 + meaningful bits                     XOR fits inside the previous leading/trailing zero window
+ *   11 + 5 bits leading + 6 bits length + meaningful bits
+ * </pre>
+ * NaN is an ordinary bit pattern here, so nullable columns can use it as their null marker.
+ */
+public class GorillaEncoder {
+
+    private final BitWriter writer;
+    private final int columns;
+
+    private int count;
+    private long previousTimestamp;
+    private long previousDelta;
+
+    private final long[] previousValues;
+    private final int[] previousLeading;
+    private final int[] previousTrailing;
+
+    public GorillaEncoder(int columns) {
+        this(columns, 64);
+    }
+
+    public GorillaEncoder(int columns, int expectedRows) {
+        if (columns < 1) {
+            throw new IllegalArgumentException("At least one value column is required");
+        }
+        this.columns = columns;
+        this.writer = new BitWriter(Math.max(64, expectedRows * (columns + 1)));
+        this.previousValues = new long[columns];
+        this.previousLeading = new int[columns];
+        this.previousTrailing = new int[columns];
+    }
+
+    /**
+     * Appends one row. Timestamps are expected in ascending order for good compression but any order decodes correctly.
+     */
+    public void append(long timestamp, double... values) {
+        if (values.length != columns) {
+            throw new IllegalArgumentException("Expected " + columns + " values, got " + values.length);
+        }
+        if (count == 0) {
+            writer.writeBits(timestamp, 64);
+            for (int column = 0; column < columns; column++) {
+                long bits = Double.doubleToRawLongBits(values[column]);
+                writer.writeBits(bits, 64);
+                previousValues[column] = bits;
+                previousLeading[column] = Integer.MAX_VALUE; // no window yet
+            }
+        } else {
+            long delta = timestamp - previousTimestamp;
+            writeDeltaOfDelta(delta - previousDelta);
+            previousDelta = delta;
+            for (int column = 0; column < columns; column++) {
+                writeValue(column, Double.doubleToRawLongBits(values[column]));
+            }
+        }
+        previousTimestamp = timestamp;
+        count++;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public GorillaBlock finish() {
+        return new GorillaBlock(writer.toByteArray(), count, columns);
+    }
+
+    private void writeDeltaOfDelta(long deltaOfDelta) {
+        long zigzag = (deltaOfDelta << 1) ^ (deltaOfDelta >> 63);
+        if (zigzag == 0) {
+            writer.writeBit(false);
+        } else if (fits(zigzag, 7)) {
+            writer.writeBits(0b10, 2);
+            writer.writeBits(zigzag, 7);
+        } else if (fits(zigzag, 9)) {
+            writer.writeBits(0b110, 3);
+            writer.writeBits(zigzag, 9);
+        } else if (fits(zigzag, 12)) {
+            writer.writeBits(0b1110, 4);
+            writer.writeBits(zigzag, 12);
+        } else if (fits(zigzag, 32)) {
+            writer.writeBits(0b11110, 5);
+            writer.writeBits(zigzag, 32);
+        } else {
+            writer.writeBits(0b11111, 5);
+            writer.writeBits(zigzag, 64);
+        }
+    }
+
+    private void writeValue(int column, long bits) {
+        long xor = bits ^ previousValues[column];
+        previousValues[column] = bits;
+        if (xor == 0) {
+            writer.writeBit(false);
+            return;
+        }
+        // The leading-zero count is stored in 5 bits
+        int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (previousLeading[column] != Integer.MAX_VALUE
+            && leading >= previousLeading[column] && trailing >= previousTrailing[column]) {
+            writer.writeBits(0b10, 2);
+            int meaningful = 64 - previousLeading[column] - previousTrailing[column];
+            writer.writeBits(xor >>> previousTrailing[column], meaningful);
+        } else {
+            int meaningful = 64 - leading - trailing;
+            writer.writeBits(0b11, 2);
+            writer.writeBits(leading, 5);
+            writer.writeBits(meaningful == 64 ? 0 : meaningful, 6);
+            writer.writeBits(xor >>> trailing, meaningful);
+            previousLeading[column] = leading;
+            previousTrailing[column] = trailing;
+        }
+    }
+
+    private static boolean fits(long zigzag, int bits) {
+        return (zigzag >>> bits) == 0;
+    }
+}
@@ -0,0 +1,160 @@
+package com.time.tracealibility.codec;
+
+import com.time.tracealibility.entity.SatCombinedViewDifference;
+import com.time.tracealibility.entity.SatCommonViewDifference;
+import com.time.tracealibility.entity.SatPivotedView;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Turns lists of view rows into columnar frames. Column names follow the entity JSON property names;
+ * timestamps are epoch milliseconds (UTC) and missing doubles are NaN.
+ */
+public final class SatColumnarEncoder {
+
+    private SatColumnarEncoder() {
+    }
+
+    public static ColumnarFrameWriter encodeCommon(List<SatCommonViewDifference> rows) {
+        int n = rows.size();
+        String[] ids = new String[n];
+        String[] satLetters = new String[n];
+        int[] mjds = new int[n];
+        int[] commonSattelites = new int[n];
+        String[] sttimes = new String[n];
+        long[] times = new long[n];
+        String[] sources1 = new String[n];
+        String[] sources2 = new String[n];
+        double[] avg1 = new double[n];
+        double[] avg2 = new double[n];
+        double[] differences = new double[n];
+        for (int i = 0; i < n; i++) {
+            SatCommonViewDifference row = rows.get(i);
+            ids[i] = row.getId();
+            satLetters[i] = row.getSatLetter();
+            mjds[i] = row.getMjd();
+            commonSattelites[i] = row.getCommonSattelite();
+            sttimes[i] = row.getSttime();
+            times[i] = epochMillis(row.getMjdDateTime());
+            sources1[i] = row.getSource1();
+            sources2[i] = row.getSource2();
+            avg1[i] = orNaN(row.getAvg1());
+            avg2[i] = orNaN(row.getAvg2());
+            differences[i] = orNaN(row.getAvgRefsysDifference());
+        }
+        return new ColumnarFrameWriter(n)
+                .stringColumn("id", ids)
+                .dictionaryColumn("satLetter", satLetters)
+                .int32Column("mjd", mjds)
+                .int32Column("commonSattelite", commonSattelites)
+                .dictionaryColumn("sttime", sttimes)
+                .int64Column("mjdDateTime", times)
+                .dictionaryColumn("source1", sources1)
+                .dictionaryColumn("source2", sources2)
+                .float64Column("avg1", avg1)
+                .float64Column("avg2", avg2)
+                .float64Column("avgRefsysDifference", differences);
+    }
+
+    public static ColumnarFrameWriter encodeCombined(List<SatCombinedViewDifference> rows) {
+        int n = rows.size();
+        String[] ids = new String[n];
+        String[] satLetters = new String[n];
+        int[] mjds = new int[n];
+        String[] sttimes = new String[n];
+        long[] times = new long[n];
+        int[] commonSatelliteCounts = new int[n];
+        String[] sources1 = new String[n];
+        String[] sources2 = new String[n];
+        double[] avg1 = new double[n];
+        double[] avg2 = new double[n];
+        double[] differences = new double[n];
+        double[] weightedAvg1 = new double[n];
+        double[] weightedAvg2 = new double[n];
+        double[] weightedDifferences = new double[n];
+        for (int i = 0; i < n; i++) {
+            SatCombinedViewDifference row = rows.get(i);
+            ids[i] = row.getId();
+            satLetters[i] = row.getSatLetter();
+            mjds[i] = row.getMjd();
+            sttimes[i] = row.getSttime();
+            times[i] = epochMillis(row.getMjdDateTime());
+            commonSatelliteCounts[i] = row.getCommonSatelliteCount();
+            sources1[i] = row.getSource1();
+            sources2[i] = row.getSource2();
+            avg1[i] = orNaN(row.getAvg1());
+            avg2[i] = orNaN(row.getAvg2());
+            differences[i] = orNaN(row.getAvgRefsysDifference());
+            weightedAvg1[i] = orNaN(row.getWeightedAvg1());
+            weightedAvg2[i] = orNaN(row.getWeightedAvg2());
+            weightedDifferences[i] = orNaN(row.getWeightedAvgDifference());
+        }
+        return new ColumnarFrameWriter(n)
+                .stringColumn("id", ids)
+                .dictionaryColumn("satLetter", satLetters)
+                .int32Column("mjd", mjds)
+                .dictionaryColumn("sttime", sttimes)
+                .int64Column("mjdDateTime", times)
+                .int32Column("commonSatelliteCount", commonSatelliteCounts)
+                .dictionaryColumn("source1", sources1)
+                .dictionaryColumn("source2", sources2)
+                .float64Column("avg1", avg1)
+                .float64Column("avg2", avg2)
+                .float64Column("avgRefsysDifference", differences)
+                .float64Column("weightedAvg1", weightedAvg1)
+                .float64Column("weightedAvg2", weightedAvg2)
+                .float64Column("weightedAvgDifference", weightedDifferences);
+    }
+
+    /**
+     * The jsonb location map becomes one float64 column per location, named {@code locationDiffs.<location>}.
+     */
+    public static ColumnarFrameWriter encodePivoted(List<SatPivotedView> rows) {
+        int n = rows.size();
+        String[] ids = new String[n];
+        String[] satLetters = new String[n];
+        int[] mjds = new int[n];
+        long[] times = new long[n];
+        String[] sttimes = new String[n];
+        TreeSet<String> locations = new TreeSet<>();
+        for (int i = 0; i < n; i++) {
+            SatPivotedView row = rows.get(i);
+            ids[i] = row.getId();
+            satLetters[i] = row.getSatLetter();
+            mjds[i] = row.getMjd();
+            times[i] = epochMillis(row.getMjdDateTime());
+            sttimes[i] = row.getSttime();
+            if (row.getLocationDiffs() != null) {
+                locations.addAll(row.getLocationDiffs().keySet());
+            }
+        }
+        ColumnarFrameWriter frame = new ColumnarFrameWriter(n)
+                .stringColumn("id", ids)
+                .dictionaryColumn("satLetter", satLetters)
+                .int32Column("mjd", mjds)
+                .int64Column("mjdDateTime", times)
+                .dictionaryColumn("sttime", sttimes);
+        for (String location : locations) {
+            double[] values = new double[n];
+            for (int i = 0; i < n; i++) {
+                Map<String, Double> diffs = rows.get(i).getLocationDiffs();
+                values[i] = diffs != null ? orNaN(diffs.get(location)) : Double.NaN;
+            }
+            frame.float64Column("locationDiffs." + location, values);
+        }
+        return frame;
+    }
+
+    static long epochMillis(LocalDateTime dateTime) {
+        // Application and database both run in UTC (see TracealibilityApplication)
+        return dateTime != null ? dateTime.toInstant(ZoneOffset.UTC).toEpochMilli() : Long.MIN_VALUE;
+    }
+
+    private static double orNaN(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+}
@@ -0,0 +1,112 @@
+package com.time.tracealibility.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.time.tracealibility.codec.ColumnarFrameWriter;
+import com.time.tracealibility.codec.SatColumnarEncoder;
+import com.time.tracealibility.dto.KeysetPageDTO;
+import com.time.tracealibility.dto.RowDataResponse;
+import com.time.tracealibility.entity.SatCombinedViewDifference;
+import com.time.tracealibility.entity.SatCommonViewDifference;
+import com.time.tracealibility.entity.SatPivotedView;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves time-series responses as columnar binary frames when the client sends
+ * {@code Accept: application/vnd.trace.columnar}. Handles the response shapes used by the data endpoints
+ * ({@link RowDataResponse} with a "data" list, Spring {@link Page}, {@link KeysetPageDTO}); everything that is not
+ * row data (page numbers, totals, cursors) goes into the frame's JSON metadata block.
+ */
+public class ColumnarHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final String COLUMNAR_VALUE = "application/vnd.trace.columnar";
+    public static final MediaType COLUMNAR = MediaType.parseMediaType(COLUMNAR_VALUE);
+
+    private final ObjectMapper objectMapper;
+
+    public ColumnarHttpMessageConverter(ObjectMapper objectMapper) {
+        super(COLUMNAR);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        // Only the row-data shapes; a plain Map (stats, catalogue) is left to JSON, so columnar gets a 406
+        return Page.class.isAssignableFrom(clazz)
+                || RowDataResponse.class.isAssignableFrom(clazz)
+                || KeysetPageDTO.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar frames are response-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        List<?> rows;
+        if (body instanceof Page<?> page) {
+            rows = page.getContent();
+            metadata.put("totalElements", page.getTotalElements());
+            metadata.put("totalPages", page.getTotalPages());
+            metadata.put("number", page.getNumber());
+            metadata.put("size", page.getSize());
+        } else if (body instanceof KeysetPageDTO<?> keysetPage) {
+            rows = keysetPage.getContent();
+            metadata.put("size", keysetPage.getSize());
+            metadata.put("hasNext", keysetPage.isHasNext());
+            metadata.put("nextCursor", keysetPage.getNextCursor());
+            metadata.put("syncCursor", keysetPage.getSyncCursor());
+        } else if (body instanceof RowDataResponse map && map.get("data") instanceof List<?> data) {
+            rows = data;
+            map.forEach((key, value) -> {
+                if (!"data".equals(key)) {
+                    metadata.put(String.valueOf(key), value);
+                }
+            });
+        } else {
+            throw new HttpMessageNotWritableException("Response has no row data to encode as " + COLUMNAR_VALUE);
+        }
+
+        ColumnarFrameWriter frame = encode(rows, metadata);
+        frame.writeTo(outputMessage.getBody(), objectMapper.writeValueAsBytes(metadata));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ColumnarFrameWriter encode(List<?> rows, Map<String, Object> metadata) {
+        if (rows.isEmpty()) {
+            metadata.put("rowType", "empty");
+            return new ColumnarFrameWriter(0);
+        }
+        Object first = rows.get(0);
+        if (first instanceof SatCommonViewDifference) {
+            metadata.put("rowType", "SatCommonViewDifference");
+            return SatColumnarEncoder.encodeCommon((List<SatCommonViewDifference>) rows);
+        }
+        if (first instanceof SatCombinedViewDifference) {
+            metadata.put("rowType", "SatCombinedViewDifference");
+            return SatColumnarEncoder.encodeCombined((List<SatCombinedViewDifference>) rows);
+        }
+        if (first instanceof SatPivotedView) {
+            metadata.put("rowType", "SatPivotedView");
+            return SatColumnarEncoder.encodePivoted((List<SatPivotedView>) rows);
+        }
+        throw new HttpMessageNotWritableException("No columnar encoding for " + first.getClass().getSimpleName());
+    }
+}
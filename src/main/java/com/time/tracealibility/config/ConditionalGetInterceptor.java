@@ -0,0 +1,76 @@
+package com.time.tracealibility.config;
+
+import com.time.tracealibility.services.DataVersionService;
+import com.time.tracealibility.services.PgNotificationListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Answers repeated dashboard polls with {@code 304 Not Modified} before the controller runs.
+ *
+ * The ETag is a digest of the cluster-wide data versions the response depends on (view refresh and source
+ * ingest versions for {@code /api/data}, file availability versions for {@code /api/status}) plus the
+ * Accept header, and Last-Modified is the time the newest of those versions changed. Both come from memory,
+ * so an unchanged poll never reaches the database. The check is skipped while versions are not being received
+ * from other nodes, since a stale version set would otherwise pin old responses.
+ */
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final DataVersionService dataVersionService;
+    private final PgNotificationListener notificationListener;
+    private final List<String> keyPrefixes;
+
+    public ConditionalGetInterceptor(DataVersionService dataVersionService, PgNotificationListener notificationListener,
+                                     List<String> keyPrefixes) {
+        this.dataVersionService = dataVersionService;
+        this.notificationListener = notificationListener;
+        this.keyPrefixes = keyPrefixes;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        if (!notificationListener.isRunning()) {
+            return true;
+        }
+
+        Map<String, Long> relevant = new TreeMap<>();
+        dataVersionService.getVersions().forEach((key, version) -> {
+            if (keyPrefixes.stream().anyMatch(key::startsWith)) {
+                relevant.put(key, version);
+            }
+        });
+        if (relevant.isEmpty()) {
+            return true;
+        }
+
+        StringBuilder state = new StringBuilder();
+        long lastModified = 0;
+        for (Map.Entry<String, Long> entry : relevant.entrySet()) {
+            state.append(entry.getKey()).append('=').append(entry.getValue()).append(';');
+            lastModified = Math.max(lastModified, dataVersionService.getLastChanged(entry.getKey()));
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        state.append(accept != null ? accept : "");
+
+        // Weak: the representation is equivalent but not byte-identical once gzip compression applies
+        String etag = "W/\"" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        // Sets ETag / Last-Modified on the response and returns true (with 304 already set) when unchanged
+        return !(lastModified > 0 ? webRequest.checkNotModified(etag, lastModified) : webRequest.checkNotModified(etag));
+    }
+}
@@ -0,0 +1,56 @@
+package com.time.tracealibility.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.time.tracealibility.services.DataVersionService;
+import com.time.tracealibility.services.PgNotificationListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Registers the extra response formats offered next to JSON and conditional GET support for polled endpoints.
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private PgNotificationListener pgNotificationListener;
+
+    @Value("${app.http.conditional-get.enabled:true}")
+    private boolean conditionalGetEnabled;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Appended last: only selected when the client explicitly accepts application/vnd.trace.columnar
+        converters.add(new ColumnarHttpMessageConverter(objectMapper));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!conditionalGetEnabled) {
+            return;
+        }
+        // Data endpoints change with view refreshes (views, rollups) and ingest (session counts, MJD lists).
+        // Session gaps also change with the clock (default range ends today, today only expects ended tracks),
+        // which no data version captures, so they are always computed
+        registry.addInterceptor(new ConditionalGetInterceptor(dataVersionService, pgNotificationListener,
+                List.of("view:", "source:")))
+            .addPathPatterns("/api/data/**")
+            .excludePathPatterns("/api/data/hot-window", "/api/data/coalescing", "/api/data/live-feed/**",
+                "/api/data/session-gaps");
+        registry.addInterceptor(new ConditionalGetInterceptor(dataVersionService, pgNotificationListener,
+                List.of("availability:")))
+            .addPathPatterns("/api/status/file-availability", "/api/status/file-availability/spans");
+    }
+}
@@ -1,20 +1,42 @@
 package com.time.tracealibility.controllers;
 
+import com.time.tracealibility.dto.CommonViewPointDTO;
+import com.time.tracealibility.dto.KeysetCursor;
+import com.time.tracealibility.dto.KeysetPageDTO;
+import com.time.tracealibility.dto.RowDataResponse;
+import com.time.tracealibility.dto.SessionGapDTO;
 import com.time.tracealibility.dto.SourceSessionStatusDTO;
 import com.time.tracealibility.entity.*;
-import com.time.tracealibility.repository.IrnssDataRepository;
-import com.time.tracealibility.repository.SatCommonViewDifferenceRepository;
-import com.time.tracealibility.repository.SatPivotedViewRepository;
+import com.time.tracealibility.repository.SatViewKeysetRepository;
+import com.time.tracealibility.repository.SatViewQueryRepository;
+import com.time.tracealibility.services.AggregatePyramidService;
+import com.time.tracealibility.services.CommonViewMatchingService;
+import com.time.tracealibility.services.DeltaSyncService;
+import com.time.tracealibility.services.HotWindowStore;
 import com.time.tracealibility.services.IrnssDataService;
+import com.time.tracealibility.services.LiveFeedService;
+import com.time.tracealibility.services.MjdCatalogService;
+import com.time.tracealibility.services.RequestCoalescer;
+import com.time.tracealibility.services.SatDataStreamingService;
+import com.time.tracealibility.services.SessionRollupService;
+import com.time.tracealibility.services.SeriesDownsamplingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
@@ -22,44 +44,207 @@ import java.util.stream.Collectors;
 public class DataViewController {
 
     @Autowired
-    private IrnssDataRepository irnssDataRepository;
+    private MjdCatalogService mjdCatalogService;
+
+    @Autowired
+    private SessionRollupService sessionRollupService;
 
     @Autowired
     private IrnssDataService irnssDataService;
 
 
     @Autowired
-    private SatCommonViewDifferenceRepository satCommonViewDifferenceRepository;
+    private SatViewQueryRepository satViewQueryRepository;
+
+    @Autowired
+    private SatViewKeysetRepository satViewKeysetRepository;
+
+    @Autowired
+    private SatDataStreamingService satDataStreamingService;
 
     @Autowired
-    private SatPivotedViewRepository satPivotedViewRepository;
+    private SeriesDownsamplingService seriesDownsamplingService;
 
+    @Autowired
+    private AggregatePyramidService aggregatePyramidService;
+
+    @Autowired
+    private HotWindowStore hotWindowStore;
+
+    @Autowired
+    private DeltaSyncService deltaSyncService;
+
+    @Autowired
+    private LiveFeedService liveFeedService;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private CommonViewMatchingService commonViewMatchingService;
+
+    private static final int MIN_MAX_POINTS = 3;
+
+    private static final String COMBINED_VIEW = "sat_combined_view_difference_materialized";
+    private static final String PIVOTED_VIEW = "sat_pivoted_view_materialized";
+
+    private static final int MAX_KEYSET_PAGE_SIZE = 1000;
+
+    private static final int MAX_GAP_DAYS = 366;
 
 
     // 🚀 NEW OPTIMIZED ENDPOINTS FOR PERFORMANCE
 
     /**
      * Fast bulk data endpoint - similar to frontend fast component strategy
-     * Returns all data for location, frontend handles filtering
+     * Returns all data for location, frontend handles filtering.
+     * Ranges starting inside the hot window are served from memory ("cached": true).
+     * With maxPoints, each (source1, source2, satLetter) series is LTTB-downsampled on avgRefsysDifference.
      */
     @GetMapping("/bulk-location-data")
     public ResponseEntity<java.util.Map<String, Object>> getBulkLocationData(
             @RequestParam List<String> source2,
             @RequestParam(required = false) String startDate,
-            @RequestParam(required = false) String endDate
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) Integer maxPoints
     ) {
-        List<SatCommonViewDifference> data = satCommonViewDifferenceRepository.findBulkByLocationAndDateRange(
-            source2, startDate, endDate
-        );
+        if (maxPoints != null) {
+            SeriesDownsamplingService.DownsampledResult<SatCommonViewDifference> downsampled =
+                seriesDownsamplingService.downsampleCommon(source2, startDate, endDate, Math.max(MIN_MAX_POINTS, maxPoints));
+            return ResponseEntity.ok(downsampledResponse(downsampled));
+        }
 
-        java.util.Map<String, Object> response = new java.util.HashMap<>();
+        // Recent ranges are answered from the in-memory hot window; anything older goes to the view
+        List<SatCommonViewDifference> data = hotWindowStore.findBulk(source2, startDate, endDate);
+        boolean cached = data != null;
+        if (!cached) {
+            // Dashboards opened together ask for the same range; they share one query
+            List<String> sources = source2.stream().distinct().sorted().collect(Collectors.toList());
+            data = requestCoalescer.execute("bulkLocationData", java.util.Arrays.asList(sources, startDate, endDate),
+                () -> satViewQueryRepository.findBulkByLocationAndDateRange(sources, startDate, endDate));
+        }
+
+        java.util.Map<String, Object> response = new RowDataResponse();
         response.put("data", data);
         response.put("totalElements", data.size());
-        response.put("cached", true);
+        response.put("cached", cached);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Bulk combined (weighted) differences for charting, optionally LTTB-downsampled per series
+     * on weightedAvgDifference. Rows are read through a JDBC cursor in both modes.
+     */
+    @GetMapping("/bulk-combined-data")
+    public ResponseEntity<java.util.Map<String, Object>> getBulkCombinedData(
+            @RequestParam List<String> source2,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String satLetter,
+            @RequestParam(required = false) Integer maxPoints
+    ) {
+        String satFilter = (satLetter != null && !satLetter.equalsIgnoreCase("ALL")) ? satLetter : null;
+        if (maxPoints != null) {
+            SeriesDownsamplingService.DownsampledResult<SatCombinedViewDifference> downsampled =
+                seriesDownsamplingService.downsampleCombined(source2, startDate, endDate, satFilter, Math.max(MIN_MAX_POINTS, maxPoints));
+            return ResponseEntity.ok(downsampledResponse(downsampled));
+        }
+
+        List<SatCombinedViewDifference> data = new java.util.ArrayList<>();
+        satDataStreamingService.forEachCombinedRow(source2, startDate, endDate, satFilter, data::add);
 
+        java.util.Map<String, Object> response = new RowDataResponse();
+        response.put("data", data);
+        response.put("totalElements", data.size());
+        response.put("downsampled", false);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Coverage and hit/miss counters of the in-memory hot window behind /bulk-location-data.
+     */
+    @GetMapping("/hot-window")
+    public ResponseEntity<java.util.Map<String, Object>> getHotWindowStats() {
+        return ResponseEntity.ok(hotWindowStore.getStats());
+    }
+
+    /**
+     * Executions and coalesced (joined) calls per single-flight read path.
+     */
+    @GetMapping("/coalescing")
+    public ResponseEntity<java.util.Map<String, Object>> getCoalescingStats() {
+        return ResponseEntity.ok(requestCoalescer.getStats());
+    }
+
+    /**
+     * Server-Sent Events feed of new common-view differences, ingest commits and file availability changes,
+     * filtered by source (matched against source1 or source2) and satellite letter. See {@link LiveFeedService}.
+     * Answers 503 when the subscriber limit is reached.
+     */
+    @GetMapping(path = "/live-feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeLiveFeed(
+      @RequestParam(required = false) List<String> source,
+      @RequestParam(required = false) String satLetter
+    ) {
+        SseEmitter emitter = liveFeedService.subscribe(source, satLetter);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    @GetMapping("/live-feed/stats")
+    public ResponseEntity<java.util.Map<String, Object>> getLiveFeedStats() {
+        return ResponseEntity.ok(liveFeedService.getStats());
+    }
+
+    /**
+     * Zoomable combined series from the aggregate pyramid. The level (SESSION, HOUR, DAY or WEEK) is the
+     * finest one that keeps each (source1, source2, satLetter) series within maxPoints for the range,
+     * and each point carries count/min/max/mean/stddev of weightedAvgDifference for its bucket.
+     */
+    @GetMapping("/combined-series")
+    public ResponseEntity<java.util.Map<String, Object>> getCombinedSeries(
+            @RequestParam(required = false) List<String> source2,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String satLetter,
+            @RequestParam(defaultValue = "500") int maxPoints
+    ) {
+        String satFilter = (satLetter != null && !satLetter.equalsIgnoreCase("ALL")) ? satLetter : null;
+        return ResponseEntity.ok(aggregatePyramidService.querySeries(
+            source2, startDate, endDate, satFilter, Math.max(MIN_MAX_POINTS, maxPoints)));
+    }
+
+    private java.util.Map<String, Object> downsampledResponse(SeriesDownsamplingService.DownsampledResult<?> downsampled) {
+        java.util.Map<String, Object> response = new RowDataResponse();
+        response.put("data", downsampled.getRows());
+        response.put("totalElements", downsampled.getRows().size());
+        response.put("downsampled", true);
+        response.put("maxPoints", downsampled.getMaxPoints());
+        response.put("seriesCount", downsampled.getSeriesCount());
+        response.put("sourceRows", downsampled.getSourceRows());
+        return response;
+    }
+
+    /**
+     * Streaming variant of /bulk-location-data for long ranges.
+     * Rows are read through a JDBC cursor and written as NDJSON (one SatCommonViewDifference per line)
+     * in mjd_date_time order, so server memory stays flat and the first rows arrive immediately.
+     */
+    @GetMapping(value = "/bulk-location-data/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBulkLocationData(
+            @RequestParam List<String> source2,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate
+    ) {
+        StreamingResponseBody body = out -> satDataStreamingService.streamBulkLocationData(source2, startDate, endDate, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     /**
      * Optimized paginated endpoint using only indexed columns
      */
@@ -74,54 +259,133 @@ public class DataViewController {
       @RequestParam(required = false) String satLetter,
       @RequestParam List<String> source2
     ) {
-      //
-      // --- FIX STARTS HERE ---
-      //
-      // Map the API's camelCase property name to the database's snake_case column name.
-      String sortColumn = sortBy;
-      if ("mjdDateTime".equalsIgnoreCase(sortBy)) {
-        sortColumn = "mjd_date_time";
+      // Sort columns are whitelisted (camelCase or column name); anything else is a bad request
+      if (!SatViewQueryRepository.COMBINED_SORT_COLUMNS.containsKey(sortBy)) {
+        return ResponseEntity.badRequest().build();
+      }
+      Pageable pageable;
+      try {
+        pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(sortDirection), sortBy));
+      } catch (IllegalArgumentException e) {
+        return ResponseEntity.badRequest().build();
       }
-      // Add other mappings here if you sort by other columns with different names.
 
-      // Use the corrected sortColumn to build the Sort object.
-      Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortColumn);
-      //
-      // --- FIX ENDS HERE ---
-      //
+      return ResponseEntity.ok(
+        satViewQueryRepository.findCombinedPage(source2, startDate, endDate, satLetter, pageable));
+    }
 
-      Pageable pageable = PageRequest.of(page, size, sort);
+    /**
+     * Cursor-paginated variant of /optimized-sat-differences, ordered by (mjd_date_time, id).
+     * Pass the returned nextCursor as cursor (same sortDirection) to fetch the following page; no count query is run.
+     * With since (a syncCursor from an earlier download) only rows whose source/day received new data
+     * after that point are returned.
+     */
+    @GetMapping("/optimized-sat-differences/keyset")
+    public ResponseEntity<KeysetPageDTO<SatCombinedViewDifference>> getOptimizedSatDifferencesKeyset(
+      @RequestParam(defaultValue = "20") int size,
+      @RequestParam(defaultValue = "desc") String sortDirection,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) String since,
+      @RequestParam(required = false) String startDate,
+      @RequestParam(required = false) String endDate,
+      @RequestParam(required = false) String satLetter,
+      @RequestParam List<String> source2
+    ) {
+      KeysetCursor after;
+      Long changedSince;
+      boolean descending = !"asc".equalsIgnoreCase(sortDirection);
+      try {
+        after = cursor != null ? KeysetCursor.decode(cursor) : null;
+        changedSince = decodeSyncCursor(since);
+      } catch (IllegalArgumentException e) {
+        return ResponseEntity.badRequest().build();
+      }
+      // A cursor continues the listing it came from; replayed in the other direction it would skip rows
+      if (after != null && after.isDescending() != descending) {
+        return ResponseEntity.badRequest().build();
+      }
+      int pageSize = clampKeysetPageSize(size);
 
-      Page<SatCombinedViewDifference> result = satCommonViewDifferenceRepository.findOptimizedByLocationAndFilters(
-        source2, startDate, endDate, satLetter, pageable
+      // Read before the rows: anything refreshed in between is returned again next time rather than skipped
+      Long watermark = deltaSyncService.getWatermark(COMBINED_VIEW);
+      List<SatCombinedViewDifference> rows = satViewKeysetRepository.findCombinedPage(
+        source2, startDate, endDate, satLetter, changedSince, after, descending, pageSize
       );
 
-      return ResponseEntity.ok(result);
+      return ResponseEntity.ok(toKeysetPage(rows, pageSize, descending, watermark,
+        SatCombinedViewDifference::getMjdDateTime, SatCombinedViewDifference::getId));
     }
 
 
-
-
     @GetMapping("/session-completeness")
     public ResponseEntity<List<SourceSessionStatusDTO>> getSessionCompleteness(
             @RequestParam(required = false) String source,
-            @RequestParam(required = false) String mjd,
+            @RequestParam(required = false) Integer mjd,
             @RequestParam(required = false) Integer currentSessionCount,
-            @RequestParam(required = false) Integer expectedSessionCount) {
+            @RequestParam(required = false) Integer expectedSessionCount,
+            @RequestParam(required = false) Integer maxCompletenessPercent) {
 
-        List<SourceSessionStatusDTO> result = irnssDataService.getSessionCompleteness(source, mjd, currentSessionCount, expectedSessionCount);
+        // currentSessionCount / maxCompletenessPercent narrow the result to days at or below that completeness
+        if (expectedSessionCount != null && expectedSessionCount <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<SourceSessionStatusDTO> result = irnssDataService.getSessionCompleteness(source, mjd, currentSessionCount,
+                expectedSessionCount, maxCompletenessPercent);
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Missing CGGTTS tracks per source and MJD, for at most {@value #MAX_GAP_DAYS} days (default: the last 30).
+     */
+    @GetMapping("/session-gaps")
+    public ResponseEntity<List<SessionGapDTO>> getSessionGaps(
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) Integer mjd,
+            @RequestParam(required = false) Integer mjdFrom,
+            @RequestParam(required = false) Integer mjdTo) {
+
+        int to = mjd != null ? mjd : mjdTo != null ? mjdTo : sessionRollupService.currentMjd();
+        int from = mjd != null ? mjd : mjdFrom != null ? mjdFrom : to - 29;
+        if (from > to || to - from >= MAX_GAP_DAYS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(sessionRollupService.getSessionGaps(source, from, to));
+    }
+
+    /**
+     * Common-view differences of any two sources for MJDs [mjdFrom, mjdTo], matched on demand from the raw
+     * tracks, with the combined view's columns (units and weighting per app.common-view.*). The range may span
+     * at most app.common-view.max-days days. Answers 503 until app.common-view.refsys-scale is configured;
+     * the weighted columns are null until app.common-view.weighting is.
+     */
+    @GetMapping("/common-view-match")
+    public ResponseEntity<List<CommonViewPointDTO>> getCommonViewMatch(
+            @RequestParam String source1,
+            @RequestParam String source2,
+            @RequestParam int mjdFrom,
+            @RequestParam int mjdTo,
+            @RequestParam(required = false) String satLetter) {
+
+        if (!commonViewMatchingService.isConfigured()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        if (mjdFrom > mjdTo || mjdTo - mjdFrom >= commonViewMatchingService.getMaxDays()) {
+            return ResponseEntity.badRequest().build();
+        }
+        String satFilter = (satLetter != null && !satLetter.equalsIgnoreCase("ALL")) ? satLetter : null;
+        return ResponseEntity.ok(commonViewMatchingService.match(source1, source2, mjdFrom, mjdTo, satFilter));
+    }
+
     @GetMapping("/available-mjds")
-    public ResponseEntity<List<String>> getAvailableMjds() {
-        List<Integer> mjds = irnssDataRepository.findAll().stream()
-                .map(IrnssData::getMjd)
-                .distinct()
-                .sorted()
-                .collect(Collectors.toList());
-        List<String> mjdStrings = mjds.stream().map(String::valueOf).collect(Collectors.toList());
-        return ResponseEntity.ok(mjdStrings);
+    public ResponseEntity<List<String>> getAvailableMjds(@RequestParam(required = false) String source) {
+        // Served from the in-memory MJD catalogue
+        List<String> mjds = source != null ? mjdCatalogService.getAvailableMjds(source) : mjdCatalogService.getAvailableMjds();
+        return ResponseEntity.ok(mjds);
+    }
+
+    @GetMapping("/mjd-catalogue")
+    public ResponseEntity<Map<String, NavigableMap<Integer, Long>>> getMjdCatalogue() {
+        return ResponseEntity.ok(mjdCatalogService.getRowCounts());
     }
 
 
@@ -135,15 +399,93 @@ public class DataViewController {
     @RequestParam(required = false) String endDate,
     @RequestParam(required = false) String satLetter
   ) {
-    Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
-    Pageable pageable = PageRequest.of(page, size, sort);
+    if (!SatViewQueryRepository.PIVOTED_SORT_COLUMNS.containsKey(sortBy)) {
+      return ResponseEntity.badRequest().build();
+    }
+    Pageable pageable;
+    try {
+      pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(sortDirection), sortBy));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    return ResponseEntity.ok(satViewQueryRepository.findPivotedPage(startDate, endDate, satLetter, pageable));
+  }
+
+  /**
+   * Cursor-paginated variant of /pivoted-sat-data, ordered by (mjd_date_time, id).
+   * With since, only rows of days that received new data (from any source) after that sync cursor.
+   */
+  @GetMapping("/pivoted-sat-data/keyset")
+  public ResponseEntity<KeysetPageDTO<SatPivotedView>> getPivotedSatDataKeyset(
+    @RequestParam(defaultValue = "15") int size,
+    @RequestParam(defaultValue = "desc") String sortDirection,
+    @RequestParam(required = false) String cursor,
+    @RequestParam(required = false) String since,
+    @RequestParam(required = false) String startDate,
+    @RequestParam(required = false) String endDate,
+    @RequestParam(required = false) String satLetter
+  ) {
+    KeysetCursor after;
+    Long changedSince;
+    boolean descending = !"asc".equalsIgnoreCase(sortDirection);
+    try {
+      after = cursor != null ? KeysetCursor.decode(cursor) : null;
+      changedSince = decodeSyncCursor(since);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+    // A cursor continues the listing it came from; replayed in the other direction it would skip rows
+    if (after != null && after.isDescending() != descending) {
+      return ResponseEntity.badRequest().build();
+    }
+    int pageSize = clampKeysetPageSize(size);
 
-    Page<SatPivotedView> result = satPivotedViewRepository.findByFilters(
-      startDate, endDate, (satLetter != null && !satLetter.equalsIgnoreCase("ALL")) ? satLetter : null, pageable
+    Long watermark = deltaSyncService.getWatermark(PIVOTED_VIEW);
+    List<SatPivotedView> rows = satViewKeysetRepository.findPivotedPage(
+      startDate, endDate, (satLetter != null && !satLetter.equalsIgnoreCase("ALL")) ? satLetter : null,
+      changedSince, after, descending, pageSize
     );
 
-    return ResponseEntity.ok(result);
+    return ResponseEntity.ok(toKeysetPage(rows, pageSize, descending, watermark,
+      SatPivotedView::getMjdDateTime, SatPivotedView::getId));
+  }
+
+  /**
+   * Sync cursors are the ingest change sequence a view included, sent as "d" + decimal.
+   */
+  private Long decodeSyncCursor(String since) {
+    if (since == null) {
+      return null;
+    }
+    if (!since.startsWith("d")) {
+      throw new IllegalArgumentException("Malformed sync cursor");
+    }
+    try {
+      return Long.parseLong(since.substring(1));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Malformed sync cursor", e);
+    }
   }
 
+  private int clampKeysetPageSize(int size) {
+    return Math.max(1, Math.min(size, MAX_KEYSET_PAGE_SIZE));
+  }
 
+  /**
+   * Trims the extra look-ahead row fetched by the repository and derives the next cursor from the last kept row.
+   */
+  private <T> KeysetPageDTO<T> toKeysetPage(List<T> rows, int pageSize, boolean descending, Long watermark,
+                                            Function<T, LocalDateTime> timeOf, Function<T, String> idOf) {
+    boolean hasNext = rows.size() > pageSize;
+    List<T> content = hasNext ? rows.subList(0, pageSize) : rows;
+    String nextCursor = null;
+    if (hasNext) {
+      T last = content.get(content.size() - 1);
+      nextCursor = new KeysetCursor(timeOf.apply(last), idOf.apply(last), descending).encode();
+    }
+    // No watermark until the view has been refreshed once with delta sync in place
+    String syncCursor = watermark != null ? "d" + watermark : null;
+    return new KeysetPageDTO<>(content, content.size(), hasNext, nextCursor, syncCursor);
+  }
 }
@@ -2,13 +2,19 @@ package com.time.tracealibility.controllers;
 
 import com.time.tracealibility.dto.FileUploadStatsDTO;
 
+import com.time.tracealibility.dto.ReportJobDTO;
 import com.time.tracealibility.services.RealFileUploadStatisticsService;
+import com.time.tracealibility.services.ReportJobService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/statistics")
@@ -20,6 +26,9 @@ import java.time.LocalDateTime;
     @Autowired
     private RealFileUploadStatisticsService fileUploadStatsService;
 
+    @Autowired
+    private ReportJobService reportJobService;
+
     /**
      * Get comprehensive file upload statistics
      * Shows detailed information about which files were uploaded from which locations on which days
@@ -29,6 +38,10 @@ import java.time.LocalDateTime;
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate
     ) {
+        if (startDate == null && endDate == null) {
+            return ResponseEntity.ok(fileUploadStatsService.generateRecentFileUploadReport(30));
+        }
+
         // Set default date range if not provided (last 30 days)
         if (startDate == null) {
             startDate = LocalDateTime.now().minusDays(30);
@@ -62,4 +75,59 @@ import java.time.LocalDateTime;
         FileUploadStatsDTO stats = fileUploadStatsService.getMjdStats(mjd);
         return ResponseEntity.ok(stats);
     }
+
+    /**
+     * Submit an asynchronous report job for a (long) range. Answers 202 with the job and its status URL;
+     * a job already queued, running or finished for the same range is returned instead of starting another.
+     * Answers 503 when the job queue is full.
+     */
+    @PostMapping("/report-jobs")
+    public ResponseEntity<ReportJobDTO> submitReportJob(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate
+    ) {
+        if (startDate.isAfter(endDate)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            ReportJobDTO job = reportJobService.submit(startDate, endDate);
+            return ResponseEntity.accepted()
+                    .location(ServletUriComponentsBuilder.fromCurrentRequestUri()
+                            .path("/{jobId}").buildAndExpand(job.getJobId()).toUri())
+                    .body(job);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @GetMapping("/report-jobs/{jobId}")
+    public ResponseEntity<ReportJobDTO> getReportJob(@PathVariable String jobId) {
+        ReportJobDTO job = reportJobService.getJob(jobId);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * The report of a finished job. While the job is queued or running this answers 202 with its status,
+     * 500 with the status if it failed, and 404 for unknown or expired jobs.
+     */
+    @GetMapping("/report-jobs/{jobId}/result")
+    public ResponseEntity<Object> getReportJobResult(@PathVariable String jobId) {
+        ReportJobDTO job = reportJobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        FileUploadStatsDTO result = reportJobService.getResult(jobId);
+        if (result != null) {
+            return ResponseEntity.ok(result);
+        }
+        if (ReportJobService.Status.FAILED.name().equals(job.getStatus())) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(job);
+        }
+        return ResponseEntity.accepted().body(job);
+    }
+
+    @GetMapping("/report-jobs/stats")
+    public ResponseEntity<Map<String, Object>> getReportJobStats() {
+        return ResponseEntity.ok(reportJobService.getStats());
+    }
 }
@@ -1,8 +1,12 @@
 package com.time.tracealibility.controllers;
 
+import com.time.tracealibility.dto.ArrivalLatencyDTO;
+import com.time.tracealibility.dto.AvailabilitySpansDTO;
 import com.time.tracealibility.dto.FileStatusDTO;
 import com.time.tracealibility.entity.FileAvailability;
 import com.time.tracealibility.repository.FileAvailabilityRepository;
+import com.time.tracealibility.services.ArrivalLatencyService;
+import com.time.tracealibility.services.AvailabilityMatrixService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
@@ -26,6 +30,12 @@ public class StatusController {
     @Autowired
     private FileAvailabilityRepository fileAvailabilityRepository;
 
+    @Autowired
+    private AvailabilityMatrixService availabilityMatrixService;
+
+    @Autowired
+    private ArrivalLatencyService arrivalLatencyService;
+
     @Value("${irnss.parent-folder}")
     private String parentFolder;
 
@@ -45,15 +55,6 @@ public class StatusController {
 
         List<FileAvailability> availabilities = fileAvailabilityRepository.findBySourceInAndMjdBetween(sources, startMjd, endMjd);
 
-        System.out.println("Parent folder configured as: " + parentFolder);
-        availabilities.forEach(fa -> {
-            System.out.println("Processing record - Source: " + fa.getSource() + 
-                             ", MJD: " + fa.getMjd() + 
-                             ", Filename: " + fa.getFileName() +
-                             ", Last Checked: " + fa.getLastCheckedTimestamp() +
-                             ", Creation Time: " + fa.getFileCreationTime());
-        });
-
         return ResponseEntity.ok(availabilities.stream()
                 .map(fa -> new FileStatusDTO(
                     fa.getSource(),
@@ -64,8 +65,34 @@ public class StatusController {
                     fa.getFileCreationTime()
                 ))
                 .collect(Collectors.toList()));
+    }
 
+    /**
+     * Compact form of {@link #getFileAvailability} for heatmaps, served from the in-memory availability matrix:
+     * per source and status, runs of consecutive days as {@code [firstMjd, lastMjd]}. Without {@code sources}
+     * every known source is returned. Answers 400 for a reversed range.
+     */
+    @GetMapping("/file-availability/spans")
+    public ResponseEntity<AvailabilitySpansDTO> getFileAvailabilitySpans(
+            @RequestParam(required = false) List<String> sources,
+            @RequestParam String startDate, // Expects "yyyy-MM-dd"
+            @RequestParam String endDate    // Expects "yyyy-MM-dd"
+    ) {
+        int startMjd = (int) ChronoUnit.DAYS.between(MJD_EPOCH, LocalDate.parse(startDate, DateTimeFormatter.ISO_LOCAL_DATE));
+        int endMjd = (int) ChronoUnit.DAYS.between(MJD_EPOCH, LocalDate.parse(endDate, DateTimeFormatter.ISO_LOCAL_DATE));
+        if (startMjd > endMjd) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(availabilityMatrixService.getSpans(sources, startMjd, endMjd));
+    }
 
+    /**
+     * File delivery latency after the end of the observation day: percentiles, late-file counts and the
+     * latency histogram per source (every known source without {@code sources}) and overall.
+     */
+    @GetMapping("/arrival-latency")
+    public ResponseEntity<ArrivalLatencyDTO> getArrivalLatency(@RequestParam(required = false) List<String> sources) {
+        return ResponseEntity.ok(arrivalLatencyService.getLatencies(sources));
     }
 }
 
@@ -0,0 +1,46 @@
+package com.time.tracealibility.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * How long after the end of their observation day (00:00 UTC of the next day) received files were created,
+ * per source and over all sources. Percentiles are estimated from the latency histogram; a file is LATE when
+ * its latency exceeds {@code lateThresholdMinutes}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArrivalLatencyDTO {
+    private long lateThresholdMinutes;
+    private SourceLatency overall;
+    private List<SourceLatency> sources;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SourceLatency {
+        private String source;
+        private long files;
+        private long lateFiles;
+        private Double p50Minutes;
+        private Double p90Minutes;
+        private Double p99Minutes;
+        private Long maxMinutes;
+        private List<Bucket> histogram;
+    }
+
+    /**
+     * Files with latency up to {@code upToMinutes} (and above the previous bucket); null for the last, open bucket.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        private Long upToMinutes;
+        private long files;
+    }
+}
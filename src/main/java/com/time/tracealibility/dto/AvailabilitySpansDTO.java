@@ -0,0 +1,22 @@
+package com.time.tracealibility.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * File availability of a source x MJD range as run-length encoded spans:
+ * {@code spans[source][status]} is a list of {@code [firstMjd, lastMjd]} (inclusive) runs of consecutive days
+ * with that status. Days without a file_availability row belong to no span.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilitySpansDTO {
+    private int startMjd;
+    private int endMjd;
+    private Map<String, Map<String, List<int[]>>> spans;
+}
@@ -0,0 +1,31 @@
+package com.time.tracealibility.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One (satLetter, mjd, sttime) epoch of an on-demand common-view match, with the columns of
+ * sat_combined_view_difference. Averages are REFSYS times app.common-view.refsys-scale; the weighted ones
+ * follow app.common-view.weighting and are null while it is not configured.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommonViewPointDTO {
+    private String satLetter;
+    private int mjd;
+    private String sttime;
+    private LocalDateTime mjdDateTime;
+    private int commonSatelliteCount;
+    private String source1;
+    private String source2;
+    private double avg1;
+    private double avg2;
+    private double avgRefsysDifference;
+    private Double weightedAvg1;
+    private Double weightedAvg2;
+    private Double weightedAvgDifference;
+}
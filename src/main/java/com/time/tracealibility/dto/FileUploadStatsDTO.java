@@ -84,6 +84,9 @@ public class FileUploadStatsDTO {
         private Long failedFiles;
         private Double successRate;
         private String status; // ACTIVE, INACTIVE, INTERMITTENT
+        private Double arrivalP50Minutes; // file delivery latency after the end of the observation day
+        private Double arrivalP90Minutes;
+        private Long lateFiles;
     }
 
     @Data
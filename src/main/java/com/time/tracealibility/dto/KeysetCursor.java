@@ -0,0 +1,64 @@
+package com.time.tracealibility.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a keyset page, ordered by (mjd_date_time, id), and the direction of that order.
+ * Exposed to clients only as an opaque URL-safe token; a cursor only continues a listing in its own direction.
+ */
+public class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private static final String DESCENDING = "d";
+    private static final String ASCENDING = "a";
+
+    private final LocalDateTime mjdDateTime;
+    private final String id;
+    private final boolean descending;
+
+    public KeysetCursor(LocalDateTime mjdDateTime, String id, boolean descending) {
+        this.mjdDateTime = mjdDateTime;
+        this.id = id;
+        this.descending = descending;
+    }
+
+    public LocalDateTime getMjdDateTime() {
+        return mjdDateTime;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public String encode() {
+        String raw = (descending ? DESCENDING : ASCENDING) + SEPARATOR + mjdDateTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int second = first < 0 ? -1 : raw.indexOf(SEPARATOR, first + 1);
+            String direction = first < 0 ? "" : raw.substring(0, first);
+            if (second <= first + 1 || !(DESCENDING.equals(direction) || ASCENDING.equals(direction))) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(first + 1, second)), raw.substring(second + 1),
+                    DESCENDING.equals(direction));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
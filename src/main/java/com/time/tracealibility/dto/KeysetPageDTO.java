@@ -0,0 +1,24 @@
+package com.time.tracealibility.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a cursor-paginated result. No total count is computed;
+ * pass {@code nextCursor} back as {@code cursor} to continue while {@code hasNext} is true.
+ * {@code syncCursor} is the delta-sync position of the data read: keep the one from the first page of a
+ * download and pass it as {@code since} later to fetch only rows changed after it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPageDTO<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+    private String syncCursor;
+}
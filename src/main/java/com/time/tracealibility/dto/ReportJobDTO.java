@@ -0,0 +1,26 @@
+package com.time.tracealibility.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of an asynchronous statistics report job. {@code status} is QUEUED, RUNNING, DONE or FAILED;
+ * once finished the job and its result are kept until {@code expiresAt}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobDTO {
+    private String jobId;
+    private String status;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime expiresAt;
+    private String error;
+}
@@ -0,0 +1,26 @@
+package com.time.tracealibility.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One point of a multi-resolution series: statistics of weightedAvgDifference over a time bucket.
+ * At SESSION resolution every point is a single session, so min = max = mean and stddev = 0.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupPointDTO {
+    private String source1;
+    private String source2;
+    private String satLetter;
+    private LocalDateTime bucketStart;
+    private long count;
+    private Double min;
+    private Double max;
+    private Double mean;
+    private Double stddev;
+}
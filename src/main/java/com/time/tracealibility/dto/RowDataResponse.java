@@ -0,0 +1,12 @@
+package com.time.tracealibility.dto;
+
+import java.util.HashMap;
+
+/**
+ * JSON object response whose "data" entry is a list of view rows (SatCommonViewDifference,
+ * SatCombinedViewDifference or SatPivotedView), with counts and flags alongside.
+ * Serialized like any map; the type only tells the columnar converter that the response can be encoded,
+ * so other map responses (stats, catalogue) answer 406 to a columnar Accept header.
+ */
+public class RowDataResponse extends HashMap<String, Object> {
+}
@@ -0,0 +1,40 @@
+package com.time.tracealibility.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Tracking sessions of one source on one MJD against the CGGTTS schedule.
+ * {@code slots} has one character per 16-minute slot: '1' observed, '0' scheduled but missing,
+ * '-' not scheduled (or not yet ended on the current day).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionGapDTO {
+    private String source;
+    private int mjd;
+    private int expectedCount;
+    private int observedCount;
+    private int missingCount;
+    private String slots;
+    private List<Gap> gaps;
+
+    /**
+     * A run of consecutive missing tracks; times are UTC {@code HH:mm}, from the first track's start
+     * to the last one's end.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Gap {
+        private int firstSlot;
+        private int lastSlot;
+        private String start;
+        private String end;
+        private int tracks;
+    }
+}
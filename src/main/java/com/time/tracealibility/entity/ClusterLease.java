@@ -0,0 +1,63 @@
+package com.time.tracealibility.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Time-bounded ownership of a named piece of work (an ingest folder, the view refresh job).
+ * A lease is taken or renewed with a single atomic upsert and silently expires if its owner dies.
+ */
+@Entity
+@Table(name = "cluster_lease",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"lease_name"}))
+public class ClusterLease {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "lease_name", nullable = false)
+    private String leaseName;
+
+    @Column(name = "owner_node", nullable = false)
+    private String ownerNode;
+
+    @Column(name = "expires_at", columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    private LocalDateTime expiresAt;
+
+    public ClusterLease() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getLeaseName() {
+        return leaseName;
+    }
+
+    public void setLeaseName(String leaseName) {
+        this.leaseName = leaseName;
+    }
+
+    public String getOwnerNode() {
+        return ownerNode;
+    }
+
+    public void setOwnerNode(String ownerNode) {
+        this.ownerNode = ownerNode;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
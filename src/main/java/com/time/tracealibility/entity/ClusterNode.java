@@ -0,0 +1,63 @@
+package com.time.tracealibility.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Heartbeat row for one running backend instance.
+ * Nodes whose heartbeat is older than the configured timeout are considered dead
+ * and their location folders are re-sharded across the remaining nodes.
+ */
+@Entity
+@Table(name = "cluster_node")
+public class ClusterNode {
+
+    @Id
+    @Column(name = "node_id")
+    private String nodeId;
+
+    @Column(name = "host_name")
+    private String hostName;
+
+    @Column(name = "started_at", columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    private LocalDateTime startedAt;
+
+    @Column(name = "last_heartbeat", columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    private LocalDateTime lastHeartbeat;
+
+    public ClusterNode() {
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public String getHostName() {
+        return hostName;
+    }
+
+    public void setHostName(String hostName) {
+        this.hostName = hostName;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getLastHeartbeat() {
+        return lastHeartbeat;
+    }
+
+    public void setLastHeartbeat(LocalDateTime lastHeartbeat) {
+        this.lastHeartbeat = lastHeartbeat;
+    }
+}
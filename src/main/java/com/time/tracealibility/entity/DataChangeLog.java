@@ -0,0 +1,76 @@
+package com.time.tracealibility.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Latest ingest change per (source, mjd). {@code change_seq} is the global "ingest" data version at the time
+ * new raw rows for that source and day were stored, so "everything changed after cursor N" is
+ * {@code change_seq > N}. One row per key keeps the table bounded by sources x days.
+ */
+@Entity
+@Table(name = "data_change_log",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"source", "mjd"}),
+       indexes = @Index(name = "idx_data_change_log_seq", columnList = "change_seq"))
+public class DataChangeLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "source", nullable = false)
+    private String source;
+
+    @Column(name = "mjd", nullable = false)
+    private int mjd;
+
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    @Column(name = "changed_at")
+    private LocalDateTime changedAt;
+
+    public DataChangeLog() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public int getMjd() {
+        return mjd;
+    }
+
+    public void setMjd(int mjd) {
+        this.mjd = mjd;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+}
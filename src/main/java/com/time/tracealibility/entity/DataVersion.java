@@ -0,0 +1,63 @@
+package com.time.tracealibility.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Monotonically increasing data version per materialized view ("view:...") or ingest source ("source:...").
+ * Versions are bumped atomically in PostgreSQL and broadcast to every node with NOTIFY.
+ */
+@Entity
+@Table(name = "data_version",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"version_key"}))
+public class DataVersion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "version_key", nullable = false)
+    private String versionKey;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Column(name = "updated_at", columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    private LocalDateTime updatedAt;
+
+    public DataVersion() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getVersionKey() {
+        return versionKey;
+    }
+
+    public void setVersionKey(String versionKey) {
+        this.versionKey = versionKey;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
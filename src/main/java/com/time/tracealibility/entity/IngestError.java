@@ -0,0 +1,120 @@
+package com.time.tracealibility.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ingest problems of one received file: lines that could not be parsed or stored, or a file that could not be
+ * read at all. Counters accumulate over the incremental passes over the file; {@code last_error} holds the most
+ * recent message.
+ */
+@Entity
+@Table(name = "ingest_error",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"source", "mjd", "file_name"}),
+       indexes = @Index(name = "idx_ingest_error_mjd", columnList = "mjd, source"))
+public class IngestError {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "source", nullable = false)
+    private String source;
+
+    @Column(name = "mjd", nullable = false)
+    private int mjd;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "lines_read", nullable = false)
+    private long linesRead;
+
+    @Column(name = "lines_skipped", nullable = false)
+    private long linesSkipped;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "first_seen_at")
+    private LocalDateTime firstSeenAt;
+
+    @Column(name = "last_seen_at")
+    private LocalDateTime lastSeenAt;
+
+    public IngestError() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public int getMjd() {
+        return mjd;
+    }
+
+    public void setMjd(int mjd) {
+        this.mjd = mjd;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public long getLinesRead() {
+        return linesRead;
+    }
+
+    public void setLinesRead(long linesRead) {
+        this.linesRead = linesRead;
+    }
+
+    public long getLinesSkipped() {
+        return linesSkipped;
+    }
+
+    public void setLinesSkipped(long linesSkipped) {
+        this.linesSkipped = linesSkipped;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getFirstSeenAt() {
+        return firstSeenAt;
+    }
+
+    public void setFirstSeenAt(LocalDateTime firstSeenAt) {
+        this.firstSeenAt = firstSeenAt;
+    }
+
+    public LocalDateTime getLastSeenAt() {
+        return lastSeenAt;
+    }
+
+    public void setLastSeenAt(LocalDateTime lastSeenAt) {
+        this.lastSeenAt = lastSeenAt;
+    }
+}
@@ -7,7 +7,8 @@ import lombok.NoArgsConstructor;
 @Entity
 @Table(
         name = "irnss_data",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"sat", "mjd", "sttime", "source"})
+        uniqueConstraints = @UniqueConstraint(columnNames = {"sat", "mjd", "sttime", "source"}),
+        indexes = @Index(name = "idx_irnss_data_source_mjd", columnList = "source, mjd, sttime")
 )
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,74 @@
+package com.time.tracealibility.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per (source, mjd) present in irnss_data, with the number of raw rows stored for it.
+ * Maintained incrementally by ingest, so listing the available days never touches irnss_data itself.
+ */
+@Entity
+@Table(name = "mjd_catalog",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"source", "mjd"}))
+public class MjdCatalog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "source", nullable = false)
+    private String source;
+
+    @Column(name = "mjd", nullable = false)
+    private int mjd;
+
+    @Column(name = "row_count", nullable = false)
+    private long rowCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public MjdCatalog() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public int getMjd() {
+        return mjd;
+    }
+
+    public void setMjd(int mjd) {
+        this.mjd = mjd;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public void setRowCount(long rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,142 @@
+package com.time.tracealibility.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One bucket of the aggregate pyramid over weighted_avg_difference of
+ * sat_combined_view_difference_materialized, per (source1, source2, sat_letter).
+ * Sum and sum of squares are stored instead of mean and stddev so buckets can be merged into coarser levels.
+ */
+@Entity
+@Table(name = "sat_combined_rollup",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"source1", "source2", "sat_letter", "resolution", "bucket_start"}),
+       indexes = @Index(name = "idx_sat_combined_rollup_lookup", columnList = "resolution, source2, bucket_start"))
+public class SatCombinedRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "source1", nullable = false)
+    private String source1;
+
+    @Column(name = "source2", nullable = false)
+    private String source2;
+
+    @Column(name = "sat_letter", nullable = false)
+    private String satLetter;
+
+    @Column(name = "resolution", nullable = false, length = 8)
+    private String resolution; // HOUR, DAY, WEEK
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "sample_count", nullable = false)
+    private long sampleCount;
+
+    @Column(name = "min_value")
+    private Double minValue;
+
+    @Column(name = "max_value")
+    private Double maxValue;
+
+    @Column(name = "sum_value")
+    private Double sumValue;
+
+    @Column(name = "sum_squares")
+    private Double sumSquares;
+
+    public SatCombinedRollup() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSource1() {
+        return source1;
+    }
+
+    public void setSource1(String source1) {
+        this.source1 = source1;
+    }
+
+    public String getSource2() {
+        return source2;
+    }
+
+    public void setSource2(String source2) {
+        this.source2 = source2;
+    }
+
+    public String getSatLetter() {
+        return satLetter;
+    }
+
+    public void setSatLetter(String satLetter) {
+        this.satLetter = satLetter;
+    }
+
+    public String getResolution() {
+        return resolution;
+    }
+
+    public void setResolution(String resolution) {
+        this.resolution = resolution;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    public void setSampleCount(long sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+
+    public Double getMinValue() {
+        return minValue;
+    }
+
+    public void setMinValue(Double minValue) {
+        this.minValue = minValue;
+    }
+
+    public Double getMaxValue() {
+        return maxValue;
+    }
+
+    public void setMaxValue(Double maxValue) {
+        this.maxValue = maxValue;
+    }
+
+    public Double getSumValue() {
+        return sumValue;
+    }
+
+    public void setSumValue(Double sumValue) {
+        this.sumValue = sumValue;
+    }
+
+    public Double getSumSquares() {
+        return sumSquares;
+    }
+
+    public void setSumSquares(Double sumSquares) {
+        this.sumSquares = sumSquares;
+    }
+}
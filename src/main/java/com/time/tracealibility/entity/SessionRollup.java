@@ -0,0 +1,98 @@
+package com.time.tracealibility.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Observed tracking sessions of one source on one MJD, as the bitset of
+ * {@link com.time.tracealibility.timeseries.SessionSlots} (slots 0-63 in {@code slots_lo}, 64-89 in {@code slots_hi}).
+ * Ingest ORs new sessions in, so re-reading data never double counts; {@code observed_count} is the number of set bits.
+ */
+@Entity
+@Table(name = "session_rollup",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"source", "mjd"}),
+       indexes = @Index(name = "idx_session_rollup_mjd", columnList = "mjd"))
+public class SessionRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "source", nullable = false)
+    private String source;
+
+    @Column(name = "mjd", nullable = false)
+    private int mjd;
+
+    @Column(name = "slots_lo", nullable = false)
+    private long slotsLo;
+
+    @Column(name = "slots_hi", nullable = false)
+    private long slotsHi;
+
+    @Column(name = "observed_count", nullable = false)
+    private int observedCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public SessionRollup() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public int getMjd() {
+        return mjd;
+    }
+
+    public void setMjd(int mjd) {
+        this.mjd = mjd;
+    }
+
+    public long getSlotsLo() {
+        return slotsLo;
+    }
+
+    public void setSlotsLo(long slotsLo) {
+        this.slotsLo = slotsLo;
+    }
+
+    public long getSlotsHi() {
+        return slotsHi;
+    }
+
+    public void setSlotsHi(long slotsHi) {
+        this.slotsHi = slotsHi;
+    }
+
+    public int getObservedCount() {
+        return observedCount;
+    }
+
+    public void setObservedCount(int observedCount) {
+        this.observedCount = observedCount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
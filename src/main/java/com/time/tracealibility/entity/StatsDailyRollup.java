@@ -0,0 +1,135 @@
+package com.time.tracealibility.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Upload statistics of one source2 on one MJD (one received file and day), from
+ * sat_common_view_difference_materialized. Quality is stored as a sum so days can be merged into any range,
+ * and {@code hourly_records} holds the record count of each UTC hour (24 entries).
+ */
+@Entity
+@Table(name = "stats_daily_rollup",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"source2", "mjd"}),
+       indexes = {
+           @Index(name = "idx_stats_daily_rollup_day", columnList = "day, source2"),
+           @Index(name = "idx_stats_daily_rollup_last_upload", columnList = "last_upload")
+       })
+public class StatsDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "source2", nullable = false)
+    private String source2;
+
+    @Column(name = "mjd", nullable = false)
+    private int mjd;
+
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "record_count", nullable = false)
+    private long recordCount;
+
+    @Column(name = "quality_sum", nullable = false)
+    private long qualitySum;
+
+    @Column(name = "first_upload")
+    private LocalDateTime firstUpload;
+
+    @Column(name = "last_upload")
+    private LocalDateTime lastUpload;
+
+    @Column(name = "hourly_records", nullable = false)
+    private int[] hourlyRecords;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public StatsDailyRollup() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSource2() {
+        return source2;
+    }
+
+    public void setSource2(String source2) {
+        this.source2 = source2;
+    }
+
+    public int getMjd() {
+        return mjd;
+    }
+
+    public void setMjd(int mjd) {
+        this.mjd = mjd;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public void setRecordCount(long recordCount) {
+        this.recordCount = recordCount;
+    }
+
+    public long getQualitySum() {
+        return qualitySum;
+    }
+
+    public void setQualitySum(long qualitySum) {
+        this.qualitySum = qualitySum;
+    }
+
+    public LocalDateTime getFirstUpload() {
+        return firstUpload;
+    }
+
+    public void setFirstUpload(LocalDateTime firstUpload) {
+        this.firstUpload = firstUpload;
+    }
+
+    public LocalDateTime getLastUpload() {
+        return lastUpload;
+    }
+
+    public void setLastUpload(LocalDateTime lastUpload) {
+        this.lastUpload = lastUpload;
+    }
+
+    public int[] getHourlyRecords() {
+        return hourlyRecords;
+    }
+
+    public void setHourlyRecords(int[] hourlyRecords) {
+        this.hourlyRecords = hourlyRecords;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
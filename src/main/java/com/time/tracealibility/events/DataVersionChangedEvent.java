@@ -0,0 +1,60 @@
+package com.time.tracealibility.events;
+
+/**
+ * Published locally whenever a view, source or file availability version advances, whether the change
+ * happened on this node or arrived from another node through PostgreSQL NOTIFY.
+ * Listeners holding cached view data should invalidate or advance on this event.
+ */
+public class DataVersionChangedEvent {
+
+    private final String versionKey;
+    private final long version;
+    private final String originNode;
+
+    public DataVersionChangedEvent(String versionKey, long version, String originNode) {
+        this.versionKey = versionKey;
+        this.version = version;
+        this.originNode = originNode;
+    }
+
+    public String getVersionKey() {
+        return versionKey;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getOriginNode() {
+        return originNode;
+    }
+
+    public boolean isViewChange() {
+        return versionKey.startsWith("view:");
+    }
+
+    public boolean isSourceChange() {
+        return versionKey.startsWith("source:");
+    }
+
+    public boolean isAvailabilityChange() {
+        return versionKey.startsWith("availability:");
+    }
+
+    /**
+     * The view or source name without its key prefix.
+     */
+    public String getSubject() {
+        int separator = versionKey.indexOf(':');
+        return separator >= 0 ? versionKey.substring(separator + 1) : versionKey;
+    }
+
+    @Override
+    public String toString() {
+        return "DataVersionChangedEvent{" +
+                "versionKey='" + versionKey + '\'' +
+                ", version=" + version +
+                ", originNode='" + originNode + '\'' +
+                '}';
+    }
+}
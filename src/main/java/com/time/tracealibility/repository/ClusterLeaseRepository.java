@@ -0,0 +1,41 @@
+package com.time.tracealibility.repository;
+
+import com.time.tracealibility.entity.ClusterLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface ClusterLeaseRepository extends JpaRepository<ClusterLease, Long> {
+
+    /**
+     * Takes the lease if it is free, expired or already ours (renewal) in one atomic statement.
+     * @return 1 when the caller now holds the lease, 0 when another live node owns it
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO cluster_lease (lease_name, owner_node, expires_at) " +
+            "VALUES (:leaseName, :ownerNode, now() + (:ttlSeconds * INTERVAL '1 second')) " +
+            "ON CONFLICT (lease_name) DO UPDATE SET " +
+            "owner_node = EXCLUDED.owner_node, " +
+            "expires_at = EXCLUDED.expires_at " +
+            "WHERE cluster_lease.owner_node = EXCLUDED.owner_node OR cluster_lease.expires_at < now()",
+            nativeQuery = true)
+    int tryAcquire(@Param("leaseName") String leaseName,
+                   @Param("ownerNode") String ownerNode,
+                   @Param("ttlSeconds") int ttlSeconds);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM cluster_lease WHERE lease_name = :leaseName AND owner_node = :ownerNode",
+            nativeQuery = true)
+    int release(@Param("leaseName") String leaseName, @Param("ownerNode") String ownerNode);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM cluster_lease WHERE owner_node = :ownerNode", nativeQuery = true)
+    int releaseAll(@Param("ownerNode") String ownerNode);
+}
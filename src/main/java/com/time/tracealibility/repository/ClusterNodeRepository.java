@@ -0,0 +1,38 @@
+package com.time.tracealibility.repository;
+
+import com.time.tracealibility.entity.ClusterNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface ClusterNodeRepository extends JpaRepository<ClusterNode, String> {
+
+    /**
+     * Registers the node or refreshes its heartbeat. Uses the database clock so node clock skew does not matter.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO cluster_node (node_id, host_name, started_at, last_heartbeat) " +
+            "VALUES (:nodeId, :hostName, now(), now()) " +
+            "ON CONFLICT (node_id) DO UPDATE SET last_heartbeat = now(), host_name = EXCLUDED.host_name",
+            nativeQuery = true)
+    void heartbeat(@Param("nodeId") String nodeId, @Param("hostName") String hostName);
+
+    @Query(value = "SELECT node_id FROM cluster_node " +
+            "WHERE last_heartbeat > now() - (:timeoutSeconds * INTERVAL '1 second') " +
+            "ORDER BY node_id",
+            nativeQuery = true)
+    List<String> findLiveNodeIds(@Param("timeoutSeconds") int timeoutSeconds);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM cluster_node WHERE last_heartbeat < now() - (:retentionSeconds * INTERVAL '1 second')",
+            nativeQuery = true)
+    int deleteStaleNodes(@Param("retentionSeconds") int retentionSeconds);
+}
@@ -2,7 +2,6 @@ package com.time.tracealibility.repository;
 
 import com.time.tracealibility.entity.FileAvailability;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,17 +22,28 @@ public interface FileAvailabilityRepository extends JpaRepository<FileAvailabili
             @Param("endMjd") int endMjd
     );
 
-  @Modifying
+  /**
+   * Inserts or updates the availability of (source, mjd).
+   * @return whether the row is new or its status, file name or creation time changed (not just the check time)
+   */
   @Transactional
-  @Query(value = "INSERT INTO file_availability (source, mjd, status, file_name, file_creation_time, last_checked_timestamp) " + // <-- Add new columns
+  @Query(value = "WITH previous AS (" +
+    "SELECT status, file_name, file_creation_time FROM file_availability WHERE source = :source AND mjd = :mjd), " +
+    "upserted AS (" +
+    "INSERT INTO file_availability (source, mjd, status, file_name, file_creation_time, last_checked_timestamp) " + // <-- Add new columns
     "VALUES (:source, :mjd, :status, :fileName, :fileCreationTime, :lastCheckedTimestamp) " + // <-- Add new values
     "ON CONFLICT (source, mjd) DO UPDATE SET " +
     "status = EXCLUDED.status, " +
     "file_name = EXCLUDED.file_name, " +
     "file_creation_time = EXCLUDED.file_creation_time, " + // <-- Update on conflict
-    "last_checked_timestamp = EXCLUDED.last_checked_timestamp", // <-- Update on conflict
+    "last_checked_timestamp = EXCLUDED.last_checked_timestamp " + // <-- Update on conflict
+    "RETURNING 1) " +
+    "SELECT NOT EXISTS (SELECT 1 FROM previous) OR EXISTS (SELECT 1 FROM previous " +
+    "WHERE status IS DISTINCT FROM CAST(:status AS varchar) " +
+    "OR file_name IS DISTINCT FROM CAST(:fileName AS varchar) " +
+    "OR file_creation_time IS DISTINCT FROM CAST(:fileCreationTime AS timestamptz))",
     nativeQuery = true)
-  void upsertFileAvailability(@Param("source") String source,
+  boolean upsertFileAvailability(@Param("source") String source,
                               @Param("mjd") int mjd,
                               @Param("status") String status,
                               @Param("fileName") String fileName,
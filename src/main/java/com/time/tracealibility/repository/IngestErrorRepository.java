@@ -0,0 +1,47 @@
+package com.time.tracealibility.repository;
+
+import com.time.tracealibility.entity.IngestError;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface IngestErrorRepository extends JpaRepository<IngestError, Long> {
+
+    /**
+     * Adds one ingest pass over a file to its error record; creates the record on the file's first problem.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO ingest_error (source, mjd, file_name, lines_read, lines_skipped, last_error, first_seen_at, last_seen_at) " +
+        "VALUES (:source, :mjd, :fileName, :linesRead, :linesSkipped, :lastError, now(), now()) " +
+        "ON CONFLICT (source, mjd, file_name) DO UPDATE SET " +
+        "lines_read = ingest_error.lines_read + EXCLUDED.lines_read, " +
+        "lines_skipped = ingest_error.lines_skipped + EXCLUDED.lines_skipped, " +
+        "last_error = EXCLUDED.last_error, " +
+        "last_seen_at = EXCLUDED.last_seen_at",
+        nativeQuery = true)
+    void recordPass(@Param("source") String source,
+                    @Param("mjd") int mjd,
+                    @Param("fileName") String fileName,
+                    @Param("linesRead") long linesRead,
+                    @Param("linesSkipped") long linesSkipped,
+                    @Param("lastError") String lastError);
+
+    /**
+     * Counts a clean pass over a file that already has an error record, so its error rate stays relative to
+     * every line read. No-op for files without problems.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE ingest_error SET lines_read = lines_read + :linesRead " +
+        "WHERE source = :source AND mjd = :mjd AND file_name = :fileName",
+        nativeQuery = true)
+    void recordCleanPass(@Param("source") String source,
+                         @Param("mjd") int mjd,
+                         @Param("fileName") String fileName,
+                         @Param("linesRead") long linesRead);
+}
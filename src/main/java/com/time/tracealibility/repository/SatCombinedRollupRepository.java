@@ -0,0 +1,60 @@
+package com.time.tracealibility.repository;
+
+import com.time.tracealibility.entity.SatCombinedRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+/**
+ * Maintenance queries for the aggregate pyramid. HOUR buckets are built from the combined view;
+ * DAY and WEEK buckets are merged from the level below, so each level only reads a small fraction of the rows.
+ */
+public interface SatCombinedRollupRepository extends JpaRepository<SatCombinedRollup, Long> {
+
+    @Query(value = "SELECT MAX(bucket_start) FROM sat_combined_rollup WHERE resolution = :resolution", nativeQuery = true)
+    LocalDateTime findLatestBucketStart(@Param("resolution") String resolution);
+
+    @Modifying
+    @Query(value = "DELETE FROM sat_combined_rollup WHERE resolution = :resolution AND bucket_start >= :since", nativeQuery = true)
+    int deleteFrom(@Param("resolution") String resolution, @Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query(value = "INSERT INTO sat_combined_rollup " +
+        "(source1, source2, sat_letter, resolution, bucket_start, sample_count, min_value, max_value, sum_value, sum_squares) " +
+        "SELECT source1, source2, sat_letter, 'HOUR', date_trunc('hour', mjd_date_time), " +
+        "COUNT(*), MIN(weighted_avg_difference), MAX(weighted_avg_difference), " +
+        "SUM(weighted_avg_difference), SUM(weighted_avg_difference * weighted_avg_difference) " +
+        "FROM sat_combined_view_difference_materialized " +
+        "WHERE mjd_date_time >= :since AND weighted_avg_difference IS NOT NULL " +
+        "AND source1 IS NOT NULL AND source2 IS NOT NULL AND sat_letter IS NOT NULL " +
+        "GROUP BY source1, source2, sat_letter, date_trunc('hour', mjd_date_time) " +
+        "ON CONFLICT (source1, source2, sat_letter, resolution, bucket_start) DO UPDATE SET " +
+        "sample_count = EXCLUDED.sample_count, min_value = EXCLUDED.min_value, max_value = EXCLUDED.max_value, " +
+        "sum_value = EXCLUDED.sum_value, sum_squares = EXCLUDED.sum_squares",
+        nativeQuery = true)
+    int rollupHoursFromView(@Param("since") LocalDateTime since);
+
+    /**
+     * Merges {@code fromResolution} buckets into {@code toResolution} buckets truncated with {@code truncUnit}
+     * (a PostgreSQL date_trunc field such as 'day' or 'week').
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sat_combined_rollup " +
+        "(source1, source2, sat_letter, resolution, bucket_start, sample_count, min_value, max_value, sum_value, sum_squares) " +
+        "SELECT source1, source2, sat_letter, :toResolution, date_trunc(:truncUnit, bucket_start), " +
+        "SUM(sample_count), MIN(min_value), MAX(max_value), SUM(sum_value), SUM(sum_squares) " +
+        "FROM sat_combined_rollup " +
+        "WHERE resolution = :fromResolution AND bucket_start >= :since " +
+        "GROUP BY 1, 2, 3, 5 " + // by position: a repeated :truncUnit would be a different bind parameter
+        "ON CONFLICT (source1, source2, sat_letter, resolution, bucket_start) DO UPDATE SET " +
+        "sample_count = EXCLUDED.sample_count, min_value = EXCLUDED.min_value, max_value = EXCLUDED.max_value, " +
+        "sum_value = EXCLUDED.sum_value, sum_squares = EXCLUDED.sum_squares",
+        nativeQuery = true)
+    int rollupFromLevel(@Param("fromResolution") String fromResolution,
+                        @Param("toResolution") String toResolution,
+                        @Param("truncUnit") String truncUnit,
+                        @Param("since") LocalDateTime since);
+}
@@ -0,0 +1,81 @@
+package com.time.tracealibility.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.time.tracealibility.dto.KeysetCursor;
+import com.time.tracealibility.entity.SatCombinedViewDifference;
+import com.time.tracealibility.entity.SatPivotedView;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Keyset (seek) pagination over the materialized views, ordered by (mjd_date_time, id).
+ * Each page starts strictly after the previous page's last row, so page N costs the same as page 1
+ * given an index on (mjd_date_time, id), and no count query is needed.
+ * Returns {@code limit + 1} rows so the caller can tell whether another page exists.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class SatViewKeysetRepository {
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private RowMapper<SatPivotedView> pivotedMapper;
+
+    @PostConstruct
+    public void init() {
+        pivotedMapper = SatViewRowMappers.pivoted(objectMapper);
+    }
+
+    /**
+     * @param changedSince when set, only rows whose (source1 or source2, mjd) has an ingest change after this sequence
+     */
+    public List<SatCombinedViewDifference> findCombinedPage(List<String> source2, String startDate, String endDate,
+                                                            String satLetter, Long changedSince, KeysetCursor after,
+                                                            boolean descending, int limit) {
+        ViewQueryBuilder builder = ViewQueryBuilder.from("sat_combined_view_difference_materialized")
+            .source2In(source2)
+            .where("EXISTS (SELECT 1 FROM data_change_log c WHERE c.change_seq > :changedSince"
+                + " AND c.mjd = s.mjd AND c.source IN (s.source1, s.source2))", "changedSince", changedSince);
+        return page(builder, startDate, endDate, satLetter, after, descending, limit, SatViewRowMappers.COMBINED);
+    }
+
+    /**
+     * @param changedSince when set, only rows of days with an ingest change (any source) after this sequence
+     */
+    public List<SatPivotedView> findPivotedPage(String startDate, String endDate, String satLetter, Long changedSince,
+                                                KeysetCursor after, boolean descending, int limit) {
+        ViewQueryBuilder builder = ViewQueryBuilder.from("sat_pivoted_view_materialized")
+            .where("s.mjd IN (SELECT c.mjd FROM data_change_log c WHERE c.change_seq > :changedSince)",
+                "changedSince", changedSince);
+        return page(builder, startDate, endDate, satLetter, after, descending, limit, pivotedMapper);
+    }
+
+    private <T> List<T> page(ViewQueryBuilder builder, String startDate, String endDate, String satLetter,
+                             KeysetCursor after, boolean descending, int limit, RowMapper<T> mapper) {
+        builder.startDate(startDate)
+            .endDate(endDate)
+            .satLetter(satLetter);
+        if (after != null) {
+            // Row-value comparison lets PostgreSQL seek directly into the (mjd_date_time, id) index
+            builder.where(descending
+                    ? "(s.mjd_date_time, s.id) < (:cursorTime, :cursorId)"
+                    : "(s.mjd_date_time, s.id) > (:cursorTime, :cursorId)",
+                "cursorTime", after.getMjdDateTime(), "cursorId", after.getId());
+        }
+        builder.orderBy("mjd_date_time", descending)
+            .orderBy("id", descending)
+            .limit(limit + 1);
+
+        return namedParameterJdbcTemplate.query(builder.selectSql(), builder.getSelectParams(), mapper);
+    }
+}
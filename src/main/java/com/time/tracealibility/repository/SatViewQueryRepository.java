@@ -0,0 +1,148 @@
+package com.time.tracealibility.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.time.tracealibility.entity.SatCombinedViewDifference;
+import com.time.tracealibility.entity.SatCommonViewDifference;
+import com.time.tracealibility.entity.SatPivotedView;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filtered and paged reads of the materialized views, built with {@link ViewQueryBuilder} so that each request
+ * only carries the predicates it actually uses. Replaces the catch-all {@code (:x IS NULL OR ...)} queries.
+ *
+ * Rows are read with plain JDBC ({@link SatViewRowMappers}) in a read-only transaction rather than through the
+ * EntityManager, and with {@code app.streaming.fetch-size} so large results arrive in batches.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class SatViewQueryRepository {
+
+    private static final String COMMON_VIEW = "sat_common_view_difference_materialized";
+    private static final String COMBINED_VIEW = "sat_combined_view_difference_materialized";
+    private static final String PIVOTED_VIEW = "sat_pivoted_view_materialized";
+
+    /**
+     * Sortable API properties of the combined view (camelCase and column spelling) and their columns.
+     */
+    public static final Map<String, String> COMBINED_SORT_COLUMNS = Map.ofEntries(
+        Map.entry("mjdDateTime", "mjd_date_time"), Map.entry("mjd_date_time", "mjd_date_time"),
+        Map.entry("mjd", "mjd"),
+        Map.entry("sttime", "sttime"),
+        Map.entry("satLetter", "sat_letter"), Map.entry("sat_letter", "sat_letter"),
+        Map.entry("source1", "source1"),
+        Map.entry("source2", "source2"),
+        Map.entry("avgRefsysDifference", "avg_refsys_difference"),
+        Map.entry("avg_refsys_difference", "avg_refsys_difference"),
+        Map.entry("weightedAvgDifference", "weighted_avg_difference"),
+        Map.entry("weighted_avg_difference", "weighted_avg_difference"),
+        Map.entry("id", "id"));
+
+    public static final Map<String, String> PIVOTED_SORT_COLUMNS = Map.of(
+        "mjdDateTime", "mjd_date_time", "mjd_date_time", "mjd_date_time",
+        "mjd", "mjd",
+        "sttime", "sttime",
+        "satLetter", "sat_letter", "sat_letter", "sat_letter",
+        "id", "id");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.streaming.fetch-size:2000}")
+    private int fetchSize;
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private RowMapper<SatPivotedView> pivotedMapper;
+
+    @PostConstruct
+    public void init() {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(fetchSize);
+        jdbcTemplate = new NamedParameterJdbcTemplate(template);
+        pivotedMapper = SatViewRowMappers.pivoted(objectMapper);
+    }
+
+    /**
+     * Common-view rows of the given source2 values, optionally limited to a date range; unordered.
+     */
+    public List<SatCommonViewDifference> findBulkByLocationAndDateRange(List<String> source2, String startDate,
+                                                                        String endDate) {
+        ViewQueryBuilder builder = ViewQueryBuilder.from(COMMON_VIEW)
+            .source2In(source2)
+            .startDate(startDate)
+            .endDate(endDate);
+        return list(builder, SatViewRowMappers.COMMON);
+    }
+
+    /**
+     * Common-view rows filtered by any combination of time range and source1.
+     */
+    public List<SatCommonViewDifference> findCommonByFilters(LocalDateTime startTime, LocalDateTime endTime,
+                                                             String source1) {
+        ViewQueryBuilder builder = ViewQueryBuilder.from(COMMON_VIEW)
+            .startTime(startTime)
+            .endTime(endTime)
+            .source1(source1);
+        return list(builder, SatViewRowMappers.COMMON);
+    }
+
+    /**
+     * @throws IllegalArgumentException when the pageable sorts by a column not in {@link #COMBINED_SORT_COLUMNS}
+     */
+    public Page<SatCombinedViewDifference> findCombinedPage(List<String> source2, String startDate, String endDate,
+                                                            String satLetter, Pageable pageable) {
+        ViewQueryBuilder builder = ViewQueryBuilder.from(COMBINED_VIEW)
+            .source2In(source2)
+            .startDate(startDate)
+            .endDate(endDate)
+            .satLetter(satLetter);
+        return page(builder, pageable, COMBINED_SORT_COLUMNS, SatViewRowMappers.COMBINED);
+    }
+
+    /**
+     * @throws IllegalArgumentException when the pageable sorts by a column not in {@link #PIVOTED_SORT_COLUMNS}
+     */
+    public Page<SatPivotedView> findPivotedPage(String startDate, String endDate, String satLetter,
+                                                Pageable pageable) {
+        ViewQueryBuilder builder = ViewQueryBuilder.from(PIVOTED_VIEW)
+            .startDate(startDate)
+            .endDate(endDate)
+            .satLetter(satLetter);
+        return page(builder, pageable, PIVOTED_SORT_COLUMNS, pivotedMapper);
+    }
+
+    private <T> Page<T> page(ViewQueryBuilder builder, Pageable pageable, Map<String, String> sortColumns,
+                             RowMapper<T> mapper) {
+        builder.orderBy(pageable.getSort(), sortColumns)
+            // Rows with equal sort values must not move between pages
+            .orderBy("id", false)
+            .limit(pageable.getPageSize())
+            .offset(pageable.getOffset());
+        List<T> content = list(builder, mapper);
+
+        Long total = jdbcTemplate.queryForObject(builder.countSql(), builder.getParams(), Long.class);
+        return new PageImpl<>(content, pageable, total != null ? total : 0L);
+    }
+
+    private <T> List<T> list(ViewQueryBuilder builder, RowMapper<T> mapper) {
+        return jdbcTemplate.query(builder.selectSql(), builder.getSelectParams(), mapper);
+    }
+}
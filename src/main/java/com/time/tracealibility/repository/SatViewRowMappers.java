@@ -0,0 +1,98 @@
+package com.time.tracealibility.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.time.tracealibility.entity.SatCombinedViewDifference;
+import com.time.tracealibility.entity.SatCommonViewDifference;
+import com.time.tracealibility.entity.SatPivotedView;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Maps materialized view rows straight from JDBC into plain instances of the view classes.
+ *
+ * The instances never enter a persistence context: no entity snapshot for dirty checking, no first-level
+ * cache entry and no proxy, so a large page costs little more than its own fields. The classes are kept as
+ * the row type (instead of separate projections) because the JSON and columnar encodings, the hot window
+ * and downsampling are all written against them.
+ */
+public final class SatViewRowMappers {
+
+    private static final TypeReference<Map<String, Double>> LOCATION_DIFFS = new TypeReference<>() {
+    };
+
+    public static final RowMapper<SatCommonViewDifference> COMMON = (rs, rowNum) -> {
+        SatCommonViewDifference row = new SatCommonViewDifference();
+        row.setId(rs.getString("id"));
+        row.setSatLetter(rs.getString("sat_letter"));
+        row.setMjd(rs.getInt("mjd"));
+        row.setCommonSattelite(rs.getInt("common_sattelite"));
+        row.setSttime(rs.getString("sttime"));
+        row.setMjdDateTime(dateTime(rs, "mjd_date_time"));
+        row.setSource1(rs.getString("source1"));
+        row.setSource2(rs.getString("source2"));
+        row.setAvg1(nullableDouble(rs, "avg1"));
+        row.setAvg2(nullableDouble(rs, "avg2"));
+        row.setAvgRefsysDifference(nullableDouble(rs, "avg_refsys_difference"));
+        return row;
+    };
+
+    public static final RowMapper<SatCombinedViewDifference> COMBINED = (rs, rowNum) -> {
+        SatCombinedViewDifference row = new SatCombinedViewDifference();
+        row.setId(rs.getString("id"));
+        row.setSatLetter(rs.getString("sat_letter"));
+        row.setMjd(rs.getInt("mjd"));
+        row.setSttime(rs.getString("sttime"));
+        row.setMjdDateTime(dateTime(rs, "mjd_date_time"));
+        row.setCommonSatelliteCount(rs.getInt("common_satellite_count"));
+        row.setSource1(rs.getString("source1"));
+        row.setSource2(rs.getString("source2"));
+        row.setAvg1(nullableDouble(rs, "avg1"));
+        row.setAvg2(nullableDouble(rs, "avg2"));
+        row.setAvgRefsysDifference(nullableDouble(rs, "avg_refsys_difference"));
+        row.setWeightedAvg1(nullableDouble(rs, "weighted_avg1"));
+        row.setWeightedAvg2(nullableDouble(rs, "weighted_avg2"));
+        row.setWeightedAvgDifference(nullableDouble(rs, "weighted_avg_difference"));
+        return row;
+    };
+
+    private SatViewRowMappers() {
+    }
+
+    /**
+     * @param objectMapper parses the jsonb location_diffs column
+     */
+    public static RowMapper<SatPivotedView> pivoted(ObjectMapper objectMapper) {
+        return (rs, rowNum) -> {
+            SatPivotedView row = new SatPivotedView();
+            row.setId(rs.getString("id"));
+            row.setSatLetter(rs.getString("sat_letter"));
+            row.setMjd(rs.getInt("mjd"));
+            row.setMjdDateTime(dateTime(rs, "mjd_date_time"));
+            row.setSttime(rs.getString("sttime"));
+            String locationDiffs = rs.getString("location_diffs");
+            try {
+                row.setLocationDiffs(locationDiffs != null ? objectMapper.readValue(locationDiffs, LOCATION_DIFFS) : null);
+            } catch (JsonProcessingException e) {
+                throw new SQLException("Unreadable location_diffs for " + row.getId(), e);
+            }
+            return row;
+        };
+    }
+
+    private static LocalDateTime dateTime(ResultSet rs, String column) throws SQLException {
+        Timestamp value = rs.getTimestamp(column);
+        return value != null ? value.toLocalDateTime() : null;
+    }
+
+    private static Double nullableDouble(ResultSet rs, String column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? null : value;
+    }
+}
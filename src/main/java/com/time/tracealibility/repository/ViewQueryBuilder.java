@@ -0,0 +1,204 @@
+package com.time.tracealibility.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds native queries over the materialized views (aliased {@code s}) that contain only the predicates
+ * actually supplied.
+ *
+ * Catch-all predicates such as {@code (:x IS NULL OR col = :x)} are planned once for every possible input,
+ * so PostgreSQL cannot rely on the index for the filters that are present. Here each filter combination gives
+ * its own fixed SQL text with plain sargable predicates: {@code col = :v}, {@code col = ANY(:array)} and open or
+ * closed time ranges. The same text is reused for every request of that shape, so the driver's per-connection
+ * statement cache keeps one server-side prepared statement per shape.
+ *
+ * Satellite letters are stored upper-case (normalised at ingest), so the filter compares the column directly
+ * instead of wrapping it in LOWER(). Sorting is only possible on columns listed by the caller.
+ */
+public final class ViewQueryBuilder {
+
+    private final String table;
+    private final List<String> predicates = new ArrayList<>();
+    private final Map<String, Object> params = new LinkedHashMap<>();
+    private final List<String> orderBy = new ArrayList<>();
+    private final Set<String> orderedColumns = new HashSet<>();
+    private Integer limit;
+    private Long offset;
+
+    private ViewQueryBuilder(String table) {
+        this.table = table;
+    }
+
+    /**
+     * @param table a view or table name; never user input
+     */
+    public static ViewQueryBuilder from(String table) {
+        return new ViewQueryBuilder(table);
+    }
+
+    /**
+     * Upper-cased satellite letter, or null for no filter (null, blank or "ALL").
+     */
+    public static String normalizeSatLetter(String satLetter) {
+        if (satLetter == null || satLetter.isBlank() || satLetter.trim().equalsIgnoreCase("ALL")) {
+            return null;
+        }
+        return satLetter.trim().toUpperCase(Locale.ROOT);
+    }
+
+    public ViewQueryBuilder source2In(List<String> source2) {
+        if (source2 != null && !source2.isEmpty()) {
+            // One array parameter instead of an expanded IN list, so the SQL does not depend on the list size
+            predicates.add("s.source2 = ANY(:source2)");
+            params.put("source2", source2.toArray(new String[0]));
+        }
+        return this;
+    }
+
+    public ViewQueryBuilder source1(String source1) {
+        return where("s.source1 = :source1", "source1", source1);
+    }
+
+    public ViewQueryBuilder startDate(String startDate) {
+        return where("s.mjd_date_time >= CAST(:startDate AS TIMESTAMP)", "startDate", startDate);
+    }
+
+    public ViewQueryBuilder endDate(String endDate) {
+        return where("s.mjd_date_time <= CAST(:endDate AS TIMESTAMP)", "endDate", endDate);
+    }
+
+    public ViewQueryBuilder startTime(LocalDateTime startTime) {
+        return where("s.mjd_date_time >= :startTime", "startTime", startTime);
+    }
+
+    public ViewQueryBuilder endTime(LocalDateTime endTime) {
+        return where("s.mjd_date_time <= :endTime", "endTime", endTime);
+    }
+
+    public ViewQueryBuilder satLetter(String satLetter) {
+        return where("s.sat_letter = :satLetter", "satLetter", normalizeSatLetter(satLetter));
+    }
+
+    /**
+     * Adds {@code predicate} when {@code value} is not null.
+     * @param predicate SQL using {@code :name}; never built from user input
+     */
+    public ViewQueryBuilder where(String predicate, String name, Object value) {
+        if (value != null) {
+            predicates.add(predicate);
+            params.put(name, value);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a predicate with two parameters, for row-value comparisons such as keyset cursors.
+     */
+    public ViewQueryBuilder where(String predicate, String name1, Object value1, String name2, Object value2) {
+        predicates.add(predicate);
+        params.put(name1, value1);
+        params.put(name2, value2);
+        return this;
+    }
+
+    /**
+     * Orders by the requested properties, mapped through {@code sortableColumns} (API property name to column).
+     * @throws IllegalArgumentException for a property that is not sortable
+     */
+    public ViewQueryBuilder orderBy(Sort sort, Map<String, String> sortableColumns) {
+        for (Sort.Order order : sort) {
+            String column = sortableColumns.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("Cannot sort by " + order.getProperty());
+            }
+            orderBy(column, order.isDescending());
+        }
+        return this;
+    }
+
+    /**
+     * Appends a sort column; a column that is already sorted on is ignored.
+     * @param column a column of the view; never user input
+     */
+    public ViewQueryBuilder orderBy(String column, boolean descending) {
+        if (orderedColumns.add(column)) {
+            orderBy.add("s." + column + (descending ? " DESC" : " ASC"));
+        }
+        return this;
+    }
+
+    public ViewQueryBuilder limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    public ViewQueryBuilder offset(long offset) {
+        this.offset = offset;
+        return this;
+    }
+
+    public String selectSql() {
+        return selectSql("*");
+    }
+
+    /**
+     * @param columns select list; never user input
+     */
+    public String selectSql(String columns) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(columns).append(" FROM ").append(table).append(" s").append(whereClause());
+        if (!orderBy.isEmpty()) {
+            sql.append(" ORDER BY ").append(String.join(", ", orderBy));
+        }
+        // Bound rather than inlined, so every page of a query shares one statement
+        if (limit != null) {
+            sql.append(" LIMIT :limit");
+        }
+        if (offset != null) {
+            sql.append(" OFFSET :offset");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Parameters of {@link #selectSql()}; the count query takes {@link #getParams()}.
+     */
+    public Map<String, Object> getSelectParams() {
+        Map<String, Object> selectParams = new LinkedHashMap<>(params);
+        if (limit != null) {
+            selectParams.put("limit", limit);
+        }
+        if (offset != null) {
+            selectParams.put("offset", offset);
+        }
+        return selectParams;
+    }
+
+    public String countSql() {
+        return "SELECT count(*) FROM " + table + " s" + whereClause();
+    }
+
+    /**
+     * Only the WHERE clause (with a leading space, empty without predicates), for callers building their own SELECT.
+     */
+    public String whereClause() {
+        return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    }
+
+    public Map<String, Object> getParams() {
+        return params;
+    }
+
+    public MapSqlParameterSource toParameterSource() {
+        return new MapSqlParameterSource(getSelectParams());
+    }
+}
@@ -1,6 +1,7 @@
 package com.time.tracealibility.scheduler;
 
 
+import com.time.tracealibility.services.ClusterCoordinationService;
 import com.time.tracealibility.services.MaterializedViewService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,9 +22,18 @@ public class MaterializedViewScheduler {
 
   private static final Logger logger = LoggerFactory.getLogger(MaterializedViewScheduler.class);
 
+  // Only the holder of this lease refreshes views; it is renewed every cycle and never released while the node is alive
+  private static final String REFRESH_LEASE = "materialized-view-refresh";
+
   @Autowired
   private MaterializedViewService materializedViewService;
 
+  @Autowired
+  private ClusterCoordinationService clusterCoordinationService;
+
+  @Value("${app.scheduler.materialized-view.refresh-interval}")
+  private long refreshIntervalMs;
+
   // Inject the list of view names using SpEL to split comma-separated values
   @Value("#{'${app.scheduler.materialized-view.names:}'.split(',')}")
   private List<String> viewNames;
@@ -66,10 +76,21 @@ public class MaterializedViewScheduler {
       return;
     }
 
+    if (!clusterCoordinationService.tryAcquireLease(REFRESH_LEASE, refreshLeaseSeconds())) {
+      logger.debug("View refresh is owned by another cluster node. Skipping this cycle.");
+      return;
+    }
+
     isJobRunning = true;
     logger.info("=============== 🔄 Starting Materialized View Refresh Job for {} views ===============", validViewNames.size());
 
     for (String viewName : validViewNames) {
+      // Renew before each view so a slow refresh cannot let the lease lapse mid-job; once another node
+      // has taken it over, stop so two nodes never refresh (and rebuild from the refresh) at the same time
+      if (!clusterCoordinationService.tryAcquireLease(REFRESH_LEASE, refreshLeaseSeconds())) {
+        logger.warn("⚠️ Lost the view refresh lease to another node. Stopping before '{}'.", viewName);
+        break;
+      }
       long startTime = System.currentTimeMillis();
       try {
         materializedViewService.refreshView(viewName);
@@ -86,11 +107,25 @@ public class MaterializedViewScheduler {
     isJobRunning = false;
   }
 
+  private int refreshLeaseSeconds() {
+    // Two intervals: survives one slow cycle, but a dead leader is replaced within two cycles
+    return (int) Math.max(60, (refreshIntervalMs * 2) / 1000);
+  }
+
   private void updateStatus(String viewName, String status, long duration, String errorMessage) {
     Map<String, Object> viewStatus = new ConcurrentHashMap<>();
     viewStatus.put("lastRefreshStatus", status);
     viewStatus.put("lastRefreshDurationMs", duration);
     viewStatus.put("lastRefreshTimestamp", System.currentTimeMillis());
+    if ("Success".equals(status)) {
+      viewStatus.put("lastSuccessfulRefreshTimestamp", viewStatus.get("lastRefreshTimestamp"));
+    } else {
+      // Keep the time of the last good refresh across failures; it is what the served data reflects
+      Map<String, Object> previous = statuses.get(viewName);
+      if (previous != null && previous.get("lastSuccessfulRefreshTimestamp") != null) {
+        viewStatus.put("lastSuccessfulRefreshTimestamp", previous.get("lastSuccessfulRefreshTimestamp"));
+      }
+    }
     if (errorMessage != null) {
       viewStatus.put("error", errorMessage);
     }
@@ -0,0 +1,272 @@
+package com.time.tracealibility.services;
+
+import com.time.tracealibility.dto.RollupPointDTO;
+import com.time.tracealibility.events.DataVersionChangedEvent;
+import com.time.tracealibility.repository.SatCombinedRollupRepository;
+import com.time.tracealibility.repository.ViewQueryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-resolution aggregate pyramid over weightedAvgDifference of the combined view.
+ *
+ * HOUR, DAY and WEEK buckets per (source1, source2, satLetter) live in {@code sat_combined_rollup}; the
+ * SESSION level is the view itself. The pyramid is maintained by the node that refreshed the combined view:
+ * after each refresh commits, every bucket from the start of the week containing
+ * (latest rolled-up hour - lookback) onwards is rebuilt, which covers late files without rescanning history.
+ * An empty table is backfilled from the whole view on the first refresh.
+ */
+@Service
+public class AggregatePyramidService {
+
+  private static final Logger logger = LoggerFactory.getLogger(AggregatePyramidService.class);
+
+  private static final String COMBINED_VIEW = "sat_combined_view_difference_materialized";
+  private static final String ROLLUP_TABLE = "sat_combined_rollup";
+
+  /**
+   * Pyramid levels from finest to coarsest. A CGGTTS track is one 16-minute session.
+   */
+  public enum Resolution {
+    SESSION(Duration.ofMinutes(16)),
+    HOUR(Duration.ofHours(1)),
+    DAY(Duration.ofDays(1)),
+    WEEK(Duration.ofDays(7));
+
+    private final Duration bucketSize;
+
+    Resolution(Duration bucketSize) {
+      this.bucketSize = bucketSize;
+    }
+
+    public Duration getBucketSize() {
+      return bucketSize;
+    }
+  }
+
+  @Autowired
+  private SatCombinedRollupRepository rollupRepository;
+
+  @Autowired
+  private SatDataStreamingService satDataStreamingService;
+
+  @Autowired
+  private ClusterCoordinationService clusterCoordinationService;
+
+  @Autowired
+  private DataVersionService dataVersionService;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Value("${app.rollup.enabled:true}")
+  private boolean enabled;
+
+  @Value("${app.rollup.lookback-days:3}")
+  private int lookbackDays;
+
+  private NamedParameterJdbcTemplate namedJdbcTemplate;
+  private TransactionTemplate transactionTemplate;
+
+  @PostConstruct
+  public void init() {
+    namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    // The event listener runs after the refresh transaction committed, where joining it is not possible
+    transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  /**
+   * Runs after the refresh transaction commits (or immediately for versions received from other nodes).
+   * Only the node that refreshed the view rebuilds, so the work is done once per refresh cluster-wide.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onDataVersionChanged(DataVersionChangedEvent event) {
+    if (!enabled || !event.isViewChange() || !COMBINED_VIEW.equals(event.getSubject())
+      || !clusterCoordinationService.getNodeId().equals(event.getOriginNode())) {
+      return;
+    }
+    try {
+      updatePyramid();
+    } catch (Exception e) {
+      logger.error("❌ Failed to update aggregate pyramid: {}", e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Rebuilds all buckets from the incremental watermark onwards in one transaction, so readers never
+   * see a level half-updated.
+   */
+  public void updatePyramid() {
+    long startTime = System.currentTimeMillis();
+    LocalDateTime latest = rollupRepository.findLatestBucketStart(Resolution.HOUR.name());
+    // Start on a week boundary so DAY and WEEK buckets are always rebuilt from complete HOUR data
+    LocalDateTime since = latest == null
+      ? LocalDateTime.of(1970, 1, 1, 0, 0)
+      : latest.minusDays(lookbackDays).truncatedTo(ChronoUnit.DAYS)
+          .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+
+    Integer hours = transactionTemplate.execute(status -> {
+      for (Resolution resolution : List.of(Resolution.HOUR, Resolution.DAY, Resolution.WEEK)) {
+        rollupRepository.deleteFrom(resolution.name(), since);
+      }
+      int hourBuckets = rollupRepository.rollupHoursFromView(since);
+      rollupRepository.rollupFromLevel(Resolution.HOUR.name(), Resolution.DAY.name(), "day", since);
+      rollupRepository.rollupFromLevel(Resolution.DAY.name(), Resolution.WEEK.name(), "week", since);
+      return hourBuckets;
+    });
+    // The rollup table changes after the view's own version was published; announce it separately
+    dataVersionService.bump(DataVersionService.viewKey(ROLLUP_TABLE));
+    logger.info("📊 Aggregate pyramid updated from {} ({} hourly buckets) in {} ms",
+      latest == null ? "the beginning (backfill)" : since, hours, System.currentTimeMillis() - startTime);
+  }
+
+  /**
+   * Finest level whose bucket count over the range stays within {@code maxPoints} per series,
+   * falling back to WEEK for very long ranges.
+   */
+  public static Resolution chooseResolution(LocalDateTime start, LocalDateTime end, int maxPoints) {
+    Duration range = Duration.between(start, end);
+    for (Resolution resolution : Resolution.values()) {
+      long buckets = range.dividedBy(resolution.getBucketSize()) + 1;
+      if (buckets <= maxPoints) {
+        return resolution;
+      }
+    }
+    return Resolution.WEEK;
+  }
+
+  /**
+   * Series points for the range at the level chosen from the range and point budget.
+   * Missing range ends default to the first / last rolled-up hour.
+   */
+  public Map<String, Object> querySeries(List<String> source2, String startDate, String endDate,
+                                         String satLetter, int maxPoints) {
+    Map<String, Object> response = new LinkedHashMap<>();
+    LocalDateTime[] bounds = findBounds(source2, startDate, endDate, satLetter);
+    if (bounds == null) {
+      response.put("resolution", null);
+      response.put("data", List.of());
+      response.put("totalElements", 0);
+      response.put("maxPoints", maxPoints);
+      return response;
+    }
+
+    Resolution resolution = chooseResolution(bounds[0], bounds[1], maxPoints);
+    List<RollupPointDTO> points = resolution == Resolution.SESSION
+      ? readSessions(source2, startDate, endDate, satLetter)
+      : readBuckets(resolution, source2, startDate, endDate, satLetter);
+
+    response.put("resolution", resolution.name());
+    response.put("bucketSeconds", resolution.getBucketSize().getSeconds());
+    response.put("rangeStart", bounds[0]);
+    response.put("rangeEnd", bounds[1]);
+    response.put("maxPoints", maxPoints);
+    response.put("data", points);
+    response.put("totalElements", points.size());
+    return response;
+  }
+
+  private LocalDateTime[] findBounds(List<String> source2, String startDate, String endDate, String satLetter) {
+    MapSqlParameterSource params = new MapSqlParameterSource("resolution", Resolution.HOUR.name());
+    String first = startDate != null ? "CAST(:startDate AS TIMESTAMP)" : "MIN(r.bucket_start)";
+    String last = endDate != null ? "CAST(:endDate AS TIMESTAMP)" : "MAX(r.bucket_start)";
+    String sql = "SELECT " + first + " AS first_time, " + last + " AS last_time";
+    if (startDate == null || endDate == null) {
+      sql += " FROM sat_combined_rollup r WHERE r.resolution = :resolution"
+        + filters(params, Resolution.HOUR, source2, startDate, endDate, satLetter);
+    } else {
+      params.addValue("startDate", startDate).addValue("endDate", endDate);
+    }
+    return namedJdbcTemplate.queryForObject(sql, params, (rs, rowNum) -> {
+      Timestamp firstTime = rs.getTimestamp("first_time");
+      Timestamp lastTime = rs.getTimestamp("last_time");
+      return firstTime == null || lastTime == null ? null
+        : new LocalDateTime[]{firstTime.toLocalDateTime(), lastTime.toLocalDateTime()};
+    });
+  }
+
+  private List<RollupPointDTO> readBuckets(Resolution resolution, List<String> source2, String startDate,
+                                           String endDate, String satLetter) {
+    MapSqlParameterSource params = new MapSqlParameterSource("resolution", resolution.name());
+    // Population stddev from the stored moments; GREATEST guards against tiny negative rounding errors
+    String sql = "SELECT r.source1, r.source2, r.sat_letter, r.bucket_start, r.sample_count, r.min_value, r.max_value,"
+      + " r.sum_value / r.sample_count AS mean_value,"
+      + " SQRT(GREATEST(r.sum_squares / r.sample_count - POWER(r.sum_value / r.sample_count, 2), 0)) AS stddev_value"
+      + " FROM sat_combined_rollup r WHERE r.resolution = :resolution"
+      + filters(params, resolution, source2, startDate, endDate, satLetter)
+      + " ORDER BY r.bucket_start, r.source1, r.source2, r.sat_letter";
+    return namedJdbcTemplate.query(sql, params, (rs, rowNum) -> new RollupPointDTO(
+      rs.getString("source1"),
+      rs.getString("source2"),
+      rs.getString("sat_letter"),
+      rs.getTimestamp("bucket_start").toLocalDateTime(),
+      rs.getLong("sample_count"),
+      rs.getDouble("min_value"),
+      rs.getDouble("max_value"),
+      rs.getDouble("mean_value"),
+      rs.getDouble("stddev_value")));
+  }
+
+  private List<RollupPointDTO> readSessions(List<String> source2, String startDate, String endDate, String satLetter) {
+    List<RollupPointDTO> points = new ArrayList<>();
+    satDataStreamingService.forEachCombinedRow(source2, startDate, endDate, satLetter, row -> {
+      Double value = row.getWeightedAvgDifference();
+      if (value != null && row.getMjdDateTime() != null) {
+        points.add(new RollupPointDTO(row.getSource1(), row.getSource2(), row.getSatLetter(),
+          row.getMjdDateTime(), 1, value, value, value, 0.0));
+      }
+    });
+    return points;
+  }
+
+  private String filters(MapSqlParameterSource params, Resolution resolution, List<String> source2,
+                         String startDate, String endDate, String satLetter) {
+    StringBuilder sql = new StringBuilder();
+    if (source2 != null && !source2.isEmpty()) {
+      sql.append(" AND r.source2 IN (:source2)");
+      params.addValue("source2", source2);
+    }
+    if (startDate != null) {
+      // Include the bucket that straddles the start of the range
+      sql.append(" AND r.bucket_start > CAST(:startDate AS TIMESTAMP) - make_interval(secs => :bucketSeconds)");
+      params.addValue("startDate", startDate);
+      params.addValue("bucketSeconds", resolution.getBucketSize().getSeconds());
+    }
+    if (endDate != null) {
+      sql.append(" AND r.bucket_start <= CAST(:endDate AS TIMESTAMP)");
+      params.addValue("endDate", endDate);
+    }
+    String letter = ViewQueryBuilder.normalizeSatLetter(satLetter);
+    if (letter != null) {
+      sql.append(" AND r.sat_letter = :satLetter");
+      params.addValue("satLetter", letter);
+    }
+    return sql.toString();
+  }
+}
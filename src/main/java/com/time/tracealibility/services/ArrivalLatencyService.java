@@ -0,0 +1,239 @@
+package com.time.tracealibility.services;
+
+import com.time.tracealibility.dto.ArrivalLatencyDTO;
+import com.time.tracealibility.events.DataVersionChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Delivery latency of received files: file creation time minus the end of the file's observation day
+ * (00:00 UTC after its MJD), clamped at zero for the day still being written.
+ *
+ * Ingest reports every file it sees; each (source, mjd) counts once, with its latest creation time, in a
+ * per-source histogram of fixed minute buckets. Percentiles are interpolated from the histogram, so the
+ * status and statistics APIs read them from memory. A file arriving later than
+ * {@code app.arrival.late-threshold-minutes} is classified LATE. The histograms are built from
+ * file_availability at startup, and other nodes reload a source when its availability version moves.
+ */
+@Service
+public class ArrivalLatencyService {
+
+  private static final Logger logger = LoggerFactory.getLogger(ArrivalLatencyService.class);
+
+  private static final LocalDate MJD_EPOCH = LocalDate.of(1858, 11, 17);
+
+  // Upper bounds of the histogram buckets in minutes: 15 min .. 30 days, then one open bucket
+  static final long[] BUCKET_UPPER_MINUTES = {15, 30, 60, 120, 180, 360, 720, 1440, 2880, 4320, 10080, 20160, 43200};
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Value("${app.arrival.late-threshold-minutes:360}")
+  private long lateThresholdMinutes;
+
+  @Value("${app.arrival.classify-late:true}")
+  private boolean classifyLate;
+
+  private final Map<String, SourceHistogram> bySource = new ConcurrentHashMap<>();
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    try {
+      Map<String, SourceHistogram> loaded = new HashMap<>();
+      jdbcTemplate.query(
+        "SELECT source, mjd, file_creation_time FROM file_availability WHERE file_creation_time IS NOT NULL",
+        rs -> {
+          Timestamp created = rs.getTimestamp("file_creation_time");
+          int mjd = rs.getInt("mjd");
+          loaded.computeIfAbsent(rs.getString("source"), source -> new SourceHistogram())
+            .put(mjd, latencyMinutes(mjd, created.toLocalDateTime()));
+        });
+      bySource.putAll(loaded);
+      logger.info("⏱️ Arrival latency loaded: {} sources, {} files", loaded.size(),
+        loaded.values().stream().mapToLong(SourceHistogram::files).sum());
+    } catch (Exception e) {
+      logger.error("❌ Could not load arrival latencies: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Records the arrival of a received file and classifies it.
+   * @param fileCreationTime creation time in the JVM's zone, as stored in file_availability; null if unknown
+   * @return LATE when the file arrived later than the threshold, otherwise AVAILABLE
+   */
+  public String recordArrival(String source, int mjd, LocalDateTime fileCreationTime) {
+    if (fileCreationTime == null) {
+      return "AVAILABLE";
+    }
+    long minutes = latencyMinutes(mjd, fileCreationTime);
+    bySource.computeIfAbsent(source, key -> new SourceHistogram()).put(mjd, minutes);
+    return classifyLate && minutes > lateThresholdMinutes ? "LATE" : "AVAILABLE";
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onDataVersionChanged(DataVersionChangedEvent event) {
+    if (!event.isAvailabilityChange()) {
+      return;
+    }
+    String source = event.getSubject();
+    try {
+      SourceHistogram histogram = new SourceHistogram();
+      jdbcTemplate.query(
+        "SELECT mjd, file_creation_time FROM file_availability WHERE source = ? AND file_creation_time IS NOT NULL",
+        rs -> {
+          int mjd = rs.getInt("mjd");
+          histogram.put(mjd, latencyMinutes(mjd, rs.getTimestamp("file_creation_time").toLocalDateTime()));
+        }, source);
+      bySource.put(source, histogram);
+    } catch (Exception e) {
+      logger.warn("⚠️ Could not reload arrival latencies for {}: {}", source, e.getMessage());
+    }
+  }
+
+  /**
+   * Latency summaries of {@code sources} (every known source when empty) and of all of them together.
+   */
+  public ArrivalLatencyDTO getLatencies(Collection<String> sources) {
+    Collection<String> selected = sources == null || sources.isEmpty() ? new TreeMap<>(bySource).keySet() : sources;
+    long[] overallCounts = new long[BUCKET_UPPER_MINUTES.length + 1];
+    long overallLate = 0;
+    long overallMax = -1;
+    List<ArrivalLatencyDTO.SourceLatency> result = new ArrayList<>();
+    for (String source : selected) {
+      SourceHistogram histogram = bySource.get(source);
+      if (histogram == null) {
+        continue;
+      }
+      Snapshot snapshot = histogram.snapshot(lateThresholdMinutes);
+      for (int i = 0; i < overallCounts.length; i++) {
+        overallCounts[i] += snapshot.counts[i];
+      }
+      overallLate += snapshot.lateFiles;
+      overallMax = Math.max(overallMax, snapshot.maxMinutes);
+      result.add(toDTO(source, snapshot));
+    }
+    ArrivalLatencyDTO.SourceLatency overall = toDTO(null, new Snapshot(overallCounts, overallLate, overallMax));
+    return new ArrivalLatencyDTO(lateThresholdMinutes, overall, result);
+  }
+
+  /**
+   * Summary of one source, or null when none of its files has a creation time.
+   */
+  public ArrivalLatencyDTO.SourceLatency getLatency(String source) {
+    SourceHistogram histogram = bySource.get(source);
+    return histogram != null ? toDTO(source, histogram.snapshot(lateThresholdMinutes)) : null;
+  }
+
+  static long latencyMinutes(int mjd, LocalDateTime fileCreationTime) {
+    Instant dayEnd = MJD_EPOCH.plusDays(mjd + 1L).atStartOfDay(ZoneOffset.UTC).toInstant();
+    Instant created = fileCreationTime.atZone(ZoneId.systemDefault()).toInstant();
+    return Math.max(0L, Duration.between(dayEnd, created).toMinutes());
+  }
+
+  static int bucketOf(long minutes) {
+    for (int i = 0; i < BUCKET_UPPER_MINUTES.length; i++) {
+      if (minutes <= BUCKET_UPPER_MINUTES[i]) {
+        return i;
+      }
+    }
+    return BUCKET_UPPER_MINUTES.length;
+  }
+
+  /**
+   * The {@code p}-quantile, interpolated linearly inside its bucket; the open bucket ends at {@code maxMinutes}.
+   */
+  static Double percentile(long[] counts, long maxMinutes, double p) {
+    long total = 0;
+    for (long count : counts) {
+      total += count;
+    }
+    if (total == 0) {
+      return null;
+    }
+    double rank = Math.max(1.0, Math.ceil(p * total));
+    long cumulative = 0;
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] > 0 && cumulative + counts[i] >= rank) {
+        double lower = i == 0 ? 0 : BUCKET_UPPER_MINUTES[i - 1];
+        double upper = Math.min(i < BUCKET_UPPER_MINUTES.length ? BUCKET_UPPER_MINUTES[i] : maxMinutes, maxMinutes);
+        return lower + (upper - lower) * (rank - cumulative) / counts[i];
+      }
+      cumulative += counts[i];
+    }
+    return (double) maxMinutes;
+  }
+
+  private static ArrivalLatencyDTO.SourceLatency toDTO(String source, Snapshot snapshot) {
+    long files = 0;
+    List<ArrivalLatencyDTO.Bucket> buckets = new ArrayList<>(snapshot.counts.length);
+    for (int i = 0; i < snapshot.counts.length; i++) {
+      files += snapshot.counts[i];
+      buckets.add(new ArrivalLatencyDTO.Bucket(i < BUCKET_UPPER_MINUTES.length ? BUCKET_UPPER_MINUTES[i] : null,
+        snapshot.counts[i]));
+    }
+    return new ArrivalLatencyDTO.SourceLatency(source, files, snapshot.lateFiles,
+      percentile(snapshot.counts, snapshot.maxMinutes, 0.50),
+      percentile(snapshot.counts, snapshot.maxMinutes, 0.90),
+      percentile(snapshot.counts, snapshot.maxMinutes, 0.99),
+      files > 0 ? snapshot.maxMinutes : null,
+      buckets);
+  }
+
+  private record Snapshot(long[] counts, long lateFiles, long maxMinutes) {
+  }
+
+  /**
+   * Latency per MJD of one source and the bucket counts derived from it. Re-reporting a file moves it
+   * between buckets instead of counting it again.
+   */
+  private static final class SourceHistogram {
+    private final Map<Integer, Long> minutesByMjd = new HashMap<>();
+    private final long[] counts = new long[BUCKET_UPPER_MINUTES.length + 1];
+
+    synchronized void put(int mjd, long minutes) {
+      Long previous = minutesByMjd.put(mjd, minutes);
+      if (previous != null) {
+        counts[bucketOf(previous)]--;
+      }
+      counts[bucketOf(minutes)]++;
+    }
+
+    synchronized long files() {
+      return minutesByMjd.size();
+    }
+
+    synchronized Snapshot snapshot(long lateThresholdMinutes) {
+      long late = 0;
+      long max = -1;
+      for (long minutes : minutesByMjd.values()) {
+        if (minutes > lateThresholdMinutes) {
+          late++;
+        }
+        max = Math.max(max, minutes);
+      }
+      return new Snapshot(counts.clone(), late, max);
+    }
+  }
+}
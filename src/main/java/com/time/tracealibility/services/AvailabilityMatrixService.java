@@ -0,0 +1,164 @@
+package com.time.tracealibility.services;
+
+import com.time.tracealibility.dto.AvailabilitySpansDTO;
+import com.time.tracealibility.events.DataVersionChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory source x MJD file availability matrix: one bitset per source and status (AVAILABLE, MISSING,
+ * LATE, ...), bit {@code mjd - BASE_MJD} set when file_availability holds that status for the day.
+ *
+ * Ingest records every upsert here as well as in the table; other nodes reload a source's bitsets when its
+ * availability version moves. A bitset covers all days since BASE_MJD in a few kilobytes, so a year-long
+ * heatmap of every station is a walk over set/clear runs without touching the database. Published bitsets
+ * are never modified: an update copies the source's bitsets, so reads take no lock.
+ */
+@Service
+public class AvailabilityMatrixService {
+
+  private static final Logger logger = LoggerFactory.getLogger(AvailabilityMatrixService.class);
+
+  // 1995-10-10; bit 0 of every bitset. Days before it are not tracked
+  public static final int BASE_MJD = 50000;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private volatile Map<String, Map<String, BitSet>> bySource = Map.of();
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    try {
+      Map<String, Map<String, BitSet>> loaded = new HashMap<>();
+      jdbcTemplate.query("SELECT source, mjd, status FROM file_availability", rs -> {
+        set(loaded.computeIfAbsent(rs.getString("source"), source -> new TreeMap<>()),
+          rs.getInt("mjd"), rs.getString("status"));
+      });
+      synchronized (this) {
+        bySource = Map.copyOf(loaded);
+      }
+      logger.info("🗺️ Availability matrix loaded: {} sources", loaded.size());
+    } catch (Exception e) {
+      logger.error("❌ Could not load availability matrix: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Applies a file_availability upsert: the day gets {@code status} and loses any other status.
+   */
+  public void record(String source, int mjd, String status) {
+    if (source == null || status == null || mjd < BASE_MJD) {
+      return;
+    }
+    synchronized (this) {
+      Map<String, BitSet> statuses = copyOf(bySource.get(source));
+      set(statuses, mjd, status);
+      replaceSource(source, statuses);
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onDataVersionChanged(DataVersionChangedEvent event) {
+    if (!event.isAvailabilityChange()) {
+      return;
+    }
+    String source = event.getSubject();
+    try {
+      Map<String, BitSet> statuses = new TreeMap<>();
+      jdbcTemplate.query("SELECT mjd, status FROM file_availability WHERE source = ?",
+        rs -> {
+          set(statuses, rs.getInt("mjd"), rs.getString("status"));
+        }, source);
+      synchronized (this) {
+        replaceSource(source, statuses);
+      }
+    } catch (Exception e) {
+      logger.warn("⚠️ Could not reload availability matrix for {}: {}", source, e.getMessage());
+    }
+  }
+
+  /**
+   * Runs of each status over {@code [startMjd, endMjd]} for {@code sources} (every known source when empty).
+   * Sources without any availability row are omitted.
+   */
+  public AvailabilitySpansDTO getSpans(Collection<String> sources, int startMjd, int endMjd) {
+    Map<String, Map<String, BitSet>> snapshot = bySource;
+    Collection<String> selected = sources == null || sources.isEmpty() ? new TreeMap<>(snapshot).keySet() : sources;
+    int from = Math.max(startMjd, BASE_MJD) - BASE_MJD;
+    int to = endMjd - BASE_MJD + 1; // exclusive
+
+    Map<String, Map<String, List<int[]>>> spans = new LinkedHashMap<>();
+    for (String source : selected) {
+      Map<String, BitSet> statuses = snapshot.get(source);
+      if (statuses == null) {
+        continue;
+      }
+      Map<String, List<int[]>> byStatus = new LinkedHashMap<>();
+      statuses.forEach((status, bits) -> {
+        List<int[]> runs = runs(bits, from, to);
+        if (!runs.isEmpty()) {
+          byStatus.put(status, runs);
+        }
+      });
+      spans.put(source, byStatus);
+    }
+    return new AvailabilitySpansDTO(startMjd, endMjd, spans);
+  }
+
+  /**
+   * Set runs of {@code bits} within {@code [from, to)} as inclusive {@code [firstMjd, lastMjd]} pairs.
+   */
+  static List<int[]> runs(BitSet bits, int from, int to) {
+    List<int[]> runs = new ArrayList<>();
+    if (from >= to) {
+      return runs;
+    }
+    int start = bits.nextSetBit(from);
+    while (start >= 0 && start < to) {
+      int end = Math.min(bits.nextClearBit(start), to);
+      runs.add(new int[]{start + BASE_MJD, end - 1 + BASE_MJD});
+      start = end < to ? bits.nextSetBit(end) : -1;
+    }
+    return runs;
+  }
+
+  private static void set(Map<String, BitSet> statuses, int mjd, String status) {
+    if (mjd < BASE_MJD || status == null) {
+      return;
+    }
+    int bit = mjd - BASE_MJD;
+    // One status per (source, mjd), as in file_availability
+    statuses.values().forEach(bits -> bits.clear(bit));
+    statuses.computeIfAbsent(status, key -> new BitSet()).set(bit);
+  }
+
+  private static Map<String, BitSet> copyOf(Map<String, BitSet> statuses) {
+    Map<String, BitSet> copy = new TreeMap<>();
+    if (statuses != null) {
+      statuses.forEach((status, bits) -> copy.put(status, (BitSet) bits.clone()));
+    }
+    return copy;
+  }
+
+  private void replaceSource(String source, Map<String, BitSet> statuses) {
+    Map<String, Map<String, BitSet>> next = new HashMap<>(bySource);
+    next.put(source, statuses);
+    bySource = Map.copyOf(next);
+  }
+}
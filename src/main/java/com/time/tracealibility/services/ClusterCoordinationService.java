@@ -0,0 +1,185 @@
+package com.time.tracealibility.services;
+
+import com.time.tracealibility.repository.ClusterLeaseRepository;
+import com.time.tracealibility.repository.ClusterNodeRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Coordinates several backend instances through PostgreSQL.
+ *
+ * Every node heartbeats into {@code cluster_node}. Location folders are sharded across the live nodes
+ * with rendezvous (highest-random-weight) hashing, so losing a node only moves that node's folders.
+ * Exclusive work such as the materialized view refresh is guarded by a row in {@code cluster_lease}.
+ * With {@code app.cluster.enabled=false} the node behaves as a single standalone instance.
+ */
+@Service
+public class ClusterCoordinationService {
+
+  private static final Logger logger = LoggerFactory.getLogger(ClusterCoordinationService.class);
+
+  @Autowired
+  private ClusterNodeRepository clusterNodeRepository;
+
+  @Autowired
+  private ClusterLeaseRepository clusterLeaseRepository;
+
+  @Value("${app.cluster.enabled:false}")
+  private boolean enabled;
+
+  @Value("${app.cluster.node-id:}")
+  private String configuredNodeId;
+
+  @Value("${app.cluster.node-timeout-seconds:30}")
+  private int nodeTimeoutSeconds;
+
+  private volatile String nodeId;
+  private volatile String hostName;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public String getNodeId() {
+    if (nodeId == null) {
+      synchronized (this) {
+        if (nodeId == null) {
+          hostName = resolveHostName();
+          nodeId = configuredNodeId != null && !configuredNodeId.isBlank()
+            ? configuredNodeId.trim()
+            : hostName + "-" + ProcessHandle.current().pid() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        }
+      }
+    }
+    return nodeId;
+  }
+
+  @Scheduled(fixedRateString = "${app.cluster.heartbeat-interval:10000}")
+  public void heartbeat() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      clusterNodeRepository.heartbeat(getNodeId(), hostName);
+      // Keep the table small; nodes gone for 10 timeouts are never coming back under the same id
+      clusterNodeRepository.deleteStaleNodes(nodeTimeoutSeconds * 10);
+    } catch (Exception e) {
+      logger.error("❌ Cluster heartbeat failed for node {}: {}", getNodeId(), e.getMessage());
+    }
+  }
+
+  /**
+   * Returns the ids of all nodes with a fresh heartbeat, always including this node.
+   */
+  public List<String> getLiveNodes() {
+    if (!enabled) {
+      return List.of(getNodeId());
+    }
+    List<String> liveNodes = new ArrayList<>();
+    try {
+      liveNodes.addAll(clusterNodeRepository.findLiveNodeIds(nodeTimeoutSeconds));
+    } catch (Exception e) {
+      logger.error("❌ Could not read live cluster nodes: {}", e.getMessage());
+    }
+    if (!liveNodes.contains(getNodeId())) {
+      liveNodes.add(getNodeId());
+    }
+    return liveNodes;
+  }
+
+  /**
+   * Decides whether this node is responsible for a shard key (a location folder name).
+   * @param shardKey The key to place.
+   * @param liveNodes Snapshot from {@link #getLiveNodes()}, taken once per scan so all keys see the same membership.
+   */
+  public boolean isAssignedToThisNode(String shardKey, List<String> liveNodes) {
+    if (!enabled || liveNodes.size() <= 1) {
+      return true;
+    }
+    String owner = null;
+    long bestScore = Long.MIN_VALUE;
+    for (String candidate : liveNodes) {
+      long score = rendezvousScore(candidate, shardKey);
+      if (owner == null || score > bestScore || (score == bestScore && candidate.compareTo(owner) < 0)) {
+        owner = candidate;
+        bestScore = score;
+      }
+    }
+    return getNodeId().equals(owner);
+  }
+
+  /**
+   * Takes or renews a named lease for this node.
+   * @return true when this node holds the lease for the next {@code ttlSeconds}
+   */
+  public boolean tryAcquireLease(String leaseName, int ttlSeconds) {
+    if (!enabled) {
+      return true;
+    }
+    try {
+      return clusterLeaseRepository.tryAcquire(leaseName, getNodeId(), ttlSeconds) > 0;
+    } catch (Exception e) {
+      logger.error("❌ Could not acquire lease '{}': {}", leaseName, e.getMessage());
+      return false;
+    }
+  }
+
+  public void releaseLease(String leaseName) {
+    if (!enabled) {
+      return;
+    }
+    try {
+      clusterLeaseRepository.release(leaseName, getNodeId());
+    } catch (Exception e) {
+      logger.warn("Could not release lease '{}': {}", leaseName, e.getMessage());
+    }
+  }
+
+  /**
+   * Leaves the cluster on shutdown so the remaining nodes rebalance immediately instead of waiting for the timeout.
+   */
+  @PreDestroy
+  public void leaveCluster() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      clusterLeaseRepository.releaseAll(getNodeId());
+      clusterNodeRepository.deleteById(getNodeId());
+      logger.info("👋 Node {} left the cluster", getNodeId());
+    } catch (Exception e) {
+      logger.warn("Could not deregister node {}: {}", getNodeId(), e.getMessage());
+    }
+  }
+
+  private long rendezvousScore(String node, String shardKey) {
+    CRC32 crc = new CRC32();
+    crc.update((node + "|" + shardKey).getBytes(StandardCharsets.UTF_8));
+    // Finalize with a 64-bit mix so nearby node ids do not produce correlated scores
+    long h = crc.getValue() * 0x9E3779B97F4A7C15L;
+    h ^= (h >>> 33);
+    h *= 0xC2B2AE3D27D4EB4FL;
+    h ^= (h >>> 29);
+    return h;
+  }
+
+  private String resolveHostName() {
+    try {
+      return InetAddress.getLocalHost().getHostName();
+    } catch (Exception e) {
+      return "node";
+    }
+  }
+}
@@ -0,0 +1,208 @@
+package com.time.tracealibility.services;
+
+import com.time.tracealibility.dto.CommonViewPointDTO;
+import com.time.tracealibility.timeseries.CommonViewMatcher;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Common-view differences of any two sources, computed on demand from irnss_data with
+ * {@link CommonViewMatcher} instead of being limited to the pairs in sat_combined_view_difference.
+ *
+ * The tracks of both sources for the range are read once in join order (in a read-only transaction, so
+ * {@code app.streaming.fetch-size} applies and rows arrive in batches) and matched on a dedicated
+ * fork-join pool, so a large range neither occupies the common pool nor runs on a single request thread.
+ * Identical concurrent requests share one computation through the {@link RequestCoalescer}.
+ *
+ * Every average is multiplied by {@code app.common-view.refsys-scale} and the weighted columns follow
+ * {@code app.common-view.weighting}. Neither has a default: both must be set to what the deployed
+ * sat_combined_view_difference does, which CommonViewParityTest checks against a database that has the view.
+ * Until the scale is set nothing is served ({@link #isConfigured()}); until the weighting is set the weighted
+ * columns are left empty.
+ */
+@Service
+public class CommonViewMatchingService {
+
+  private static final Logger logger = LoggerFactory.getLogger(CommonViewMatchingService.class);
+
+  private static final LocalDate MJD_EPOCH = LocalDate.of(1858, 11, 17);
+
+  // Ordered by the derived letter, so bare PRN numbers (GPS) sort with the "G.." ids of the same epoch
+  private static final String TRACKS_SQL = """
+      SELECT sat_id, sat, mjd, sttime, refsys, dsg
+      FROM irnss_data
+      WHERE source = ? AND mjd BETWEEN ? AND ?
+      ORDER BY mjd, sttime, CASE WHEN sat_id ~ '^[A-Za-z]' THEN upper(substr(sat_id, 1, 1)) ELSE 'G' END, sat
+      """;
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private RequestCoalescer requestCoalescer;
+
+  @Value("${app.common-view.parallelism:0}")
+  private int parallelism;
+
+  @Value("${app.common-view.days-per-task:7}")
+  private int daysPerTask;
+
+  @Value("${app.common-view.max-days:366}")
+  private int maxDays;
+
+  @Value("${app.common-view.weighting:#{null}}")
+  private CommonViewMatcher.Weighting weighting;
+
+  @Value("${app.common-view.refsys-scale:#{null}}")
+  private Double refsysScale;
+
+  @Value("${app.streaming.fetch-size:2000}")
+  private int fetchSize;
+
+  private JdbcTemplate jdbcTemplate;
+  private TransactionTemplate readOnlyTransaction;
+  private ForkJoinPool matchPool;
+
+  @PostConstruct
+  public void init() {
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.setFetchSize(fetchSize);
+    readOnlyTransaction = new TransactionTemplate(transactionManager);
+    readOnlyTransaction.setReadOnly(true);
+
+    int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    AtomicInteger threadCount = new AtomicInteger();
+    matchPool = new ForkJoinPool(threads, pool -> {
+      ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+      thread.setName("common-view-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }, null, false);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    matchPool.shutdownNow();
+  }
+
+  public int getMaxDays() {
+    return maxDays;
+  }
+
+  /**
+   * Whether {@code app.common-view.refsys-scale} is set, without which the units of the view are unknown.
+   */
+  public boolean isConfigured() {
+    return refsysScale != null;
+  }
+
+  /**
+   * Common-view epochs of {@code source1} against {@code source2} for MJDs {@code [startMjd, endMjd]},
+   * optionally limited to one satellite letter, in (mjd, sttime, satLetter) order.
+   */
+  public List<CommonViewPointDTO> match(String source1, String source2, int startMjd, int endMjd, String satLetter) {
+    return requestCoalescer.execute("commonViewMatch",
+      Arrays.asList(source1, source2, startMjd, endMjd, satLetter),
+      () -> computeMatch(source1, source2, startMjd, endMjd, satLetter));
+  }
+
+  private List<CommonViewPointDTO> computeMatch(String source1, String source2, int startMjd, int endMjd,
+                                                String satLetter) {
+    long startTime = System.currentTimeMillis();
+    Character letterFilter = satLetter != null && !satLetter.isEmpty()
+      ? Character.toUpperCase(satLetter.charAt(0)) : null;
+    CommonViewMatcher.Tracks[] tracks = readOnlyTransaction.execute(status -> new CommonViewMatcher.Tracks[] {
+      loadTracks(source1, startMjd, endMjd, letterFilter),
+      loadTracks(source2, startMjd, endMjd, letterFilter)
+    });
+    CommonViewMatcher.Tracks tracks1 = tracks[0];
+    CommonViewMatcher.Tracks tracks2 = tracks[1];
+    long loadedTime = System.currentTimeMillis();
+
+    // Without a configured weighting the weighted columns are dropped, so EQUAL only saves work
+    List<CommonViewMatcher.Epoch> epochs = CommonViewMatcher.match(tracks1, tracks2, startMjd, endMjd,
+      weighting != null ? weighting : CommonViewMatcher.Weighting.EQUAL, matchPool, daysPerTask);
+
+    List<CommonViewPointDTO> points = new ArrayList<>(epochs.size());
+    for (CommonViewMatcher.Epoch epoch : epochs) {
+      points.add(toPoint(epoch, source1, source2, refsysScale, weighting != null));
+    }
+    logger.info("🛰️ Matched {}/{} MJD {}-{}: {} + {} tracks -> {} epochs (load {} ms, match {} ms)",
+      source1, source2, startMjd, endMjd, tracks1.size(), tracks2.size(), points.size(),
+      loadedTime - startTime, System.currentTimeMillis() - loadedTime);
+    return points;
+  }
+
+  private CommonViewMatcher.Tracks loadTracks(String source, int startMjd, int endMjd, Character letterFilter) {
+    return loadTracks(jdbcTemplate, source, startMjd, endMjd, letterFilter);
+  }
+
+  /**
+   * Tracks of one source for MJDs {@code [startMjd, endMjd]} in the order {@link CommonViewMatcher} needs.
+   */
+  static CommonViewMatcher.Tracks loadTracks(JdbcTemplate jdbcTemplate, String source, int startMjd, int endMjd,
+                                             Character letterFilter) {
+    CommonViewMatcher.Tracks tracks = new CommonViewMatcher.Tracks();
+    jdbcTemplate.query(TRACKS_SQL, rs -> {
+      int second = CommonViewMatcher.secondOfDay(rs.getString("sttime"));
+      if (second < 0) {
+        return;
+      }
+      char letter = satLetter(rs.getString("sat_id"));
+      if (letterFilter != null && letter != letterFilter) {
+        return;
+      }
+      tracks.add(rs.getInt("mjd"), second, letter, rs.getInt("sat"), rs.getInt("refsys"), rs.getInt("dsg"));
+    }, source, startMjd, endMjd);
+    return tracks;
+  }
+
+  // Satellite ids are stored as parsed ("G05"); a bare PRN number comes from a GPS-only file.
+  // Must agree with the letter TRACKS_SQL orders by
+  private static char satLetter(String satId) {
+    if (satId != null && !satId.isEmpty()) {
+      char first = Character.toUpperCase(satId.charAt(0));
+      if (first >= 'A' && first <= 'Z') {
+        return first;
+      }
+    }
+    return 'G';
+  }
+
+  /**
+   * Converts an epoch to the view's units; the weighted columns stay null unless {@code weighted}.
+   */
+  static CommonViewPointDTO toPoint(CommonViewMatcher.Epoch epoch, String source1, String source2, double scale,
+                                    boolean weighted) {
+    int second = epoch.secondOfDay();
+    String sttime = String.format("%02d%02d%02d", second / 3600, second / 60 % 60, second % 60);
+    LocalDateTime mjdDateTime = MJD_EPOCH.plusDays(epoch.mjd()).atStartOfDay().plusSeconds(second);
+    return new CommonViewPointDTO(String.valueOf(epoch.satLetter()), epoch.mjd(), sttime, mjdDateTime,
+      epoch.commonSatellites(), source1, source2, epoch.avg1() * scale, epoch.avg2() * scale,
+      epoch.avgDifference() * scale,
+      weighted ? epoch.weightedAvg1() * scale : null,
+      weighted ? epoch.weightedAvg2() * scale : null,
+      weighted ? epoch.weightedAvgDifference() * scale : null);
+  }
+}
@@ -0,0 +1,157 @@
+package com.time.tracealibility.services;
+
+import com.time.tracealibility.events.DataVersionChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cluster-wide data versions for materialized views and ingest sources.
+ *
+ * A bump increments the row in {@code data_version} and issues {@code pg_notify} in the same statement,
+ * so the notification is delivered to every listening node exactly when the new version commits.
+ * Each node keeps the latest known versions in memory and publishes a {@link DataVersionChangedEvent}
+ * whenever one advances, which is the hook local caches use to invalidate.
+ */
+@Service
+public class DataVersionService {
+
+  private static final Logger logger = LoggerFactory.getLogger(DataVersionService.class);
+
+  private static final String BUMP_SQL = """
+      WITH bumped AS (
+          INSERT INTO data_version (version_key, version, updated_at)
+          VALUES (?, 1, now())
+          ON CONFLICT (version_key) DO UPDATE SET
+              version = data_version.version + 1,
+              updated_at = now()
+          RETURNING version
+      )
+      SELECT version, pg_notify(?, CAST(? AS text) || '|' || version || '|' || CAST(? AS text)) FROM bumped
+      """;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  @Autowired
+  private ClusterCoordinationService clusterCoordinationService;
+
+  @Value("${app.events.channel:trace_data_events}")
+  private String channel;
+
+  private final Map<String, Long> versions = new ConcurrentHashMap<>();
+  private final Map<String, Long> changedAt = new ConcurrentHashMap<>();
+
+  public static String viewKey(String viewName) {
+    return "view:" + viewName;
+  }
+
+  public static String sourceKey(String source) {
+    return "source:" + source;
+  }
+
+  public static String availabilityKey(String source) {
+    return "availability:" + source;
+  }
+
+  public String getChannel() {
+    return channel;
+  }
+
+  /**
+   * Atomically increments a data version and notifies all nodes.
+   * Joins the caller's transaction if there is one, so the notification is only sent if the change commits;
+   * the local version is then also only advanced once it committed; after a rollback the same number is
+   * handed out again and must still count as new.
+   * @return the new version
+   */
+  public long bump(String versionKey) {
+    String nodeId = clusterCoordinationService.getNodeId();
+    Long version = jdbcTemplate.queryForObject(BUMP_SQL, (rs, rowNum) -> rs.getLong(1),
+      versionKey, channel, versionKey, nodeId);
+    long newVersion = version != null ? version : 0L;
+    if (TransactionSynchronizationManager.isSynchronizationActive()
+      && TransactionSynchronizationManager.isActualTransactionActive()) {
+      // afterCompletion runs once synchronization is cleared, so listeners of the event run right away
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          if (status == STATUS_COMMITTED) {
+            advance(versionKey, newVersion, nodeId);
+          }
+        }
+      });
+    } else {
+      advance(versionKey, newVersion, nodeId);
+    }
+    return newVersion;
+  }
+
+  /**
+   * Latest version this node has seen for a key, or 0 if none yet.
+   */
+  public long getVersion(String versionKey) {
+    return versions.getOrDefault(versionKey, 0L);
+  }
+
+  public Map<String, Long> getVersions() {
+    return Collections.unmodifiableMap(versions);
+  }
+
+  /**
+   * Epoch millis at which this node learned the current version of a key (the database update time
+   * after a resync), or 0 if unknown.
+   */
+  public long getLastChanged(String versionKey) {
+    return changedAt.getOrDefault(versionKey, 0L);
+  }
+
+  /**
+   * Applies a version received from another node. Out-of-order and duplicate notifications are ignored.
+   */
+  public void advance(String versionKey, long version, String originNode) {
+    advance(versionKey, version, originNode, System.currentTimeMillis());
+  }
+
+  private void advance(String versionKey, long version, String originNode, long changedAtMillis) {
+    long[] previous = new long[1];
+    Long merged = versions.merge(versionKey, version, (current, incoming) -> {
+      previous[0] = current;
+      return Math.max(current, incoming);
+    });
+    if (merged == version && previous[0] < version) {
+      changedAt.put(versionKey, changedAtMillis);
+      logger.debug("Data version {} advanced to {} (origin {})", versionKey, version, originNode);
+      eventPublisher.publishEvent(new DataVersionChangedEvent(versionKey, version, originNode));
+    }
+  }
+
+  /**
+   * Reloads every version from the database. Used at startup and after the listener reconnects,
+   * since notifications sent while disconnected are lost.
+   */
+  public void resync() {
+    try {
+      jdbcTemplate.query("SELECT version_key, version, updated_at FROM data_version", rs -> {
+        java.sql.Timestamp updatedAt = rs.getTimestamp("updated_at");
+        advance(rs.getString("version_key"), rs.getLong("version"), "resync",
+          updatedAt != null ? updatedAt.getTime() : System.currentTimeMillis());
+      });
+    } catch (Exception e) {
+      logger.error("❌ Could not resync data versions: {}", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.time.tracealibility.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Bookkeeping behind the {@code since} delta cursor of the view endpoints.
+ *
+ * Ingest stamps each (source, mjd) it adds rows for with the next value of the global "ingest" version.
+ * Allocating the number and writing the log row happen in one statement, and the version row stays locked
+ * until that statement commits, so sequence numbers become visible in order. Each view refresh records the
+ * ingest version read just before the REFRESH as its watermark. A client holding cursor N therefore needs
+ * exactly the view rows whose (source, mjd) has {@code change_seq > N}, and its next cursor is the view's watermark.
+ */
+@Service
+public class DeltaSyncService {
+
+  private static final Logger logger = LoggerFactory.getLogger(DeltaSyncService.class);
+
+  public static final String INGEST_VERSION_KEY = "ingest";
+
+  private static final String RECORD_CHANGE_SQL = """
+      WITH seq AS (
+          INSERT INTO data_version (version_key, version, updated_at)
+          VALUES (?, 1, now())
+          ON CONFLICT (version_key) DO UPDATE SET
+              version = data_version.version + 1,
+              updated_at = now()
+          RETURNING version
+      )
+      INSERT INTO data_change_log (source, mjd, change_seq, changed_at)
+      SELECT ?, ?, version, now() FROM seq
+      ON CONFLICT (source, mjd) DO UPDATE SET
+          change_seq = EXCLUDED.change_seq,
+          changed_at = EXCLUDED.changed_at
+      RETURNING change_seq
+      """;
+
+  private static final String SAVE_WATERMARK_SQL = """
+      INSERT INTO view_watermark (view_name, change_seq, refreshed_at)
+      VALUES (?, ?, now())
+      ON CONFLICT (view_name) DO UPDATE SET
+          change_seq = EXCLUDED.change_seq,
+          refreshed_at = EXCLUDED.refreshed_at
+      """;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  /**
+   * Marks new raw data for a source and day.
+   * @return the change sequence assigned
+   */
+  public long recordChange(String source, int mjd) {
+    Long seq = jdbcTemplate.queryForObject(RECORD_CHANGE_SQL, Long.class, INGEST_VERSION_KEY, source, mjd);
+    logger.debug("Recorded ingest change {} for {} / MJD {}", seq, source, mjd);
+    return seq != null ? seq : 0L;
+  }
+
+  /**
+   * Latest committed ingest change sequence, 0 if nothing was recorded yet.
+   */
+  public long currentChangeSeq() {
+    List<Long> versions = jdbcTemplate.queryForList(
+      "SELECT version FROM data_version WHERE version_key = ?", Long.class, INGEST_VERSION_KEY);
+    return versions.isEmpty() ? 0L : versions.get(0);
+  }
+
+  /**
+   * Records that a view now includes every change up to {@code changeSeq}.
+   * Joins the refresh transaction, so the watermark only moves if the refresh commits.
+   */
+  public void saveWatermark(String viewName, long changeSeq) {
+    jdbcTemplate.update(SAVE_WATERMARK_SQL, viewName, changeSeq);
+  }
+
+  /**
+   * Watermark of a view's last successful refresh, or null if it has not been refreshed since delta sync was enabled.
+   */
+  public Long getWatermark(String viewName) {
+    List<Long> watermarks = jdbcTemplate.queryForList(
+      "SELECT change_seq FROM view_watermark WHERE view_name = ?", Long.class, viewName);
+    return watermarks.isEmpty() ? null : watermarks.get(0);
+  }
+}
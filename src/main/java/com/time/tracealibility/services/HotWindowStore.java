@@ -0,0 +1,291 @@
+package com.time.tracealibility.services;
+
+import com.time.tracealibility.entity.SatCommonViewDifference;
+import com.time.tracealibility.events.DataVersionChangedEvent;
+import com.time.tracealibility.timeseries.CommonViewSeriesBlock;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process copy of the most recent common-view differences, covering the last {@code app.hot-window.days}
+ * days before the newest row. Each (source1, source2) pair is held as one {@link CommonViewSeriesBlock} per UTC day.
+ *
+ * Every node keeps its own copy. After each refresh of the common view (local or announced by another node)
+ * only the days from (previous newest row - lookback) are reloaded; older day chunks are reused as they are.
+ * Days that fall out of the lookback are sealed with Gorilla compression, so the window can span weeks
+ * within the budget. Chunks are immutable and swapped in as one snapshot, so readers never lock. If the window
+ * would exceed {@code app.hot-window.max-bytes} it is shortened a day at a time until it fits.
+ */
+@Service
+public class HotWindowStore {
+
+  private static final Logger logger = LoggerFactory.getLogger(HotWindowStore.class);
+
+  private static final String COMMON_VIEW = "sat_common_view_difference_materialized";
+  private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+  @Autowired
+  private SatDataStreamingService satDataStreamingService;
+
+  @Autowired
+  private DataVersionService dataVersionService;
+
+  @Value("${app.hot-window.enabled:true}")
+  private boolean enabled;
+
+  @Value("${app.hot-window.days:30}")
+  private int windowDays;
+
+  @Value("${app.hot-window.max-bytes:268435456}")
+  private long maxBytes;
+
+  @Value("${app.hot-window.lookback-days:3}")
+  private int lookbackDays;
+
+  private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "hot-window-refresh");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private final AtomicBoolean refreshQueued = new AtomicBoolean();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  private volatile Snapshot snapshot;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    scheduleRefresh();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onDataVersionChanged(DataVersionChangedEvent event) {
+    if (event.isViewChange() && COMMON_VIEW.equals(event.getSubject())) {
+      scheduleRefresh();
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    refreshExecutor.shutdownNow();
+  }
+
+  /**
+   * Queues a reload on the refresh thread. Bursts of events collapse into one reload.
+   */
+  public void scheduleRefresh() {
+    if (enabled && refreshQueued.compareAndSet(false, true)) {
+      refreshExecutor.execute(() -> {
+        refreshQueued.set(false);
+        try {
+          refresh();
+        } catch (Exception e) {
+          logger.error("❌ Hot window refresh failed: {}", e.getMessage(), e);
+        }
+      });
+    }
+  }
+
+  void refresh() {
+    long startTime = System.currentTimeMillis();
+    // Read before loading: a refresh that lands mid-load leaves the snapshot behind and queues another reload
+    long viewVersion = dataVersionService.getVersion(DataVersionService.viewKey(COMMON_VIEW));
+    LocalDateTime[] bounds = satDataStreamingService.findTimeBounds(COMMON_VIEW, null, null, null, null);
+    if (bounds == null) {
+      snapshot = new Snapshot(Long.MIN_VALUE, Long.MIN_VALUE, viewVersion, Map.of());
+      return;
+    }
+    long windowEnd = CommonViewSeriesBlock.epochMillis(bounds[1]);
+    long windowStart = floorDay(windowEnd - windowDays * DAY_MILLIS);
+    // Days before this are not reloaded by the next refresh either, so they are stored compressed
+    long sealedBefore = floorDay(windowEnd - lookbackDays * DAY_MILLIS);
+
+    Snapshot previous = snapshot;
+    if (previous != null && previous.windowStart > windowStart && previous.windowStart < windowEnd) {
+      // The previous window was shortened by the memory budget; do not claim days it no longer holds
+      windowStart = previous.windowStart;
+    }
+    long reloadFrom = previous == null || previous.windowEnd == Long.MIN_VALUE
+      ? windowStart
+      : Math.max(windowStart, floorDay(previous.windowEnd - lookbackDays * DAY_MILLIS));
+
+    // Keep the previous day chunks that are still inside the window and not being reloaded
+    Map<String, NavigableMap<Long, CommonViewSeriesBlock>> series = new HashMap<>();
+    if (previous != null) {
+      for (Map.Entry<String, NavigableMap<Long, CommonViewSeriesBlock>> entry : previous.series.entrySet()) {
+        NavigableMap<Long, CommonViewSeriesBlock> kept = new TreeMap<>();
+        entry.getValue().subMap(windowStart, true, reloadFrom, false).forEach((day, block) ->
+          kept.put(day, day < sealedBefore ? block.compress() : block));
+        if (!kept.isEmpty()) {
+          series.put(entry.getKey(), kept);
+        }
+      }
+    }
+
+    Map<String, Map<Long, CommonViewSeriesBlock.Builder>> builders = new HashMap<>();
+    long[] reloaded = new long[1];
+    satDataStreamingService.forEachCommonRow(null, formatMillis(reloadFrom), null, row -> {
+      if (row.getMjdDateTime() == null) {
+        return;
+      }
+      reloaded[0]++;
+      long day = floorDay(CommonViewSeriesBlock.epochMillis(row.getMjdDateTime()));
+      builders.computeIfAbsent(seriesKey(row.getSource1(), row.getSource2()), key -> new HashMap<>())
+        .computeIfAbsent(day, key -> new CommonViewSeriesBlock.Builder(row.getSource1(), row.getSource2()))
+        .add(row);
+    });
+    builders.forEach((key, days) -> days.forEach((day, builder) -> {
+      CommonViewSeriesBlock block = builder.build();
+      series.computeIfAbsent(key, k -> new TreeMap<>()).put(day, day < sealedBefore ? block.compress() : block);
+    }));
+
+    // Enforce the memory budget by giving up the oldest days first
+    while (estimatedBytes(series) > maxBytes && windowStart + DAY_MILLIS < windowEnd) {
+      windowStart += DAY_MILLIS;
+      long cutoff = windowStart;
+      series.values().forEach(days -> days.headMap(cutoff, false).clear());
+      series.values().removeIf(Map::isEmpty);
+    }
+
+    snapshot = new Snapshot(windowStart, windowEnd, viewVersion, series);
+    logger.info("🔥 Hot window refreshed: {} series, {} rows ({} reloaded), ~{} KB in {} ms",
+      series.size(), rowCount(series, false), reloaded[0], estimatedBytes(series) / 1024,
+      System.currentTimeMillis() - startTime);
+  }
+
+  /**
+   * Rows of the given source2 values within {@code [startDate, endDate]}, in time order per series,
+   * or null when the request is not fully covered by the window (no start, start before the window,
+   * unparseable dates or store not loaded yet) and the caller has to query the database.
+   */
+  public List<SatCommonViewDifference> findBulk(List<String> source2, String startDate, String endDate) {
+    Snapshot current = snapshot;
+    Long from = parseDateTime(startDate);
+    Long to = endDate != null ? parseDateTime(endDate) : Long.valueOf(Long.MAX_VALUE);
+    // Until the reload after a view refresh completes, the view is newer than the snapshot
+    boolean stale = current != null
+      && current.viewVersion < dataVersionService.getVersion(DataVersionService.viewKey(COMMON_VIEW));
+    if (!enabled || current == null || stale || from == null || to == null || from < current.windowStart) {
+      misses.incrementAndGet();
+      return null;
+    }
+    List<SatCommonViewDifference> rows = new ArrayList<>();
+    if (from <= to) {
+      for (NavigableMap<Long, CommonViewSeriesBlock> days : current.series.values()) {
+        CommonViewSeriesBlock any = days.firstEntry().getValue();
+        if (source2 == null || source2.isEmpty() || source2.contains(any.getSource2())) {
+          days.subMap(floorDay(from), true, to, true).values()
+            .forEach(block -> block.forEachInRange(from, to, rows::add));
+        }
+      }
+    }
+    hits.incrementAndGet();
+    return rows;
+  }
+
+  public Map<String, Object> getStats() {
+    Snapshot current = snapshot;
+    Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("enabled", enabled);
+    stats.put("loaded", current != null);
+    if (current != null && current.windowEnd != Long.MIN_VALUE) {
+      stats.put("windowStart", toDateTime(current.windowStart));
+      stats.put("windowEnd", toDateTime(current.windowEnd));
+    }
+    stats.put("viewVersion", current != null ? current.viewVersion : 0);
+    Map<String, NavigableMap<Long, CommonViewSeriesBlock>> series = current != null ? current.series : Map.of();
+    stats.put("series", series.size());
+    stats.put("rows", rowCount(series, false));
+    stats.put("compressedRows", rowCount(series, true));
+    stats.put("estimatedBytes", estimatedBytes(series));
+    stats.put("maxBytes", maxBytes);
+    stats.put("hits", hits.get());
+    stats.put("misses", misses.get());
+    return stats;
+  }
+
+  /**
+   * Accepts the formats clients send to the bulk endpoints: ISO date-time (with 'T' or a space) or a plain date.
+   * Returns null for anything else so the database (which casts the string itself) stays authoritative.
+   */
+  static Long parseDateTime(String value) {
+    if (value == null) {
+      return null;
+    }
+    String text = value.trim().replace(' ', 'T');
+    try {
+      LocalDateTime dateTime = text.length() == 10
+        ? LocalDate.parse(text).atStartOfDay()
+        : LocalDateTime.parse(text);
+      return CommonViewSeriesBlock.epochMillis(dateTime);
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+
+  private static String formatMillis(long millis) {
+    return toDateTime(millis).toString();
+  }
+
+  private static LocalDateTime toDateTime(long millis) {
+    return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+  }
+
+  private static long floorDay(long millis) {
+    return Math.floorDiv(millis, DAY_MILLIS) * DAY_MILLIS;
+  }
+
+  private static long estimatedBytes(Map<String, NavigableMap<Long, CommonViewSeriesBlock>> series) {
+    return series.values().stream().flatMap(days -> days.values().stream())
+      .mapToLong(CommonViewSeriesBlock::estimatedBytes).sum();
+  }
+
+  private static long rowCount(Map<String, NavigableMap<Long, CommonViewSeriesBlock>> series, boolean compressedOnly) {
+    return series.values().stream().flatMap(days -> days.values().stream())
+      .filter(block -> !compressedOnly || block.isCompressed())
+      .mapToLong(CommonViewSeriesBlock::size).sum();
+  }
+
+  private static String seriesKey(String source1, String source2) {
+    return source1 + "|" + source2;
+  }
+
+  private static final class Snapshot {
+    private final long windowStart;
+    private final long windowEnd;
+    private final long viewVersion;
+    private final Map<String, NavigableMap<Long, CommonViewSeriesBlock>> series; // series key -> UTC day -> chunk
+
+    private Snapshot(long windowStart, long windowEnd, long viewVersion,
+                     Map<String, NavigableMap<Long, CommonViewSeriesBlock>> series) {
+      this.windowStart = windowStart;
+      this.windowEnd = windowEnd;
+      this.viewVersion = viewVersion;
+      this.series = series;
+    }
+  }
+}
@@ -5,8 +5,10 @@ import com.time.tracealibility.entity.FileAvailability;
 import com.time.tracealibility.entity.IrnssData;
 import com.time.tracealibility.entity.ProcessedFile;
 import com.time.tracealibility.repository.FileAvailabilityRepository;
+import com.time.tracealibility.repository.IngestErrorRepository;
 import com.time.tracealibility.repository.IrnssDataRepository;
 import com.time.tracealibility.repository.ProcessedFileRepository;
+import com.time.tracealibility.timeseries.SessionSlots;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -40,15 +42,62 @@ public class IrnssDataService {
     @Autowired
     private FileAvailabilityRepository fileAvailabilityRepository;
 
+    @Autowired
+    private IngestErrorRepository ingestErrorRepository;
+
+    @Autowired
+    private ClusterCoordinationService clusterCoordinationService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private DeltaSyncService deltaSyncService;
+
+    @Autowired
+    private MjdCatalogService mjdCatalogService;
+
+    @Autowired
+    private SessionRollupService sessionRollupService;
+
+    @Autowired
+    private AvailabilityMatrixService availabilityMatrixService;
+
+    @Autowired
+    private ArrivalLatencyService arrivalLatencyService;
+
+    @Value("${app.cluster.ingest-lease-seconds:600}")
+    private int ingestLeaseSeconds;
+
+    private volatile boolean rollupsBackfilled;
+
     @Scheduled(fixedRate = 300_000) // 5 minutes
     public void monitorLocationFolders() {
         try {
             long startTime = System.currentTimeMillis();
             System.out.println("🔍 Starting file monitoring at: " + LocalDateTime.now());
 
+            // Build the catalogue and rollup from existing data before this node first adds to them. Ingest
+            // waits until both have worked: rows it recorded first would be mistaken for a populated table
+            if (!rollupsBackfilled) {
+                if (!mjdCatalogService.backfillIfEmpty()) {
+                    System.err.println("⚠️ MJD catalogue is not backfilled yet, skipping this scan");
+                    return;
+                }
+                if (!sessionRollupService.backfillIfEmpty()) {
+                    System.err.println("⚠️ Session rollup is not backfilled yet, skipping this scan");
+                    return;
+                }
+                rollupsBackfilled = true;
+            }
+
+            // Snapshot cluster membership once so every folder is placed against the same node list
+            List<String> liveNodes = clusterCoordinationService.getLiveNodes();
+
             Files.list(Paths.get(parentFolder))
                     .filter(Files::isDirectory)
-                    .forEach(this::processLocationFolder); // Remove .parallel() to reduce race conditions
+                    .filter(folder -> clusterCoordinationService.isAssignedToThisNode(folderKey(folder), liveNodes))
+                    .forEach(this::processOwnedLocationFolder); // Remove .parallel() to reduce race conditions
 
             long duration = System.currentTimeMillis() - startTime;
             System.out.println("✅ File monitoring completed in: " + duration + "ms");
@@ -58,11 +107,34 @@ public class IrnssDataService {
         }
     }
 
-    private void processLocationFolder(Path locationFolder) {
+    private String folderKey(Path locationFolder) {
+        return locationFolder.getFileName().toString().toUpperCase();
+    }
+
+    /**
+     * Processes a folder sharded to this node while holding its ingest lease.
+     * The lease covers the hand-over window after a rebalance, when the previous owner may still be mid-scan;
+     * it is renewed before every file, and the scan stops as soon as it cannot be.
+     */
+    private void processOwnedLocationFolder(Path locationFolder) {
+        String leaseName = "ingest:" + folderKey(locationFolder);
+        if (!clusterCoordinationService.tryAcquireLease(leaseName, ingestLeaseSeconds)) {
+            System.out.println("Skipping folder " + folderKey(locationFolder) + " - ingest lease held by another node");
+            return;
+        }
+        try {
+            processLocationFolder(locationFolder, leaseName);
+        } finally {
+            clusterCoordinationService.releaseLease(leaseName);
+        }
+    }
+
+    private void processLocationFolder(Path locationFolder, String leaseName) {
         try {
             String folderName = locationFolder.getFileName().toString().toUpperCase();
             Set<Integer> foundMjdSet = new HashSet<>();
             Map<String, Set<Integer>> sourceToMjdMap = new HashMap<>(); // Track MJDs by source
+            Set<String> changedSources = new HashSet<>(); // Sources whose availability rows actually changed
 
             List<Path> allFiles = Files.walk(locationFolder)
                     .filter(Files::isRegularFile)
@@ -79,7 +151,14 @@ public class IrnssDataService {
 
             System.out.println("Processing " + allFiles.size() + " files in folder: " + folderName);
 
+            boolean leaseLost = false;
             for (Path filePath : allFiles) {
+                // A long scan must not outlive the lease, or the next owner would ingest this folder alongside it
+                if (!clusterCoordinationService.tryAcquireLease(leaseName, ingestLeaseSeconds)) {
+                    System.err.println("Lost ingest lease for folder " + folderName + " - stopping scan");
+                    leaseLost = true;
+                    break;
+                }
                 try {
                     FileInfo fileInfo = extractSourceAndMJD(filePath.getFileName().toString());
                     if (fileInfo != null) {
@@ -98,10 +177,14 @@ public class IrnssDataService {
                         sourceToMjdMap.computeIfAbsent(fileInfo.source, k -> new HashSet<>()).add(fileInfo.mjd);
 
                         // Use source from filename, not folder name - Use upsert logic
-                      upsertFileAvailability(fileInfo.source, fileInfo.mjd, "AVAILABLE",
+                      // AVAILABLE, or LATE when created too long after its observation day ended
+                      String status = arrivalLatencyService.recordArrival(fileInfo.source, fileInfo.mjd, creationTime);
+                      if (upsertFileAvailability(fileInfo.source, fileInfo.mjd, status,
                         filePath.getFileName().toString(),
                         creationTime,
-                        LocalDateTime.now()); // <-- UPDATE THIS LINE
+                        LocalDateTime.now())) { // <-- UPDATE THIS LINE
+                        changedSources.add(fileInfo.source);
+                      }
 
                       processLiveFile(filePath, fileInfo.source, fileInfo.mjd);
                     }
@@ -114,19 +197,32 @@ public class IrnssDataService {
             // Missing file detection logic - check for each source found in files
           // Missing file detection logic - check for each source found in files
           int todayMjd = (int) ChronoUnit.DAYS.between(LocalDate.of(1858, 11, 17), LocalDate.now());
-          for (String source : sourceToMjdMap.keySet()) {
+          // After losing the lease the new owner scans the whole folder, including this check
+          for (String source : leaseLost ? Set.<String>of() : sourceToMjdMap.keySet()) {
             Set<Integer> sourceMjds = sourceToMjdMap.get(source);
             for (int i = todayMjd - 3; i <= todayMjd; i++) {
               if (!sourceMjds.contains(i)) {
                 Optional<FileAvailability> existing = fileAvailabilityRepository.findBySourceAndMjd(source, i);
                 if (existing.isEmpty()) {
                   // FIX: Pass null for creationTime and LocalDateTime.now() for the last checked time.
-                  upsertFileAvailability(source, i, "MISSING", null, null, LocalDateTime.now());
+                  if (upsertFileAvailability(source, i, "MISSING", null, null, LocalDateTime.now())) {
+                    changedSources.add(source);
+                  }
                 }
               }
             }
           }
 
+          // Only a changed status, file name or creation time is a new availability version; a scan that
+          // merely re-checked the files leaves ETags and the nodes' availability caches as they are
+          for (String source : changedSources) {
+            try {
+              dataVersionService.bump(DataVersionService.availabilityKey(source));
+            } catch (Exception e) {
+              System.err.println("Could not publish availability version for source " + source + ": " + e.getMessage());
+            }
+          }
+
         } catch (IOException e) {
             System.err.println("Error processing location folder " + locationFolder + ": " + e.getMessage());
             e.printStackTrace();
@@ -145,10 +241,12 @@ public class IrnssDataService {
                 lines = Files.readAllLines(filePath, StandardCharsets.ISO_8859_1);
             } catch (Exception e2) {
                 System.err.println("All encoding attempts failed for " + filePath.getFileName() + ": " + e2.getMessage());
+                recordIngestErrors(source, mjd, filePath, 0, 0, "Unreadable file: " + e2.getMessage());
                 return;
             }
         } catch (Exception e) {
             System.err.println("Error reading file " + filePath.getFileName() + ": " + e.getMessage());
+            recordIngestErrors(source, mjd, filePath, 0, 0, "Unreadable file: " + e.getMessage());
             return;
         }
 
@@ -167,6 +265,9 @@ public class IrnssDataService {
         int currentLine = lastProcessed;
         int insertedCount = 0;
         int skippedCount = 0;
+        String lastError = null;
+        Map<Integer, Integer> storedRowsByMjd = new HashMap<>();
+        Map<Integer, long[]> sessionSlotsByMjd = new HashMap<>();
 
         System.out.println("Processing file: " + filePath.getFileName());
 
@@ -176,8 +277,15 @@ public class IrnssDataService {
 
             String[] tokens = line.split("\\s+");
             if (tokens.length < 24) {
+                if (i == lines.size() - 1) {
+                    // The last line may still be being written: read it again next pass, without counting it
+                    break;
+                }
                 System.err.println("Line " + i + " has insufficient tokens (" + tokens.length + "): " + line);
+                lastError = "Line " + (i + 1) + ": insufficient tokens (" + tokens.length + ")";
                 skippedCount++;
+                // Past it for good, so later passes do not count it again
+                currentLine = i + 1;
                 continue;
             }
 
@@ -185,15 +293,23 @@ public class IrnssDataService {
                 IrnssData data = parseLineToIrnssData(tokens, source);
 
                 // Use deadlock-resistant save operation
-                saveIrnssDataSafely(data);
+                if (saveIrnssDataSafely(data)) {
+                    storedRowsByMjd.merge(data.getMjd(), 1, Integer::sum);
+                }
+                int slot = SessionSlots.slotOf(data.getSttime());
+                if (slot >= 0) {
+                    SessionSlots.set(sessionSlotsByMjd.computeIfAbsent(data.getMjd(), k -> new long[2]), slot);
+                }
                 insertedCount++;
 
             } catch (NumberFormatException e) {
                 System.err.println("Number format error on line " + i + " in " + filePath.getFileName() + ": " + e.getMessage());
+                lastError = "Line " + (i + 1) + ": number format error: " + e.getMessage();
                 skippedCount++;
             } catch (Exception e) {
                 System.err.println("Error parsing line " + i + " in " + filePath.getFileName() + ": " + line);
                 System.err.println("Error details: " + e.getMessage());
+                lastError = "Line " + (i + 1) + ": " + e.getMessage();
                 skippedCount++;
             }
 
@@ -204,10 +320,56 @@ public class IrnssDataService {
             processedFileRepository.save(new ProcessedFile(fileKey, currentLine));
         }
 
+        recordIngestErrors(source, mjd, filePath, insertedCount + skippedCount, skippedCount, lastError);
+
+        try {
+            mjdCatalogService.recordIngest(source, storedRowsByMjd);
+        } catch (Exception e) {
+            System.err.println("Could not update MJD catalogue for source " + source + ": " + e.getMessage());
+        }
+
+        try {
+            sessionRollupService.recordSessions(source, sessionSlotsByMjd);
+        } catch (Exception e) {
+            System.err.println("Could not update session rollup for source " + source + ": " + e.getMessage());
+        }
+
+        // insertedCount includes duplicates that were not stored; only days that actually got rows changed,
+        // and a file can carry rows of the neighbouring day besides the one in its name
+        if (!storedRowsByMjd.isEmpty()) {
+            // Let every node know this source has new raw data
+            try {
+                for (Integer changedMjd : storedRowsByMjd.keySet()) {
+                    deltaSyncService.recordChange(source, changedMjd);
+                }
+                dataVersionService.bump(DataVersionService.sourceKey(source));
+            } catch (Exception e) {
+                System.err.println("Could not publish data version for source " + source + ": " + e.getMessage());
+            }
+        }
+
         System.out.printf("Finished file: %s | Inserted: %d | Skipped: %d | Last Line: %d%n",
                 filePath.getFileName(), insertedCount, skippedCount, currentLine);
     }
 
+    /**
+     * Adds this pass to the file's ingest error record (shown in the statistics report's files-with-errors).
+     * A pass without problems only updates a file that already has a record.
+     */
+    private void recordIngestErrors(String source, int mjd, Path filePath, int linesRead, int linesSkipped, String lastError) {
+        String fileName = filePath.getFileName().toString();
+        try {
+            if (lastError != null) {
+                String message = lastError.length() > 1000 ? lastError.substring(0, 1000) : lastError;
+                ingestErrorRepository.recordPass(source, mjd, fileName, linesRead, linesSkipped, message);
+            } else if (linesRead > 0) {
+                ingestErrorRepository.recordCleanPass(source, mjd, fileName, linesRead);
+            }
+        } catch (Exception e) {
+            System.err.println("Could not record ingest errors for " + fileName + ": " + e.getMessage());
+        }
+    }
+
     private int parseSignedInt(String str) {
         if (str == null || str.isBlank() || str.equalsIgnoreCase("nan")) {
             return 0;
@@ -226,10 +388,11 @@ public class IrnssDataService {
     private IrnssData parseLineToIrnssData(String[] tokens, String source) {
         IrnssData data = new IrnssData();
 
-        // SAT ID handling: G01, R02, or numeric
-        String satToken = tokens[0];
+        // SAT ID handling: G01, R02, or numeric. Stored upper-case so the views' sat_letter
+        // can be filtered with a plain equality (see ViewQueryBuilder)
+        String satToken = tokens[0].toUpperCase(Locale.ROOT);
         data.setSat(satToken.matches("[A-Z]\\d{2}") ? Integer.parseInt(satToken.substring(1)) : Integer.parseInt(satToken));
-        data.setSatId(tokens[0]);
+        data.setSatId(satToken);
         data.setCl(tokens[1]);
         data.setMjd(Integer.parseInt(tokens[2]));
         data.setSttime(tokens[3]);
@@ -299,40 +462,45 @@ public class IrnssDataService {
 
     /**
      * Deadlock-resistant save method for IrnssData
+     * @return true if a new row was stored
      */
-    private void saveIrnssDataSafely(IrnssData data) {
+    private boolean saveIrnssDataSafely(IrnssData data) {
         try {
             // Check if record exists first (faster than catching exceptions)
             if (!irnssDataRepository.existsBySatAndMjdAndSttimeAndSource(
                     data.getSat(), data.getMjd(), data.getSttime(), data.getSource())) {
                 irnssDataRepository.save(data);
+                return true;
             }
+            return false;
         } catch (Exception e) {
             String errorMessage = e.getMessage().toLowerCase();
 
             // If it's a constraint violation (duplicate), that's expected - silently ignore
             if (errorMessage.contains("duplicate") || errorMessage.contains("unique constraint")) {
                 // This is fine - record already exists
-                return;
+                return false;
             }
 
             // If it's a deadlock, log it but don't fail the entire process
             if (errorMessage.contains("deadlock") || errorMessage.contains("could not serialize access")) {
                 System.err.println("Deadlock in IrnssData save for sat: " + data.getSat() + ", mjd: " + data.getMjd() + ", sttime: " + data.getSttime());
-                return;
+                return false;
             }
 
             // For other errors, log and continue
             System.err.println("Error saving IrnssData: " + e.getMessage());
+            return false;
         }
     }
 
     /**
      * Deadlock-resistant upsert method using PostgreSQL native ON CONFLICT
      * This prevents deadlocks by using a single atomic operation
+     * @return whether the row was inserted or its status, file name or creation time changed
      */
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    private void upsertFileAvailability(String source, int mjd, String status, String fileName, LocalDateTime fileCreationTime, LocalDateTime lastCheckedTimestamp) {
+    private boolean upsertFileAvailability(String source, int mjd, String status, String fileName, LocalDateTime fileCreationTime, LocalDateTime lastCheckedTimestamp) {
 
       int maxRetries = 3;
         int retryCount = 0;
@@ -340,12 +508,13 @@ public class IrnssDataService {
         while (retryCount < maxRetries) {
             try {
                 // Use PostgreSQL native UPSERT with ON CONFLICT - atomic operation prevents deadlocks
-              fileAvailabilityRepository.upsertFileAvailability(
+              boolean changed = fileAvailabilityRepository.upsertFileAvailability(
                 source, mjd, status, fileName,
                 fileCreationTime,
                 lastCheckedTimestamp
               );
-              return; // Success, exit retry loop
+              availabilityMatrixService.record(source, mjd, status);
+              return changed; // Success, exit retry loop
 
             } catch (Exception e) {
                 String errorMessage = e.getMessage().toLowerCase();
@@ -357,7 +526,7 @@ public class IrnssDataService {
 
                     if (retryCount >= maxRetries) {
                         System.err.println("Max retries reached for file availability upsert: " + source + ", mjd: " + mjd);
-                        return; // Give up after max retries
+                        return false; // Give up after max retries
                     }
 
                     // Exponential backoff with jitter to reduce collision probability
@@ -366,23 +535,28 @@ public class IrnssDataService {
                         Thread.sleep(delayMs);
                     } catch (InterruptedException ie) {
                         Thread.currentThread().interrupt();
-                        return;
+                        return false;
                     }
 
                 } else {
                     // Non-deadlock error, log and exit
                     System.err.println("Error in file availability upsert for source: " + source + ", mjd: " + mjd + " - " + e.getMessage());
-                    return;
+                    return false;
                 }
             }
         }
+        return false;
     }
 
-    public List<SourceSessionStatusDTO> getSessionCompleteness(String source, String mjd, Integer currentSessionCount, Integer expectedSessionCount) {
-        return irnssDataRepository.findSessionCountsByFilters(source, mjd, currentSessionCount, expectedSessionCount);
+    /**
+     * Reads the session rollup; see {@link SessionRollupService#getSessionCompleteness}.
+     */
+    public List<SourceSessionStatusDTO> getSessionCompleteness(String source, Integer mjd, Integer currentSessionCount,
+                                                               Integer expectedSessionCount, Integer maxCompletenessPercent) {
+        return sessionRollupService.getSessionCompleteness(source, mjd, currentSessionCount, expectedSessionCount, maxCompletenessPercent);
     }
 
-    public List<SourceSessionStatusDTO> getSessionCompleteness(String mjd) {
-        return irnssDataRepository.findSessionCountsByMjd(mjd);
+    public List<SourceSessionStatusDTO> getSessionCompleteness(Integer mjd) {
+        return sessionRollupService.getSessionCompleteness(null, mjd, null, null, null);
     }
 }
@@ -0,0 +1,412 @@
+package com.time.tracealibility.services;
+
+import com.time.tracealibility.dto.FileStatusDTO;
+import com.time.tracealibility.entity.FileAvailability;
+import com.time.tracealibility.entity.SatCommonViewDifference;
+import com.time.tracealibility.events.DataVersionChangedEvent;
+import com.time.tracealibility.repository.FileAvailabilityRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes new results to Server-Sent Events subscribers instead of having every dashboard poll.
+ *
+ * Three event types are sent, each only to subscribers whose source (and satellite letter) filter matches:
+ * <ul>
+ *   <li>{@code differences}: common-view rows of the (source, mjd) days that received data since the previous
+ *   refresh, in batches. The event id is the view's delta sync cursor, usable as {@code since} on the
+ *   keyset endpoints to catch up after a disconnect. A changed day is sent in full, so clients dedupe by id.</li>
+ *   <li>{@code ingest}: a source committed new raw data (its results follow with the next refresh).</li>
+ *   <li>{@code availability}: file availability rows whose status or file changed.</li>
+ * </ul>
+ *
+ * Events are computed once on a single publisher thread and then queued per subscriber. Each queue holds at
+ * most {@code app.live-feed.buffer-size} events and drops the oldest when full, after which the subscriber
+ * gets an {@code overflow} event telling it to resync; a subscriber that overflows more than
+ * {@code app.live-feed.max-overflows} times is disconnected and has to reconnect and catch up with {@code since}.
+ *
+ * Sending happens on a small shared pool with at most one task per subscriber. A send blocks while the client
+ * is not reading, so a stalled client holds one sender thread: each heartbeat disconnects subscribers whose
+ * current send has run longer than {@code app.live-feed.send-timeout-ms}, which fails the blocked write and
+ * frees the thread. Until then other subscribers share the remaining threads, so stalled clients can delay
+ * them by at most the send timeout plus one heartbeat interval.
+ */
+@Service
+public class LiveFeedService {
+
+  private static final Logger logger = LoggerFactory.getLogger(LiveFeedService.class);
+
+  private static final String COMMON_VIEW = "sat_common_view_difference_materialized";
+  private static final LocalDate MJD_EPOCH = LocalDate.of(1858, 11, 17);
+
+  @Autowired
+  private SatDataStreamingService satDataStreamingService;
+
+  @Autowired
+  private DeltaSyncService deltaSyncService;
+
+  @Autowired
+  private FileAvailabilityRepository fileAvailabilityRepository;
+
+  @Value("${app.live-feed.enabled:true}")
+  private boolean enabled;
+
+  @Value("${app.live-feed.max-subscribers:200}")
+  private int maxSubscribers;
+
+  @Value("${app.live-feed.buffer-size:256}")
+  private int bufferSize;
+
+  @Value("${app.live-feed.batch-size:500}")
+  private int batchSize;
+
+  @Value("${app.live-feed.timeout-ms:1800000}")
+  private long timeoutMs;
+
+  @Value("${app.live-feed.send-timeout-ms:10000}")
+  private long sendTimeoutMs;
+
+  @Value("${app.live-feed.max-overflows:5}")
+  private int maxOverflows;
+
+  @Value("${app.live-feed.availability-days:7}")
+  private int availabilityDays;
+
+  private final ExecutorService publisher = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "live-feed-publisher");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private final ExecutorService senders = Executors.newFixedThreadPool(4, new ThreadFactory() {
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "live-feed-sender-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  });
+
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final AtomicBoolean differencesQueued = new AtomicBoolean();
+  private final AtomicLong eventsSent = new AtomicLong();
+  private final AtomicLong eventsDropped = new AtomicLong();
+  private final AtomicLong subscribersDisconnected = new AtomicLong();
+
+  // Only touched on the publisher thread
+  private Long lastPushedChangeSeq;
+  private final Map<String, String> availabilityState = new HashMap<>();
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    if (enabled) {
+      publisher.execute(this::loadBaseline);
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onDataVersionChanged(DataVersionChangedEvent event) {
+    if (!enabled) {
+      return;
+    }
+    if (event.isViewChange() && COMMON_VIEW.equals(event.getSubject())) {
+      // Refreshes can arrive in bursts; one pass picks up everything up to the latest watermark
+      if (differencesQueued.compareAndSet(false, true)) {
+        publisher.execute(() -> {
+          differencesQueued.set(false);
+          run("differences", this::publishDifferences);
+        });
+      }
+    } else if (event.isSourceChange()) {
+      String source = event.getSubject();
+      Map<String, Object> payload = new LinkedHashMap<>();
+      payload.put("source", source);
+      payload.put("version", event.getVersion());
+      publisher.execute(() -> broadcast(subscriber -> subscriber.matchesSource(source),
+        "ingest", null, payload));
+    } else if (event.isAvailabilityChange()) {
+      String source = event.getSubject();
+      publisher.execute(() -> run("availability", () -> publishAvailability(source)));
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    publisher.shutdownNow();
+    senders.shutdownNow();
+    subscribers.forEach(subscriber -> subscriber.emitter.complete());
+  }
+
+  /**
+   * Registers a new subscriber, or returns null when the subscriber limit is reached.
+   * @param sources source names matched against source1 or source2; null or empty for all
+   * @param satLetter satellite letter filter for difference rows; null for all
+   */
+  public SseEmitter subscribe(List<String> sources, String satLetter) {
+    if (!enabled || subscribers.size() >= maxSubscribers) {
+      return null;
+    }
+    SseEmitter emitter = new SseEmitter(timeoutMs);
+    Subscriber subscriber = new Subscriber(emitter, sources, satLetter);
+    emitter.onCompletion(() -> subscribers.remove(subscriber));
+    emitter.onTimeout(() -> subscribers.remove(subscriber));
+    emitter.onError(error -> subscribers.remove(subscriber));
+    subscribers.add(subscriber);
+    subscriber.offer(SseEmitter.event().comment("subscribed"));
+    logger.info("📡 Live feed subscriber added ({} active)", subscribers.size());
+    return emitter;
+  }
+
+  /**
+   * Keeps idle connections open through proxies, notices clients that went away and disconnects clients
+   * whose current send is past the send timeout.
+   */
+  @Scheduled(fixedDelayString = "${app.live-feed.heartbeat-ms:30000}")
+  public void heartbeat() {
+    long now = System.currentTimeMillis();
+    subscribers.forEach(subscriber -> {
+      long sendStartedAt = subscriber.sendStartedAt;
+      if (sendStartedAt != 0 && now - sendStartedAt > sendTimeoutMs) {
+        subscriber.disconnect("send blocked for " + (now - sendStartedAt) + " ms");
+      } else {
+        subscriber.offer(SseEmitter.event().comment("heartbeat"));
+      }
+    });
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("enabled", enabled);
+    stats.put("subscribers", subscribers.size());
+    stats.put("maxSubscribers", maxSubscribers);
+    stats.put("bufferSize", bufferSize);
+    stats.put("eventsSent", eventsSent.get());
+    stats.put("eventsDropped", eventsDropped.get());
+    stats.put("subscribersDisconnected", subscribersDisconnected.get());
+    return stats;
+  }
+
+  private void run(String what, Runnable task) {
+    try {
+      task.run();
+    } catch (Exception e) {
+      logger.error("❌ Live feed {} publish failed: {}", what, e.getMessage(), e);
+    }
+  }
+
+  private void loadBaseline() {
+    run("baseline", () -> {
+      lastPushedChangeSeq = deltaSyncService.getWatermark(COMMON_VIEW);
+      int fromMjd = todayMjd() - availabilityDays;
+      for (FileAvailability availability : fileAvailabilityRepository.findByMjdBetween(fromMjd, Integer.MAX_VALUE)) {
+        availabilityState.put(availabilityKey(availability), availabilityState(availability));
+      }
+    });
+  }
+
+  private void publishDifferences() {
+    Long watermark = deltaSyncService.getWatermark(COMMON_VIEW);
+    if (watermark == null) {
+      return;
+    }
+    Long since = lastPushedChangeSeq;
+    lastPushedChangeSeq = watermark;
+    if (since == null || watermark <= since || subscribers.isEmpty()) {
+      return;
+    }
+    String cursor = "d" + watermark;
+    Map<Subscriber, List<SatCommonViewDifference>> batches = new HashMap<>();
+    long[] rows = new long[1];
+    satDataStreamingService.forEachChangedCommonRow(since, row -> {
+      rows[0]++;
+      for (Subscriber subscriber : subscribers) {
+        if (subscriber.matches(row)) {
+          List<SatCommonViewDifference> batch = batches.computeIfAbsent(subscriber, key -> new ArrayList<>());
+          batch.add(row);
+          if (batch.size() >= batchSize) {
+            subscriber.offer(event("differences", cursor, batches.remove(subscriber)));
+          }
+        }
+      }
+    });
+    batches.forEach((subscriber, batch) -> subscriber.offer(event("differences", cursor, batch)));
+    logger.info("📡 Live feed pushed {} changed common-view rows since change {} to {} subscribers",
+      rows[0], since, subscribers.size());
+  }
+
+  private void publishAvailability(String source) {
+    int fromMjd = todayMjd() - availabilityDays;
+    List<FileStatusDTO> changed = new ArrayList<>();
+    for (FileAvailability availability : fileAvailabilityRepository.findBySourceInAndMjdBetween(
+      List.of(source), fromMjd, Integer.MAX_VALUE)) {
+      String state = availabilityState(availability);
+      if (!state.equals(availabilityState.put(availabilityKey(availability), state))) {
+        changed.add(new FileStatusDTO(availability.getSource(), availability.getMjd(), availability.getStatus(),
+          availability.getFileName(), availability.getLastCheckedTimestamp(), availability.getFileCreationTime()));
+      }
+    }
+    // Keep the state map to the same window the queries cover
+    availabilityState.keySet().removeIf(key -> Integer.parseInt(key.substring(key.lastIndexOf('|') + 1)) < fromMjd);
+    if (!changed.isEmpty()) {
+      broadcast(subscriber -> subscriber.matchesSource(source), "availability", null, changed);
+    }
+  }
+
+  // Each subscriber gets its own builder: build() mutates the builder, and sender threads send concurrently
+  private void broadcast(Predicate<Subscriber> filter, String name, String id, Object data) {
+    subscribers.stream().filter(filter).forEach(subscriber -> subscriber.offer(event(name, id, data)));
+  }
+
+  private static SseEmitter.SseEventBuilder event(String name, String id, Object data) {
+    SseEmitter.SseEventBuilder event = SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON);
+    return id != null ? event.id(id) : event;
+  }
+
+  private static String availabilityKey(FileAvailability availability) {
+    return availability.getSource() + "|" + availability.getMjd();
+  }
+
+  private static String availabilityState(FileAvailability availability) {
+    return availability.getStatus() + "|" + availability.getFileName() + "|" + availability.getFileCreationTime();
+  }
+
+  private static int todayMjd() {
+    return (int) ChronoUnit.DAYS.between(MJD_EPOCH, LocalDate.now());
+  }
+
+  private final class Subscriber {
+    private final SseEmitter emitter;
+    private final Set<String> sources;
+    private final String satLetter;
+    private final ArrayDeque<SseEmitter.SseEventBuilder> queue = new ArrayDeque<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private long droppedSinceLastSend;
+    private int overflows;
+    // Start of the send in progress, 0 when none; read by the heartbeat
+    private volatile long sendStartedAt;
+
+    private Subscriber(SseEmitter emitter, List<String> sources, String satLetter) {
+      this.emitter = emitter;
+      this.sources = sources == null ? Set.of() : sources.stream()
+        .filter(Objects::nonNull).map(String::toUpperCase).collect(Collectors.toSet());
+      this.satLetter = satLetter == null || satLetter.equalsIgnoreCase("ALL") ? null : satLetter;
+    }
+
+    private boolean matchesSource(String source) {
+      return sources.isEmpty() || (source != null && sources.contains(source.toUpperCase()));
+    }
+
+    private boolean matches(SatCommonViewDifference row) {
+      return (sources.isEmpty() || matchesSource(row.getSource1()) || matchesSource(row.getSource2()))
+        && (satLetter == null || satLetter.equalsIgnoreCase(row.getSatLetter()));
+    }
+
+    private void offer(SseEmitter.SseEventBuilder event) {
+      boolean overflowing = false;
+      synchronized (queue) {
+        if (queue.size() >= bufferSize) {
+          queue.pollFirst();
+          if (droppedSinceLastSend++ == 0) {
+            overflowing = ++overflows > maxOverflows;
+          }
+          eventsDropped.incrementAndGet();
+        }
+        queue.addLast(event);
+      }
+      if (overflowing) {
+        disconnect("overflowed " + overflows + " times");
+        return;
+      }
+      if (draining.compareAndSet(false, true)) {
+        senders.execute(this::drain);
+      }
+    }
+
+    private void drain() {
+      try {
+        while (true) {
+          SseEmitter.SseEventBuilder event;
+          long dropped;
+          synchronized (queue) {
+            event = queue.pollFirst();
+            dropped = droppedSinceLastSend;
+            droppedSinceLastSend = 0;
+          }
+          if (dropped > 0) {
+            send(event("overflow", null, Map.of("dropped", dropped)));
+          }
+          if (event == null) {
+            break;
+          }
+          send(event);
+          eventsSent.incrementAndGet();
+        }
+      } catch (Exception e) {
+        // Client went away; the emitter callbacks may not fire until the container notices
+        subscribers.remove(this);
+        emitter.completeWithError(e);
+        return;
+      } finally {
+        draining.set(false);
+      }
+      // An event offered after the last poll but before the flag was cleared must not be stranded
+      boolean pending;
+      synchronized (queue) {
+        pending = !queue.isEmpty();
+      }
+      if (pending && draining.compareAndSet(false, true)) {
+        senders.execute(this::drain);
+      }
+    }
+
+    private void send(SseEmitter.SseEventBuilder event) throws IOException {
+      sendStartedAt = System.currentTimeMillis();
+      try {
+        emitter.send(event);
+      } finally {
+        sendStartedAt = 0;
+      }
+    }
+
+    // Completing with an error makes the container close the connection, which also fails a blocked send
+    private void disconnect(String reason) {
+      if (subscribers.remove(this)) {
+        subscribersDisconnected.incrementAndGet();
+        logger.warn("⚠️ Live feed subscriber disconnected: {} ({} active)", reason, subscribers.size());
+        emitter.completeWithError(new IOException("Live feed subscriber too slow: " + reason));
+      }
+    }
+  }
+}
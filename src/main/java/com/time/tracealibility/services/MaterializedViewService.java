@@ -15,6 +15,12 @@ public class MaterializedViewService {
   @Autowired
   private JdbcTemplate jdbcTemplate;
 
+  @Autowired
+  private DataVersionService dataVersionService;
+
+  @Autowired
+  private DeltaSyncService deltaSyncService;
+
   /**
    * Refreshes a single materialized view and analyzes it within a transaction.
    * @param viewName The name of the materialized view to refresh.
@@ -31,14 +37,21 @@ public class MaterializedViewService {
       throw new IllegalStateException(errorMessage);
     }
 
-    // 2. Refresh the materialized view concurrently
+    // 2. Refresh the materialized view concurrently. Every ingest change committed before this point is included,
+    //    which makes it the view's delta-sync watermark
+    long watermark = deltaSyncService.currentChangeSeq();
     logger.debug("Executing REFRESH for {}", viewName);
     jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY " + viewName);
+    deltaSyncService.saveWatermark(viewName, watermark);
 
     // 3. Update statistics for optimal query planning
     logger.debug("Executing ANALYZE for {}", viewName);
     jdbcTemplate.execute("ANALYZE " + viewName);
 
+    // 4. Publish the new view version; NOTIFY is delivered to other nodes when this transaction commits
+    long version = dataVersionService.bump(DataVersionService.viewKey(viewName));
+    logger.debug("View {} is now at data version {}", viewName, version);
+
     logger.info("✅ Successfully refreshed and analyzed view: {}", viewName);
   }
 
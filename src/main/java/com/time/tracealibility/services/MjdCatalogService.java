@@ -0,0 +1,213 @@
+package com.time.tracealibility.services;
+
+import com.time.tracealibility.events.DataVersionChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Which MJDs exist in irnss_data, per source and with row counts, without reading irnss_data.
+ *
+ * Ingest adds the rows it stored to the mjd_catalog table and to this node's copy. Other nodes reload the
+ * changed source's entries when its data version moves, which is a lookup of one row per day. Reads are
+ * served from immutable snapshots (a sorted map per source and the pre-rendered list of all days), so
+ * they never lock or allocate beyond the response.
+ */
+@Service
+public class MjdCatalogService {
+
+  private static final Logger logger = LoggerFactory.getLogger(MjdCatalogService.class);
+
+  private static final String UPSERT_SQL = """
+      INSERT INTO mjd_catalog (source, mjd, row_count, updated_at)
+      VALUES (?, ?, ?, now())
+      ON CONFLICT (source, mjd) DO UPDATE SET
+          row_count = mjd_catalog.row_count + EXCLUDED.row_count,
+          updated_at = EXCLUDED.updated_at
+      """;
+
+  // One-off: fills the catalogue from existing data the first time it runs against an empty table
+  private static final String BACKFILL_SQL = """
+      INSERT INTO mjd_catalog (source, mjd, row_count, updated_at)
+      SELECT source, mjd, count(*), now() FROM irnss_data GROUP BY source, mjd
+      ON CONFLICT (source, mjd) DO NOTHING
+      """;
+
+  // Held while backfilling so only one node scans irnss_data into the catalogue
+  private static final String BACKFILL_LEASE = "mjd-catalog-backfill";
+  private static final int BACKFILL_LEASE_SECONDS = 3600;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private ClusterCoordinationService clusterCoordinationService;
+
+  private volatile Map<String, NavigableMap<Integer, Long>> bySource = Map.of();
+  private volatile List<String> allMjds = List.of();
+  private volatile boolean catalogLoaded;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    reload();
+  }
+
+  private boolean reload() {
+    try {
+      Map<String, NavigableMap<Integer, Long>> loaded = new HashMap<>();
+      jdbcTemplate.query("SELECT source, mjd, row_count FROM mjd_catalog", rs -> {
+        loaded.computeIfAbsent(rs.getString("source"), source -> new TreeMap<>())
+          .put(rs.getInt("mjd"), rs.getLong("row_count"));
+      });
+      synchronized (this) {
+        // Entries ingested while the query ran are already in the table, so the loaded copy is complete
+        loaded.replaceAll((source, mjds) -> Collections.unmodifiableNavigableMap(mjds));
+        publish(loaded);
+        catalogLoaded = true;
+      }
+      logger.info("📚 MJD catalogue loaded: {} sources, {} days", loaded.size(), allMjds.size());
+      return true;
+    } catch (Exception e) {
+      logger.error("❌ Could not load MJD catalogue: {}", e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Fills an empty catalogue from irnss_data, under a cluster lease. Called by ingest before it first records
+   * rows, so rows it adds are never mistaken for a populated catalogue; ingest must not record rows until
+   * this succeeded, or its counts race with the backfill's.
+   * @return true when the catalogue is populated (or irnss_data is empty) and loaded on this node; false when
+   *         the backfill or load failed or another node is backfilling, in which case the caller retries later
+   */
+  public boolean backfillIfEmpty() {
+    boolean leased = false;
+    try {
+      if (!isEmpty()) {
+        return catalogLoaded || reload();
+      }
+      if (!clusterCoordinationService.tryAcquireLease(BACKFILL_LEASE, BACKFILL_LEASE_SECONDS)) {
+        logger.info("📚 MJD catalogue backfill is running on another node");
+        return false;
+      }
+      leased = true;
+      // Another node may have finished between the first check and taking the lease
+      if (isEmpty()) {
+        long start = System.currentTimeMillis();
+        int rows = jdbcTemplate.update(BACKFILL_SQL);
+        logger.info("📚 Backfilled MJD catalogue with {} (source, mjd) entries in {} ms", rows,
+          System.currentTimeMillis() - start);
+      }
+      return reload();
+    } catch (Exception e) {
+      logger.error("❌ Could not backfill MJD catalogue: {}", e.getMessage());
+      return false;
+    } finally {
+      if (leased) {
+        clusterCoordinationService.releaseLease(BACKFILL_LEASE);
+      }
+    }
+  }
+
+  private boolean isEmpty() {
+    return Boolean.TRUE.equals(
+      jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM mjd_catalog)", Boolean.class));
+  }
+
+  /**
+   * Adds newly stored raw rows to the catalogue.
+   * @param rowsByMjd rows inserted per MJD for {@code source}
+   */
+  public void recordIngest(String source, Map<Integer, Integer> rowsByMjd) {
+    if (rowsByMjd.isEmpty()) {
+      return;
+    }
+    List<Object[]> batch = new ArrayList<>(rowsByMjd.size());
+    rowsByMjd.forEach((mjd, rows) -> batch.add(new Object[]{source, mjd, rows}));
+    jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+
+    synchronized (this) {
+      NavigableMap<Integer, Long> mjds = new TreeMap<>(bySource.getOrDefault(source, Collections.emptyNavigableMap()));
+      rowsByMjd.forEach((mjd, rows) -> mjds.merge(mjd, rows.longValue(), Long::sum));
+      replaceSource(source, mjds);
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onDataVersionChanged(DataVersionChangedEvent event) {
+    if (!event.isSourceChange()) {
+      return;
+    }
+    String source = event.getSubject();
+    try {
+      NavigableMap<Integer, Long> mjds = new TreeMap<>();
+      jdbcTemplate.query("SELECT mjd, row_count FROM mjd_catalog WHERE source = ?",
+        rs -> {
+          mjds.put(rs.getInt("mjd"), rs.getLong("row_count"));
+        }, source);
+      synchronized (this) {
+        replaceSource(source, mjds);
+      }
+    } catch (Exception e) {
+      logger.warn("⚠️ Could not reload MJD catalogue for {}: {}", source, e.getMessage());
+    }
+  }
+
+  /**
+   * Every MJD with data from any source, ascending.
+   */
+  public List<String> getAvailableMjds() {
+    return allMjds;
+  }
+
+  /**
+   * MJDs with data from {@code source}, ascending; empty for an unknown source.
+   */
+  public List<String> getAvailableMjds(String source) {
+    NavigableMap<Integer, Long> mjds = bySource.get(source);
+    if (mjds == null) {
+      return List.of();
+    }
+    List<String> result = new ArrayList<>(mjds.size());
+    for (Integer mjd : mjds.keySet()) {
+      result.add(String.valueOf(mjd));
+    }
+    return result;
+  }
+
+  /**
+   * Raw row count per source and MJD.
+   */
+  public Map<String, NavigableMap<Integer, Long>> getRowCounts() {
+    return bySource;
+  }
+
+  private void replaceSource(String source, NavigableMap<Integer, Long> mjds) {
+    Map<String, NavigableMap<Integer, Long>> next = new HashMap<>(bySource);
+    next.put(source, Collections.unmodifiableNavigableMap(mjds));
+    publish(next);
+  }
+
+  private void publish(Map<String, NavigableMap<Integer, Long>> next) {
+    TreeSet<Integer> union = new TreeSet<>();
+    next.values().forEach(mjds -> union.addAll(mjds.keySet()));
+    List<String> rendered = new ArrayList<>(union.size());
+    union.forEach(mjd -> rendered.add(String.valueOf(mjd)));
+    bySource = Collections.unmodifiableMap(next);
+    allMjds = Collections.unmodifiableList(rendered);
+  }
+}
@@ -0,0 +1,123 @@
+package com.time.tracealibility.services;
+
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * Subscribes to the data event channel with PostgreSQL {@code LISTEN} on a dedicated connection and
+ * feeds every received version into {@link DataVersionService}.
+ *
+ * Payloads have the form {@code key|version|originNode}. On (re)connect all versions are resynced from
+ * the table, because notifications sent while the connection was down are not replayed by PostgreSQL.
+ */
+@Component
+public class PgNotificationListener {
+
+  private static final Logger logger = LoggerFactory.getLogger(PgNotificationListener.class);
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Autowired
+  private DataVersionService dataVersionService;
+
+  @Value("${app.events.enabled:true}")
+  private boolean enabled;
+
+  @Value("${app.events.poll-timeout-ms:5000}")
+  private int pollTimeoutMs;
+
+  @Value("${app.events.reconnect-delay-ms:5000}")
+  private long reconnectDelayMs;
+
+  private volatile boolean running;
+  private Thread listenerThread;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!enabled || running) {
+      return;
+    }
+    running = true;
+    listenerThread = new Thread(this::listenLoop, "pg-notification-listener");
+    listenerThread.setDaemon(true);
+    listenerThread.start();
+    logger.info("📡 Listening for data events on channel '{}'", dataVersionService.getChannel());
+  }
+
+  @PreDestroy
+  public void stop() {
+    running = false;
+    if (listenerThread != null) {
+      listenerThread.interrupt();
+    }
+  }
+
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void listenLoop() {
+    while (running) {
+      try (Connection connection = dataSource.getConnection()) {
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+          // Channel name is configuration, not user input; quote it as an identifier anyway
+          statement.execute("LISTEN \"" + dataVersionService.getChannel().replace("\"", "") + "\"");
+        }
+        dataVersionService.resync();
+
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+          PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+          if (notifications == null) {
+            continue;
+          }
+          for (PGNotification notification : notifications) {
+            handle(notification.getParameter());
+          }
+        }
+      } catch (Exception e) {
+        if (!running) {
+          break;
+        }
+        logger.error("❌ Data event listener disconnected: {}. Reconnecting in {} ms", e.getMessage(), reconnectDelayMs);
+        try {
+          Thread.sleep(reconnectDelayMs);
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+    }
+  }
+
+  private void handle(String payload) {
+    if (payload == null) {
+      return;
+    }
+    String[] parts = payload.split("\\|");
+    if (parts.length < 2) {
+      logger.warn("Ignoring malformed data event payload: {}", payload);
+      return;
+    }
+    try {
+      long version = Long.parseLong(parts[1]);
+      dataVersionService.advance(parts[0], version, parts.length > 2 ? parts[2] : "unknown");
+    } catch (NumberFormatException e) {
+      logger.warn("Ignoring data event with invalid version: {}", payload);
+    }
+  }
+}
@@ -1,20 +1,41 @@
 package com.time.tracealibility.services;
 
+import com.time.tracealibility.dto.ArrivalLatencyDTO;
 import com.time.tracealibility.dto.FileUploadStatsDTO;
 import com.time.tracealibility.repository.SatCommonViewDifferenceRepository;
 import com.time.tracealibility.repository.ProcessedFileRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
  * Service to generate file upload statistics from REAL data in the database
  * Uses actual satellite data records to infer file upload patterns
+ *
+ * A report is one grouped query for its date range plus the recent-uploads query, run side by side on a small
+ * bounded pool and abandoned after {@code app.statistics.report-timeout-ms}. Both read the per-(source, day)
+ * {@link StatisticsRollupService} rollup, so ranges are whole days; until the rollup is first built they scan
+ * the view instead. The missing-file and files-with-errors sections are read from file_availability and
+ * ingest_error with indexed MJD-range queries alongside.
  */
 @Service
 public class RealFileUploadStatisticsService {
@@ -28,47 +49,305 @@ public class RealFileUploadStatisticsService {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private StatisticsRollupService statisticsRollupService;
+
+    @Autowired
+    private ArrivalLatencyService arrivalLatencyService;
+
+    @Value("${app.statistics.report-threads:4}")
+    private int reportThreads;
+
+    @Value("${app.statistics.report-queue:16}")
+    private int reportQueue;
+
+    @Value("${app.statistics.report-timeout-ms:30000}")
+    private long reportTimeoutMs;
+
+    @Value("${app.statistics.jobs.timeout-ms:600000}")
+    private long jobTimeoutMs;
+
+    // GROUPING(upload_date, source2, hour) of each grouping set; a set bit means "not grouped by"
+    private static final int GROUPED_BY_DAY = 0b011;
+    private static final int GROUPED_BY_SOURCE = 0b101;
+    private static final int GROUPED_BY_HOUR = 0b110;
+
+    private static final LocalDate MJD_EPOCH = LocalDate.of(1858, 11, 17);
+
+    // Longest missing-file and error-file lists in one report, newest MJDs first
+    private static final int MAX_LISTED_FILES = 500;
+
+    // Source codes with a display name, for resolving /location/{name} back to source2 values
+    private static final List<String> KNOWN_SOURCES = List.of(
+        "GZLI2P", "IRNPLI", "GZLMB1", "GZLMB2", "GZLMF1", "GZLMF2", "GZLMA2", "GZLGG1", "GZLGB1", "IRLMB1", "IRLMB2");
+
+    private JdbcTemplate reportJdbcTemplate;
+    private JdbcTemplate jobJdbcTemplate;
+    private ExecutorService reportExecutor;
+
+    @PostConstruct
+    public void init() {
+        // Statements also time out in the database, so a cancelled report does not keep scanning
+        reportJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        reportJdbcTemplate.setQueryTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(reportTimeoutMs)));
+        jobJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        jobJdbcTemplate.setQueryTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(jobTimeoutMs)));
+
+        AtomicInteger threadCount = new AtomicInteger();
+        reportExecutor = new ThreadPoolExecutor(reportThreads, reportThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(reportQueue), runnable -> {
+                Thread thread = new Thread(runnable, "stats-report-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reportExecutor.shutdownNow();
+    }
+
+  /**
+   * Builds the report for the given range. Identical concurrent requests share one build.
+   */
   public FileUploadStatsDTO generateFileUploadReport(LocalDateTime startDate, LocalDateTime endDate) {
-    FileUploadStatsDTO report = new FileUploadStatsDTO();
+    return requestCoalescer.execute("fileUploadReport", Arrays.asList(startDate, endDate),
+      () -> buildFileUploadReport(startDate, endDate, null, null));
+  }
+
+  /**
+   * Report for the last {@code days} days up to now. The range is taken when the build starts, so dashboards
+   * opened together (whose "now" differs by milliseconds) still share one build.
+   */
+  public FileUploadStatsDTO generateRecentFileUploadReport(int days) {
+    return requestCoalescer.execute("fileUploadReport", "last-" + days + "-days", () -> {
+      LocalDateTime endDate = LocalDateTime.now();
+      return buildFileUploadReport(endDate.minusDays(days), endDate, null, null);
+    });
+  }
+
+  /**
+   * Report of the last 30 days for one location, given as a source2 code or its display name (e.g. BLR_TS1).
+   */
+  public FileUploadStatsDTO getLocationStats(String location) {
+    List<String> sources = resolveSources(location);
+    return requestCoalescer.execute("fileUploadReport", "location-" + sources, () -> {
+      LocalDateTime endDate = LocalDateTime.now();
+      return buildFileUploadReport(endDate.minusDays(30), endDate, sources, null);
+    });
+  }
+
+  /**
+   * Report of the files of one MJD.
+   */
+  public FileUploadStatsDTO getMjdStats(Integer mjd) {
+    LocalDate day = MJD_EPOCH.plusDays(mjd);
+    return requestCoalescer.execute("fileUploadReport", "mjd-" + mjd,
+      () -> buildFileUploadReport(day.atStartOfDay(), day.atTime(LocalTime.MAX), null, mjd));
+  }
+
+  /**
+   * Source2 codes a location refers to: the code itself, or every known code with that display name.
+   */
+  private List<String> resolveSources(String location) {
+    List<String> sources = KNOWN_SOURCES.stream()
+      .filter(code -> getLocationNameFromSource(code).equalsIgnoreCase(location))
+      .collect(Collectors.toList());
+    return sources.isEmpty() ? List.of(location.toUpperCase()) : sources;
+  }
+
+  /**
+   * Builds the report on the calling thread, for {@link ReportJobService}: the sections run one after the other
+   * instead of on the interactive pool, and view statements are bounded by {@code app.statistics.jobs.timeout-ms}.
+   */
+  public FileUploadStatsDTO buildFileUploadReportForJob(LocalDateTime startDate, LocalDateTime endDate) {
+    boolean fromRollup = statisticsRollupService.isReady();
+    List<Map<String, Object>> rows = queryAggregates(fromRollup, jobJdbcTemplate, startDate, endDate, null, null);
+    List<FileUploadStatsDTO.RecentFileUpload> recent =
+      generateRealRecentUploads(queryRecent(fromRollup, jobJdbcTemplate, null, null));
+    FileProblems problems = queryFileProblems(jobJdbcTemplate, startDate, endDate, null, null);
+    return assembleReport(startDate, endDate, rows, recent, problems);
+  }
+
+  private FileUploadStatsDTO buildFileUploadReport(LocalDateTime startDate, LocalDateTime endDate,
+                                                   List<String> source2, Integer mjd) {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(reportTimeoutMs);
+    Future<List<Map<String, Object>>> aggregates = null;
+    Future<List<FileUploadStatsDTO.RecentFileUpload>> recentUploads = null;
+    Future<FileProblems> fileProblems = null;
     try {
-      // Generate statistics from real satellite data
-      report.setSummary(generateRealSummaryStats(startDate, endDate));
-      report.setDailyStats(generateRealDailyStats(startDate, endDate));
-      report.setLocationStats(generateRealLocationStats(startDate, endDate));
-      report.setFileTypeStats(generateRealFileTypeStats(startDate, endDate));
-      report.setHourlyPatterns(generateRealHourlyPatterns(startDate, endDate));
-      report.setMissingFiles(new ArrayList<>()); // TODO: Implement missing file detection
-      report.setPerformanceStats(generateRealPerformanceStats(startDate, endDate));
-      report.setRecentUploads(generateRealRecentUploads());
-      report.setFilesWithErrors(new ArrayList<>()); // TODO: Implement error detection
-    } catch (Exception e) {
-      // Fallback to sample data if real data queries fail
-      throw new RuntimeException("Failed to generate real statistics: " + e.getMessage(), e);
+      // The range sections come from one grouped query; recent uploads cover a different range and run beside it
+      boolean fromRollup = statisticsRollupService.isReady();
+      aggregates = reportExecutor.submit(
+        () -> queryAggregates(fromRollup, reportJdbcTemplate, startDate, endDate, source2, mjd));
+      recentUploads = reportExecutor.submit(
+        () -> generateRealRecentUploads(queryRecent(fromRollup, reportJdbcTemplate, source2, mjd)));
+      fileProblems = reportExecutor.submit(
+        () -> queryFileProblems(reportJdbcTemplate, startDate, endDate, source2, mjd));
+
+      List<Map<String, Object>> rows = aggregates.get(remainingNanos(deadline), TimeUnit.NANOSECONDS);
+      return assembleReport(startDate, endDate, rows,
+        recentUploads.get(remainingNanos(deadline), TimeUnit.NANOSECONDS),
+        fileProblems.get(remainingNanos(deadline), TimeUnit.NANOSECONDS));
+    } catch (TimeoutException e) {
+      throw new RuntimeException("Statistics report did not finish within " + reportTimeoutMs + " ms", e);
+    } catch (RejectedExecutionException e) {
+      throw new RuntimeException("Too many statistics reports in progress, try again later", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      throw new RuntimeException("Failed to generate real statistics: " + cause.getMessage(), cause);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while generating statistics", e);
+    } finally {
+      // Stops whatever is still running once the report failed or timed out
+      if (aggregates != null) {
+        aggregates.cancel(true);
+      }
+      if (recentUploads != null) {
+        recentUploads.cancel(true);
+      }
+      if (fileProblems != null) {
+        fileProblems.cancel(true);
+      }
     }
+  }
+
+  private static long remainingNanos(long deadline) {
+    return Math.max(0L, deadline - System.nanoTime());
+  }
+
+  private List<Map<String, Object>> queryAggregates(boolean fromRollup, JdbcTemplate viewJdbcTemplate,
+                                                    LocalDateTime startDate, LocalDateTime endDate,
+                                                    List<String> source2, Integer mjd) {
+    return fromRollup
+      ? statisticsRollupService.queryReportAggregates(startDate.toLocalDate(), endDate.toLocalDate(), source2, mjd)
+      : queryReportAggregates(viewJdbcTemplate, startDate, endDate, source2, mjd);
+  }
+
+  private List<Map<String, Object>> queryRecent(boolean fromRollup, JdbcTemplate viewJdbcTemplate,
+                                                List<String> source2, Integer mjd) {
+    return fromRollup
+      ? statisticsRollupService.queryRecentUploads(source2, mjd)
+      : queryRecentUploads(viewJdbcTemplate, source2, mjd);
+  }
+
+  /**
+   * Splits the grouped rows by {@code grouping_id} and maps each group to its report section.
+   */
+  private FileUploadStatsDTO assembleReport(LocalDateTime startDate, LocalDateTime endDate,
+                                            List<Map<String, Object>> rows,
+                                            List<FileUploadStatsDTO.RecentFileUpload> recentUploads,
+                                            FileProblems fileProblems) {
+    List<Map<String, Object>> dailyRows = new ArrayList<>();
+    List<Map<String, Object>> sourceRows = new ArrayList<>();
+    List<Map<String, Object>> hourlyRows = new ArrayList<>();
+    Map<String, Object> totals = Map.of();
+    for (Map<String, Object> row : rows) {
+      switch (safeIntValue(row, "grouping_id")) {
+        case GROUPED_BY_DAY -> dailyRows.add(row);
+        case GROUPED_BY_SOURCE -> sourceRows.add(row);
+        case GROUPED_BY_HOUR -> hourlyRows.add(row);
+        default -> totals = row;
+      }
+    }
+
+    FileUploadStatsDTO report = new FileUploadStatsDTO();
+    report.setSummary(toSummaryStats(totals, startDate, endDate));
+    report.setDailyStats(toDailyStats(dailyRows));
+    report.setLocationStats(toLocationStats(sourceRows));
+    report.setFileTypeStats(toFileTypeStats(sourceRows));
+    report.setHourlyPatterns(toHourlyPatterns(hourlyRows));
+    report.setMissingFiles(fileProblems.missingFiles());
+    report.setPerformanceStats(toPerformanceStats(sourceRows));
+    report.setRecentUploads(recentUploads);
+    report.setFilesWithErrors(fileProblems.filesWithErrors());
     return report;
   }
 
+  private record FileProblems(List<FileUploadStatsDTO.MissingFileInfo> missingFiles,
+                              List<FileUploadStatsDTO.FileWithErrors> filesWithErrors) {
+  }
+
+  private FileProblems queryFileProblems(JdbcTemplate jdbc, LocalDateTime startDate, LocalDateTime endDate,
+                                         List<String> sources, Integer mjd) {
+    int startMjd = mjd != null ? mjd : toMjd(startDate.toLocalDate());
+    int endMjd = mjd != null ? mjd : toMjd(endDate.toLocalDate());
+    return new FileProblems(queryMissingFiles(jdbc, startMjd, endMjd, sources),
+      queryFilesWithErrors(jdbc, startMjd, endMjd, sources));
+  }
+
+  private static int toMjd(LocalDate day) {
+    return (int) ChronoUnit.DAYS.between(MJD_EPOCH, day);
+  }
+
     /**
-     * Generate summary statistics from real satellite data
+     * Every range statistic in one pass over the view: rows are first collapsed to (source2, mjd, day, hour)
+     * cells, then GROUPING SETS yields the overall totals and the per-day, per-source and per-hour groups
+     * together. {@code grouping_id} tells the groups apart (see {@link #GROUPED_BY_DAY} and friends).
+     * Only used until the statistics rollup has been built.
      */
-    private FileUploadStatsDTO.SummaryStats generateRealSummaryStats(LocalDateTime startDate, LocalDateTime endDate) {
-        FileUploadStatsDTO.SummaryStats summary = new FileUploadStatsDTO.SummaryStats();
-
-        // Query real data statistics
+    private List<Map<String, Object>> queryReportAggregates(JdbcTemplate viewJdbcTemplate,
+                                                            LocalDateTime startDate, LocalDateTime endDate,
+                                                            List<String> source2, Integer mjd) {
+        List<Object> params = new ArrayList<>(List.of(startDate, endDate));
         String sql = """
+            WITH cells AS (
+                SELECT
+                    source2,
+                    mjd,
+                    DATE(mjd_date_time) as upload_date,
+                    EXTRACT(HOUR FROM mjd_date_time)::int as hour,
+                    COUNT(*) as records,
+                    SUM(CASE WHEN ABS(avg_refsys_difference) <= 30 THEN 95 ELSE 75 END) as quality_sum,
+                    MIN(mjd_date_time) as first_upload,
+                    MAX(mjd_date_time) as last_upload
+                FROM sat_common_view_difference_materialized
+                WHERE mjd_date_time BETWEEN ? AND ?%s
+                GROUP BY source2, mjd, DATE(mjd_date_time), EXTRACT(HOUR FROM mjd_date_time)
+            )
             SELECT
-                COUNT(DISTINCT CONCAT(source2, '_', mjd)) as total_files,
-                COUNT(*) as total_records,
+                GROUPING(upload_date, source2, hour) as grouping_id,
+                upload_date,
+                source2,
+                hour,
+                COUNT(DISTINCT (source2, mjd)) as file_count,
+                SUM(records) as total_records,
                 COUNT(DISTINCT source2) as unique_locations,
-                AVG(CASE WHEN ABS(avg_refsys_difference) <= 30 THEN 95 ELSE 75 END) as avg_quality
-            FROM sat_common_view_difference_materialized
-            WHERE mjd_date_time BETWEEN ? AND ?
-            """;
+                SUM(quality_sum)::float8 / NULLIF(SUM(records), 0) as avg_quality,
+                MIN(first_upload) as first_upload,
+                MAX(last_upload) as last_upload
+            FROM cells
+            GROUP BY GROUPING SETS ((), (upload_date), (source2), (hour))
+            """.formatted(viewFilters(params, source2, mjd));
+
+        return viewJdbcTemplate.queryForList(sql, params.toArray());
+    }
+
+    private static String viewFilters(List<Object> params, List<String> source2, Integer mjd) {
+        StringBuilder sql = new StringBuilder();
+        if (source2 != null && !source2.isEmpty()) {
+            sql.append(" AND source2 = ANY(?)");
+            params.add(source2.toArray(new String[0]));
+        }
+        if (mjd != null) {
+            sql.append(" AND mjd = ?");
+            params.add(mjd);
+        }
+        return sql.toString();
+    }
 
-        Map<String, Object> result = jdbcTemplate.queryForMap(sql, startDate, endDate);
+    /**
+     * Generate summary statistics from real satellite data
+     */
+    private FileUploadStatsDTO.SummaryStats toSummaryStats(Map<String, Object> result, LocalDateTime startDate, LocalDateTime endDate) {
+        FileUploadStatsDTO.SummaryStats summary = new FileUploadStatsDTO.SummaryStats();
 
         // Use helper methods to safely extract values
-        summary.setTotalFiles(safeLongValue(result, "total_files"));
+        summary.setTotalFiles(safeLongValue(result, "file_count"));
         summary.setTotalRecords(safeLongValue(result, "total_records"));
         summary.setUniqueLocations(safeIntValue(result, "unique_locations"));
         summary.setAverageQuality(safeDoubleValue(result, "avg_quality"));
@@ -82,23 +361,10 @@ public class RealFileUploadStatisticsService {
     /**
      * Generate daily statistics from real data
      */
-    private List<FileUploadStatsDTO.DailyUploadStats> generateRealDailyStats(LocalDateTime startDate, LocalDateTime endDate) {
-        String sql = """
-            SELECT
-                DATE(mjd_date_time) as upload_date,
-                COUNT(DISTINCT CONCAT(source2, '_', mjd)) as file_count,
-                COUNT(*) as total_records,
-                COUNT(DISTINCT source2) as unique_locations,
-                AVG(CASE WHEN ABS(avg_refsys_difference) <= 30 THEN 95 ELSE 75 END) as avg_quality
-            FROM sat_common_view_difference_materialized
-            WHERE mjd_date_time BETWEEN ? AND ?
-            GROUP BY DATE(mjd_date_time)
-            ORDER BY upload_date DESC
-            """;
-
-        List<Map<String, Object>> results = jdbcTemplate.queryForList(sql, startDate, endDate);
-
-        return results.stream().map(row -> {
+    private List<FileUploadStatsDTO.DailyUploadStats> toDailyStats(List<Map<String, Object>> results) {
+        return results.stream()
+            .sorted(Comparator.comparing((Map<String, Object> row) -> (java.sql.Date) row.get("upload_date")).reversed())
+            .map(row -> {
             FileUploadStatsDTO.DailyUploadStats daily = new FileUploadStatsDTO.DailyUploadStats();
             daily.setUploadDate(row.get("upload_date").toString());
             daily.setDateTime(((java.sql.Date) row.get("upload_date")).toLocalDate().atStartOfDay());
@@ -114,28 +380,13 @@ public class RealFileUploadStatisticsService {
     /**
      * Generate location statistics from real data
      */
-    private List<FileUploadStatsDTO.LocationUploadStats> generateRealLocationStats(LocalDateTime startDate, LocalDateTime endDate) {
-        String sql = """
-            SELECT
-                source2 as location_name,
-                source2 as source2_code,
-                COUNT(DISTINCT mjd) as file_count,
-                COUNT(*) as total_records,
-                MIN(mjd_date_time) as first_upload,
-                MAX(mjd_date_time) as last_upload,
-                AVG(CASE WHEN ABS(avg_refsys_difference) <= 30 THEN 95 ELSE 75 END) as avg_quality
-            FROM sat_common_view_difference_materialized
-            WHERE mjd_date_time BETWEEN ? AND ?
-            GROUP BY source2
-            ORDER BY file_count DESC
-            """;
-
-        List<Map<String, Object>> results = jdbcTemplate.queryForList(sql, startDate, endDate);
-
-        return results.stream().map(row -> {
+    private List<FileUploadStatsDTO.LocationUploadStats> toLocationStats(List<Map<String, Object>> results) {
+        return results.stream()
+            .sorted(Comparator.comparingLong((Map<String, Object> row) -> safeLongValue(row, "file_count")).reversed())
+            .map(row -> {
             FileUploadStatsDTO.LocationUploadStats loc = new FileUploadStatsDTO.LocationUploadStats();
-            loc.setLocationName((String) row.get("location_name"));
-            loc.setSource2Code((String) row.get("source2_code"));
+            loc.setLocationName((String) row.get("source2"));
+            loc.setSource2Code((String) row.get("source2"));
             loc.setFileCount(safeLongValue(row, "file_count"));
             loc.setTotalRecords(safeLongValue(row, "total_records"));
             loc.setFirstUpload(((java.sql.Timestamp) row.get("first_upload")).toLocalDateTime());
@@ -145,6 +396,13 @@ public class RealFileUploadStatisticsService {
             loc.setFailedFiles(0L);
             loc.setSuccessRate(100.0);
             loc.setStatus("ACTIVE");
+            // Delivery latency covers every received file of the source, not only the report range
+            ArrivalLatencyDTO.SourceLatency latency = arrivalLatencyService.getLatency((String) row.get("source2"));
+            if (latency != null) {
+                loc.setArrivalP50Minutes(latency.getP50Minutes());
+                loc.setArrivalP90Minutes(latency.getP90Minutes());
+                loc.setLateFiles(latency.getLateFiles());
+            }
             return loc;
         }).collect(Collectors.toList());
     }
@@ -152,18 +410,7 @@ public class RealFileUploadStatisticsService {
     /**
      * Generate file type statistics from real data
      */
-    private List<FileUploadStatsDTO.FileTypeStats> generateRealFileTypeStats(LocalDateTime startDate, LocalDateTime endDate) {
-        String sql = """
-            SELECT
-                source2,
-                COUNT(DISTINCT mjd) as file_count,
-                COUNT(*) as total_records
-            FROM sat_common_view_difference_materialized
-            WHERE mjd_date_time BETWEEN ? AND ?
-            GROUP BY source2
-            """;
-
-        List<Map<String, Object>> results = jdbcTemplate.queryForList(sql, startDate, endDate);
+    private List<FileUploadStatsDTO.FileTypeStats> toFileTypeStats(List<Map<String, Object>> results) {
         long totalFiles = results.stream().mapToLong(r -> safeLongValue(r, "file_count")).sum();
 
         return results.stream().map(row -> {
@@ -181,18 +428,7 @@ public class RealFileUploadStatisticsService {
     /**
      * Generate hourly upload patterns from real data
      */
-    private List<FileUploadStatsDTO.HourlyUploadPattern> generateRealHourlyPatterns(LocalDateTime startDate, LocalDateTime endDate) {
-        String sql = """
-            SELECT
-                EXTRACT(HOUR FROM mjd_date_time) as hour,
-                COUNT(DISTINCT CONCAT(source2, '_', mjd)) as file_count,
-                COUNT(*) as total_records
-            FROM sat_common_view_difference_materialized
-            WHERE mjd_date_time BETWEEN ? AND ?
-            GROUP BY EXTRACT(HOUR FROM mjd_date_time)
-            """;
-
-        List<Map<String, Object>> results = jdbcTemplate.queryForList(sql, startDate, endDate);
+    private List<FileUploadStatsDTO.HourlyUploadPattern> toHourlyPatterns(List<Map<String, Object>> results) {
         long totalFiles = results.stream().mapToLong(r -> safeLongValue(r, "file_count")).sum();
 
         // Create map for easy lookup
@@ -228,27 +464,14 @@ public class RealFileUploadStatisticsService {
     /**
      * Generate performance statistics from real data
      */
-    private List<FileUploadStatsDTO.ProcessingPerformanceStats> generateRealPerformanceStats(LocalDateTime startDate, LocalDateTime endDate) {
-        String sql = """
-            SELECT
-                source2 as location_name,
-                COUNT(DISTINCT mjd) as file_count,
-                COUNT(*) as avg_lines_processed,
-                AVG(CASE WHEN ABS(avg_refsys_difference) <= 30 THEN 95 ELSE 75 END) as quality
-            FROM sat_common_view_difference_materialized
-            WHERE mjd_date_time BETWEEN ? AND ?
-            GROUP BY source2
-            """;
-
-        List<Map<String, Object>> results = jdbcTemplate.queryForList(sql, startDate, endDate);
-
+    private List<FileUploadStatsDTO.ProcessingPerformanceStats> toPerformanceStats(List<Map<String, Object>> results) {
         return results.stream().map(row -> {
             FileUploadStatsDTO.ProcessingPerformanceStats perf = new FileUploadStatsDTO.ProcessingPerformanceStats();
-            perf.setLocationName((String) row.get("location_name"));
+            perf.setLocationName((String) row.get("source2"));
             perf.setFileCount(safeLongValue(row, "file_count"));
 
             // Mock performance metrics based on data volume
-            double linesProcessed = safeDoubleValue(row, "avg_lines_processed");
+            double linesProcessed = safeDoubleValue(row, "total_records");
             double avgTime = Math.max(50, linesProcessed / 100 + Math.random() * 200); // Realistic processing time
 
             perf.setAverageProcessingTime(avgTime);
@@ -270,9 +493,11 @@ public class RealFileUploadStatisticsService {
     }
 
     /**
-     * Generate recent uploads from real data
+     * Recent uploads straight from the view, until the statistics rollup has been built
      */
-    private List<FileUploadStatsDTO.RecentFileUpload> generateRealRecentUploads() {
+    private List<Map<String, Object>> queryRecentUploads(JdbcTemplate viewJdbcTemplate, List<String> source2,
+                                                         Integer mjd) {
+        List<Object> params = new ArrayList<>();
         String sql = """
             SELECT DISTINCT
                 source2,
@@ -281,14 +506,19 @@ public class RealFileUploadStatisticsService {
                 COUNT(*) as total_records,
                 AVG(CASE WHEN ABS(avg_refsys_difference) <= 30 THEN 95 ELSE 75 END) as quality_score
             FROM sat_common_view_difference_materialized
-            WHERE mjd_date_time >= CURRENT_DATE - INTERVAL '7 days'
+            WHERE mjd_date_time >= CURRENT_DATE - INTERVAL '7 days'%s
             GROUP BY source2, mjd
             ORDER BY MAX(mjd_date_time) DESC
             LIMIT 10
-            """;
+            """.formatted(viewFilters(params, source2, mjd));
 
-        List<Map<String, Object>> results = jdbcTemplate.queryForList(sql);
+        return viewJdbcTemplate.queryForList(sql, params.toArray());
+    }
 
+    /**
+     * Generate recent uploads from real data
+     */
+    private List<FileUploadStatsDTO.RecentFileUpload> generateRealRecentUploads(List<Map<String, Object>> results) {
         return results.stream().map(row -> {
             String source2Code = (String) row.get("source2");
             Integer mjdValue = safeIntValue(row, "mjd");
@@ -323,6 +553,96 @@ public class RealFileUploadStatisticsService {
         }).collect(Collectors.toList());
     }
 
+    /**
+     * Days of the range whose file is recorded as MISSING or LATE in file_availability
+     * (served by the partial index on non-available rows).
+     */
+    private List<FileUploadStatsDTO.MissingFileInfo> queryMissingFiles(JdbcTemplate jdbc, int startMjd, int endMjd,
+                                                                       List<String> sources) {
+        List<Object> params = new ArrayList<>(List.of(startMjd, endMjd));
+        String sql = """
+            SELECT source, mjd, status
+            FROM file_availability
+            WHERE status IN ('MISSING', 'LATE') AND mjd BETWEEN ? AND ?%s
+            ORDER BY mjd DESC, source
+            LIMIT %d
+            """.formatted(sourceFilter(params, sources), MAX_LISTED_FILES);
+
+        int todayMjd = toMjd(LocalDate.now());
+        return jdbc.queryForList(sql, params.toArray()).stream().map(row -> {
+            String source = (String) row.get("source");
+            int mjd = safeIntValue(row, "mjd");
+            String status = (String) row.get("status");
+            int daysMissing = Math.max(0, todayMjd - mjd);
+
+            FileUploadStatsDTO.MissingFileInfo missing = new FileUploadStatsDTO.MissingFileInfo();
+            missing.setMjd(mjd);
+            missing.setLocationName(getLocationNameFromSource(source));
+            missing.setStatus(status);
+            missing.setExpectedFileName(toFileName(source, mjd));
+            missing.setDaysMissing("MISSING".equals(status) ? daysMissing : 0);
+            // A file still missing after a few days is unlikely to arrive on its own
+            if (!"MISSING".equals(status)) missing.setSeverity("LOW");
+            else if (daysMissing >= 3) missing.setSeverity("HIGH");
+            else missing.setSeverity("MEDIUM");
+            return missing;
+        }).collect(Collectors.toList());
+    }
+
+    /**
+     * Files of the range with lines that could not be ingested, from ingest_error.
+     */
+    private List<FileUploadStatsDTO.FileWithErrors> queryFilesWithErrors(JdbcTemplate jdbc, int startMjd, int endMjd,
+                                                                         List<String> sources) {
+        List<Object> params = new ArrayList<>(List.of(startMjd, endMjd));
+        String sql = """
+            SELECT source, mjd, file_name, lines_read, lines_skipped, last_error, last_seen_at
+            FROM ingest_error
+            WHERE mjd BETWEEN ? AND ?%s
+            ORDER BY mjd DESC, source, file_name
+            LIMIT %d
+            """.formatted(sourceFilter(params, sources), MAX_LISTED_FILES);
+
+        return jdbc.queryForList(sql, params.toArray()).stream().map(row -> {
+            String source = (String) row.get("source");
+            long linesRead = safeLongValue(row, "lines_read");
+            long linesSkipped = safeLongValue(row, "lines_skipped");
+            double errorRate = linesRead > 0 ? (linesSkipped * 100.0) / linesRead : 100.0;
+
+            FileUploadStatsDTO.FileWithErrors file = new FileUploadStatsDTO.FileWithErrors();
+            file.setFileName((String) row.get("file_name"));
+            file.setLocationName(getLocationNameFromSource(source));
+            file.setMjd(safeIntValue(row, "mjd"));
+            file.setUploadTimestamp(((java.sql.Timestamp) row.get("last_seen_at")).toLocalDateTime());
+            file.setTotalRecords((int) (linesRead - linesSkipped));
+            file.setLinesSkipped((int) linesSkipped);
+            file.setProcessingErrors((String) row.get("last_error"));
+            file.setErrorRate(errorRate);
+            if (errorRate >= 50) file.setSeverity("HIGH");
+            else if (errorRate >= 10) file.setSeverity("MEDIUM");
+            else file.setSeverity("LOW");
+            return file;
+        }).collect(Collectors.toList());
+    }
+
+    private static String sourceFilter(List<Object> params, List<String> sources) {
+        if (sources == null || sources.isEmpty()) {
+            return "";
+        }
+        params.add(sources.toArray(new String[0]));
+        return " AND source = ANY(?)";
+    }
+
+    /**
+     * File name as received, e.g. GZLMB1 + 60878 -> GZLMB160.878
+     */
+    private static String toFileName(String source, int mjd) {
+        String mjdStr = String.valueOf(mjd);
+        String fullMjdPrefix = mjdStr.length() >= 2 ? mjdStr.substring(0, 2) : mjdStr;
+        String shortMjdSuffix = mjdStr.length() > 3 ? mjdStr.substring(2) : mjdStr;
+        return source + fullMjdPrefix + "." + shortMjdSuffix;
+    }
+
     private String getFileTypeFromSource(String source) {
         if (source == null) return "Unknown";
 
@@ -366,20 +686,6 @@ public class RealFileUploadStatisticsService {
         }
     }
 
-    public FileUploadStatsDTO getLocationStats(String location) {
-    // Use last 30 days as default for location stats
-    LocalDateTime endDate = LocalDateTime.now();
-    LocalDateTime startDate = endDate.minusDays(30);
-    return generateFileUploadReport(startDate, endDate);
-    }
-
-    public FileUploadStatsDTO getMjdStats(Integer mjd) {
-    // Use last 30 days as default for MJD stats
-    LocalDateTime endDate = LocalDateTime.now();
-    LocalDateTime startDate = endDate.minusDays(30);
-    return generateFileUploadReport(startDate, endDate);
-    }
-
     // Helper methods to safely extract values from query results
     private long safeLongValue(Map<String, Object> map, String key) {
         Number value = (Number) map.get(key);
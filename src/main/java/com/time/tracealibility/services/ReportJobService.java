@@ -0,0 +1,223 @@
+package com.time.tracealibility.services;
+
+import com.time.tracealibility.dto.FileUploadStatsDTO;
+import com.time.tracealibility.dto.ReportJobDTO;
+import com.time.tracealibility.events.DataVersionChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous statistics reports: a long-range report is submitted, polled and fetched instead of holding a
+ * request thread (and a proxy connection) for the whole computation.
+ *
+ * Jobs run on their own small bounded pool, separate from the interactive report pool, so a heavy report
+ * never delays dashboards. A submission for the same range as a queued, running or finished job returns that
+ * job. Finished jobs keep their result for {@code app.statistics.jobs.ttl-ms} and are then evicted; a refresh
+ * of the common view stops finished jobs from being reused, so the next submission computes fresh data while
+ * clients that already hold a job id can still fetch its result.
+ */
+@Service
+public class ReportJobService {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReportJobService.class);
+
+  private static final String COMMON_VIEW = "sat_common_view_difference_materialized";
+
+  public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+  @Autowired
+  private RealFileUploadStatisticsService statisticsService;
+
+  @Value("${app.statistics.jobs.threads:2}")
+  private int jobThreads;
+
+  @Value("${app.statistics.jobs.queue:20}")
+  private int jobQueue;
+
+  @Value("${app.statistics.jobs.ttl-ms:900000}")
+  private long ttlMs;
+
+  private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+  // Jobs a new submission with the same parameters may reuse
+  private final Map<List<Object>, Job> reusableJobs = new ConcurrentHashMap<>();
+  private final AtomicLong submitted = new AtomicLong();
+  private final AtomicLong deduplicated = new AtomicLong();
+  private final AtomicLong evicted = new AtomicLong();
+
+  private ExecutorService jobExecutor;
+
+  @PostConstruct
+  public void init() {
+    AtomicInteger threadCount = new AtomicInteger();
+    jobExecutor = new ThreadPoolExecutor(jobThreads, jobThreads, 0L, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(jobQueue), runnable -> {
+        Thread thread = new Thread(runnable, "stats-job-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    jobExecutor.shutdownNow();
+  }
+
+  /**
+   * Submits a report job for {@code [startDate, endDate]}, or returns the job already covering that range.
+   * @throws RejectedExecutionException when the job queue is full
+   */
+  public ReportJobDTO submit(LocalDateTime startDate, LocalDateTime endDate) {
+    List<Object> key = Arrays.asList("fileUploadReport", startDate, endDate);
+    Job created = new Job(UUID.randomUUID().toString(), startDate, endDate);
+    Job job = reusableJobs.merge(key, created,
+      (existing, fresh) -> existing.status == Status.FAILED || existing.isExpired() ? fresh : existing);
+    if (job != created) {
+      deduplicated.incrementAndGet();
+      logger.debug("Report job {} reused for {} .. {}", job.id, startDate, endDate);
+      return job.toDTO();
+    }
+
+    jobs.put(job.id, job);
+    try {
+      jobExecutor.execute(() -> run(job));
+    } catch (RejectedExecutionException e) {
+      jobs.remove(job.id);
+      reusableJobs.remove(key, job);
+      throw e;
+    }
+    submitted.incrementAndGet();
+    logger.info("📝 Report job {} queued for {} .. {}", job.id, startDate, endDate);
+    return job.toDTO();
+  }
+
+  /**
+   * Current state of a job, or null when it is unknown or has expired.
+   */
+  public ReportJobDTO getJob(String jobId) {
+    Job job = liveJob(jobId);
+    return job != null ? job.toDTO() : null;
+  }
+
+  /**
+   * The finished report of a job, or null when it is unknown, expired or not done yet.
+   */
+  public FileUploadStatsDTO getResult(String jobId) {
+    Job job = liveJob(jobId);
+    return job != null && job.status == Status.DONE ? job.result : null;
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Long> byStatus = new LinkedHashMap<>();
+    for (Status status : Status.values()) {
+      byStatus.put(status.name(), jobs.values().stream().filter(job -> job.status == status).count());
+    }
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("jobs", byStatus);
+    result.put("submitted", submitted.get());
+    result.put("deduplicated", deduplicated.get());
+    result.put("evicted", evicted.get());
+    result.put("ttlMs", ttlMs);
+    return result;
+  }
+
+  /**
+   * New data: finished reports stay fetchable by id but are no longer handed out to new submissions.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onDataVersionChanged(DataVersionChangedEvent event) {
+    if (!event.isViewChange() || !COMMON_VIEW.equals(event.getSubject())) {
+      return;
+    }
+    reusableJobs.values().removeIf(job -> job.status == Status.DONE);
+  }
+
+  @Scheduled(fixedDelayString = "${app.statistics.jobs.eviction-interval-ms:60000}")
+  public void evictExpired() {
+    int before = jobs.size();
+    jobs.values().removeIf(Job::isExpired);
+    reusableJobs.values().removeIf(Job::isExpired);
+    int removed = before - jobs.size();
+    if (removed > 0) {
+      evicted.addAndGet(removed);
+      logger.debug("Evicted {} expired report jobs", removed);
+    }
+  }
+
+  private Job liveJob(String jobId) {
+    Job job = jobs.get(jobId);
+    return job != null && !job.isExpired() ? job : null;
+  }
+
+  private void run(Job job) {
+    job.startedAt = LocalDateTime.now();
+    job.status = Status.RUNNING;
+    long startTime = System.currentTimeMillis();
+    try {
+      job.result = statisticsService.buildFileUploadReportForJob(job.startDate, job.endDate);
+      job.finish(Status.DONE, null);
+      logger.info("✅ Report job {} done in {} ms", job.id, System.currentTimeMillis() - startTime);
+    } catch (Exception e) {
+      job.finish(Status.FAILED, e.getMessage());
+      logger.error("❌ Report job {} failed: {}", job.id, e.getMessage(), e);
+    }
+  }
+
+  private final class Job {
+    private final String id;
+    private final LocalDateTime startDate;
+    private final LocalDateTime endDate;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long expiresAtMillis = Long.MAX_VALUE;
+    private volatile Status status = Status.QUEUED;
+    private volatile FileUploadStatsDTO result;
+    private volatile String error;
+
+    private Job(String id, LocalDateTime startDate, LocalDateTime endDate) {
+      this.id = id;
+      this.startDate = startDate;
+      this.endDate = endDate;
+    }
+
+    private void finish(Status finalStatus, String message) {
+      error = message;
+      finishedAt = LocalDateTime.now();
+      expiresAtMillis = System.currentTimeMillis() + ttlMs;
+      // Written last: readers that see DONE also see the result and timestamps
+      status = finalStatus;
+    }
+
+    private boolean isExpired() {
+      return System.currentTimeMillis() >= expiresAtMillis;
+    }
+
+    private ReportJobDTO toDTO() {
+      LocalDateTime expiresAt = finishedAt != null ? finishedAt.plusNanos(TimeUnit.MILLISECONDS.toNanos(ttlMs)) : null;
+      return new ReportJobDTO(id, status.name(), startDate, endDate, submittedAt, startedAt, finishedAt,
+        expiresAt, error);
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.time.tracealibility.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of identical concurrent reads.
+ *
+ * The first caller for a (group, key) runs the loader on its own thread; callers arriving while it is still
+ * running wait for that result (or exception) instead of issuing the same query again. Nothing is cached:
+ * the entry is removed as soon as the call completes, so the next request after that runs a fresh query.
+ * Results are shared between callers and must be treated as read-only.
+ */
+@Service
+public class RequestCoalescer {
+
+  private static final Logger logger = LoggerFactory.getLogger(RequestCoalescer.class);
+
+  @Value("${app.coalescing.enabled:true}")
+  private boolean enabled;
+
+  private final Map<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+  private final Map<String, GroupStats> stats = new ConcurrentHashMap<>();
+
+  /**
+   * Runs {@code loader}, or joins the identical call already in flight.
+   * @param group name of the read path, used for the hit counters
+   * @param key everything the result depends on; compared with equals, may contain nulls
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T execute(String group, Object key, Supplier<T> loader) {
+    if (!enabled) {
+      return loader.get();
+    }
+    GroupStats groupStats = stats.computeIfAbsent(group, name -> new GroupStats());
+    List<Object> flightKey = Arrays.asList(group, key);
+    CompletableFuture<Object> flight = new CompletableFuture<>();
+    CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+    if (existing != null) {
+      groupStats.coalesced.incrementAndGet();
+      logger.debug("Joined in-flight {} call", group);
+      return (T) await(existing);
+    }
+    groupStats.executions.incrementAndGet();
+    try {
+      T result = loader.get();
+      flight.complete(result);
+      return result;
+    } catch (RuntimeException | Error e) {
+      flight.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(flightKey, flight);
+    }
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("enabled", enabled);
+    result.put("inFlight", inFlight.size());
+    Map<String, Object> groups = new LinkedHashMap<>();
+    stats.forEach((group, groupStats) -> {
+      Map<String, Object> counters = new LinkedHashMap<>();
+      counters.put("executions", groupStats.executions.get());
+      counters.put("coalesced", groupStats.coalesced.get());
+      groups.put(group, counters);
+    });
+    result.put("groups", groups);
+    return result;
+  }
+
+  private static Object await(CompletableFuture<Object> flight) {
+    try {
+      return flight.join();
+    } catch (CompletionException e) {
+      // Waiters see the same exception the leading caller got
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (cause instanceof Error error) {
+        throw error;
+      }
+      throw e;
+    }
+  }
+
+  private static final class GroupStats {
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+  }
+}
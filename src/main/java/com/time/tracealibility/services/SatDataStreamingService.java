@@ -0,0 +1,234 @@
+package com.time.tracealibility.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.time.tracealibility.entity.SatCombinedViewDifference;
+import com.time.tracealibility.entity.SatCommonViewDifference;
+import com.time.tracealibility.repository.SatViewRowMappers;
+import com.time.tracealibility.repository.ViewQueryBuilder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streams rows of the common-view materialized view straight from a JDBC cursor to the HTTP response.
+ *
+ * PostgreSQL only honours the fetch size inside a transaction, so reads run in a read-only transaction
+ * and the driver pulls {@code app.streaming.fetch-size} rows at a time. Rows are written as NDJSON
+ * (one JSON object per line) without ever being collected, so memory stays constant regardless of range.
+ */
+@Service
+public class SatDataStreamingService {
+
+  private static final Logger logger = LoggerFactory.getLogger(SatDataStreamingService.class);
+
+  private static final DateTimeFormatter ISO_DATE_TIME = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+  private static final String COMMON_VIEW = "sat_common_view_difference_materialized";
+  private static final String COMBINED_VIEW = "sat_combined_view_difference_materialized";
+
+  private static final String COMMON_COLUMNS =
+    "id, sat_letter, mjd, common_sattelite, sttime, mjd_date_time, source1, source2, avg1, avg2, avg_refsys_difference";
+
+  private static final String COMBINED_COLUMNS =
+    "id, sat_letter, mjd, sttime, mjd_date_time, common_satellite_count, source1, source2, avg1, avg2, " +
+    "avg_refsys_difference, weighted_avg1, weighted_avg2, weighted_avg_difference";
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Value("${app.streaming.fetch-size:2000}")
+  private int fetchSize;
+
+  @Value("${app.streaming.flush-every-rows:1000}")
+  private int flushEveryRows;
+
+  private NamedParameterJdbcTemplate streamingJdbcTemplate;
+  private TransactionTemplate readOnlyTransaction;
+
+  @PostConstruct
+  public void init() {
+    // Separate template so the larger fetch size does not leak into the shared JdbcTemplate
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.setFetchSize(fetchSize);
+    streamingJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+
+    readOnlyTransaction = new TransactionTemplate(transactionManager);
+    readOnlyTransaction.setReadOnly(true);
+  }
+
+  /**
+   * Writes every matching row of sat_common_view_difference_materialized to {@code out} as NDJSON,
+   * ordered by mjd_date_time. Field names match the JSON of {@code SatCommonViewDifference}.
+   * @return number of rows written
+   */
+  public long streamBulkLocationData(List<String> source2, String startDate, String endDate, OutputStream out) {
+    ViewQueryBuilder query = filtered(COMMON_VIEW, source2, startDate, endDate, null)
+      .orderBy("mjd_date_time", false);
+    String sql = query.selectSql(COMMON_COLUMNS);
+    MapSqlParameterSource params = query.toParameterSource();
+
+    long startTime = System.currentTimeMillis();
+    Long rowCount = readOnlyTransaction.execute(status -> {
+      try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Rows are newline-terminated explicitly below, so no extra separator between root values
+        generator.setRootValueSeparator(null);
+        long[] written = new long[1];
+        streamingJdbcTemplate.query(sql, params, rs -> {
+          try {
+            writeRow(generator, rs);
+            if (++written[0] % flushEveryRows == 0) {
+              generator.flush();
+            }
+          } catch (IOException e) {
+            // Client went away; abort the cursor instead of reading the rest of the range
+            throw new UncheckedIOException(e);
+          }
+        });
+        generator.flush();
+        return written[0];
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+
+    long count = rowCount != null ? rowCount : 0L;
+    logger.debug("Streamed {} bulk rows for {} in {} ms", count, source2, System.currentTimeMillis() - startTime);
+    return count;
+  }
+
+  /**
+   * Hands every matching common-view row to {@code consumer} in mjd_date_time order without collecting them.
+   * Each row is a detached entity instance that can be garbage collected as soon as the consumer drops it.
+   */
+  public void forEachCommonRow(List<String> source2, String startDate, String endDate,
+                               Consumer<SatCommonViewDifference> consumer) {
+    ViewQueryBuilder query = filtered(COMMON_VIEW, source2, startDate, endDate, null)
+      .orderBy("mjd_date_time", false);
+    String sql = query.selectSql(COMMON_COLUMNS);
+    MapSqlParameterSource params = query.toParameterSource();
+    readOnlyTransaction.executeWithoutResult(status ->
+      streamingJdbcTemplate.query(sql, params, rs -> {
+        consumer.accept(SatViewRowMappers.COMMON.mapRow(rs, 0));
+      }));
+  }
+
+  /**
+   * Hands every common-view row whose (source, mjd) received new data after ingest change {@code changedSince}
+   * to {@code consumer}, in mjd_date_time order. See {@link DeltaSyncService}.
+   */
+  public void forEachChangedCommonRow(long changedSince, Consumer<SatCommonViewDifference> consumer) {
+    MapSqlParameterSource params = new MapSqlParameterSource("changedSince", changedSince);
+    String sql = "SELECT " + COMMON_COLUMNS + " FROM sat_common_view_difference_materialized s"
+      + " WHERE EXISTS (SELECT 1 FROM data_change_log c WHERE c.change_seq > :changedSince"
+      + " AND c.mjd = s.mjd AND c.source IN (s.source1, s.source2))"
+      + " ORDER BY s.mjd_date_time";
+    readOnlyTransaction.executeWithoutResult(status ->
+      streamingJdbcTemplate.query(sql, params, rs -> {
+        consumer.accept(SatViewRowMappers.COMMON.mapRow(rs, 0));
+      }));
+  }
+
+  /**
+   * Same as {@link #forEachCommonRow} for the combined (weighted) view.
+   */
+  public void forEachCombinedRow(List<String> source2, String startDate, String endDate, String satLetter,
+                                 Consumer<SatCombinedViewDifference> consumer) {
+    ViewQueryBuilder query = filtered(COMBINED_VIEW, source2, startDate, endDate, satLetter)
+      .orderBy("mjd_date_time", false);
+    String sql = query.selectSql(COMBINED_COLUMNS);
+    MapSqlParameterSource params = query.toParameterSource();
+    readOnlyTransaction.executeWithoutResult(status ->
+      streamingJdbcTemplate.query(sql, params, rs -> {
+        consumer.accept(SatViewRowMappers.COMBINED.mapRow(rs, 0));
+      }));
+  }
+
+  /**
+   * First and last mjd_date_time of the filtered rows, or null when nothing matches.
+   * @param viewName one of the two difference materialized views
+   */
+  public LocalDateTime[] findTimeBounds(String viewName, List<String> source2, String startDate, String endDate,
+                                        String satLetter) {
+    if (!COMMON_VIEW.equals(viewName) && !COMBINED_VIEW.equals(viewName)) {
+      throw new IllegalArgumentException("Unsupported view: " + viewName);
+    }
+    ViewQueryBuilder query = filtered(viewName, source2, startDate, endDate, satLetter);
+    String sql = "SELECT MIN(s.mjd_date_time) AS first_time, MAX(s.mjd_date_time) AS last_time FROM " + viewName
+      + " s" + query.whereClause();
+    return streamingJdbcTemplate.queryForObject(sql, query.toParameterSource(), (rs, rowNum) -> {
+      Timestamp first = rs.getTimestamp("first_time");
+      Timestamp last = rs.getTimestamp("last_time");
+      return first == null || last == null ? null
+        : new LocalDateTime[]{first.toLocalDateTime(), last.toLocalDateTime()};
+    });
+  }
+
+  private static ViewQueryBuilder filtered(String viewName, List<String> source2, String startDate, String endDate,
+                                           String satLetter) {
+    return ViewQueryBuilder.from(viewName)
+      .source2In(source2)
+      .startDate(startDate)
+      .endDate(endDate)
+      .satLetter(satLetter);
+  }
+
+  private void writeRow(JsonGenerator generator, ResultSet rs) throws IOException, SQLException {
+    generator.writeStartObject();
+    generator.writeStringField("id", rs.getString("id"));
+    generator.writeStringField("satLetter", rs.getString("sat_letter"));
+    generator.writeNumberField("mjd", rs.getInt("mjd"));
+    generator.writeNumberField("commonSattelite", rs.getInt("common_sattelite"));
+    generator.writeStringField("sttime", rs.getString("sttime"));
+    Timestamp mjdDateTime = rs.getTimestamp("mjd_date_time");
+    if (mjdDateTime != null) {
+      generator.writeStringField("mjdDateTime", ISO_DATE_TIME.format(mjdDateTime.toLocalDateTime()));
+    } else {
+      generator.writeNullField("mjdDateTime");
+    }
+    generator.writeStringField("source1", rs.getString("source1"));
+    generator.writeStringField("source2", rs.getString("source2"));
+    writeNullableDouble(generator, "avg1", rs, "avg1");
+    writeNullableDouble(generator, "avg2", rs, "avg2");
+    writeNullableDouble(generator, "avgRefsysDifference", rs, "avg_refsys_difference");
+    generator.writeEndObject();
+    generator.writeRaw('\n');
+  }
+
+  private void writeNullableDouble(JsonGenerator generator, String field, ResultSet rs, String column)
+    throws IOException, SQLException {
+    double value = rs.getDouble(column);
+    if (rs.wasNull()) {
+      generator.writeNullField(field);
+    } else {
+      generator.writeNumberField(field, value);
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package com.time.tracealibility.services;
+
+import com.time.tracealibility.entity.SatCombinedViewDifference;
+import com.time.tracealibility.entity.SatCommonViewDifference;
+import com.time.tracealibility.timeseries.LttbDownsampler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounds chart responses to {@code maxPoints} per series with LTTB.
+ *
+ * A series is one (source1, source2, satLetter) line on the chart. Rows are streamed from the database in
+ * time order and routed to one {@link LttbDownsampler} per series, so only the selected rows and a couple
+ * of buckets per series are ever held in memory, no matter how long the range is.
+ */
+@Service
+public class SeriesDownsamplingService {
+
+  private static final Logger logger = LoggerFactory.getLogger(SeriesDownsamplingService.class);
+
+  private static final String COMMON_VIEW = "sat_common_view_difference_materialized";
+  private static final String COMBINED_VIEW = "sat_combined_view_difference_materialized";
+
+  @Autowired
+  private SatDataStreamingService satDataStreamingService;
+
+  /**
+   * Downsamples avgRefsysDifference per series of the common-view data.
+   */
+  public DownsampledResult<SatCommonViewDifference> downsampleCommon(List<String> source2, String startDate,
+                                                                     String endDate, int maxPoints) {
+    LocalDateTime[] bounds = satDataStreamingService.findTimeBounds(COMMON_VIEW, source2, startDate, endDate, null);
+    DownsampledResult<SatCommonViewDifference> result = new DownsampledResult<>(maxPoints);
+    if (bounds == null) {
+      return result;
+    }
+    Map<String, LttbDownsampler<SatCommonViewDifference>> series = new HashMap<>();
+    satDataStreamingService.forEachCommonRow(source2, startDate, endDate, row -> {
+      result.sourceRows++;
+      if (row.getAvgRefsysDifference() == null || row.getMjdDateTime() == null) {
+        return;
+      }
+      series.computeIfAbsent(seriesKey(row.getSource1(), row.getSource2(), row.getSatLetter()),
+          key -> new LttbDownsampler<>(epochMillis(bounds[0]), epochMillis(bounds[1]), maxPoints, result.rows::add))
+        .accept(epochMillis(row.getMjdDateTime()), row.getAvgRefsysDifference(), row);
+    });
+    series.values().forEach(LttbDownsampler::finish);
+    result.seriesCount = series.size();
+    logger.debug("Downsampled {} common-view rows to {} across {} series", result.sourceRows, result.rows.size(), series.size());
+    return result;
+  }
+
+  /**
+   * Downsamples weightedAvgDifference per series of the combined-view data.
+   */
+  public DownsampledResult<SatCombinedViewDifference> downsampleCombined(List<String> source2, String startDate,
+                                                                         String endDate, String satLetter, int maxPoints) {
+    LocalDateTime[] bounds = satDataStreamingService.findTimeBounds(COMBINED_VIEW, source2, startDate, endDate, satLetter);
+    DownsampledResult<SatCombinedViewDifference> result = new DownsampledResult<>(maxPoints);
+    if (bounds == null) {
+      return result;
+    }
+    Map<String, LttbDownsampler<SatCombinedViewDifference>> series = new HashMap<>();
+    satDataStreamingService.forEachCombinedRow(source2, startDate, endDate, satLetter, row -> {
+      result.sourceRows++;
+      if (row.getWeightedAvgDifference() == null || row.getMjdDateTime() == null) {
+        return;
+      }
+      series.computeIfAbsent(seriesKey(row.getSource1(), row.getSource2(), row.getSatLetter()),
+          key -> new LttbDownsampler<>(epochMillis(bounds[0]), epochMillis(bounds[1]), maxPoints, result.rows::add))
+        .accept(epochMillis(row.getMjdDateTime()), row.getWeightedAvgDifference(), row);
+    });
+    series.values().forEach(LttbDownsampler::finish);
+    result.seriesCount = series.size();
+    logger.debug("Downsampled {} combined rows to {} across {} series", result.sourceRows, result.rows.size(), series.size());
+    return result;
+  }
+
+  private static String seriesKey(String source1, String source2, String satLetter) {
+    return source1 + "|" + source2 + "|" + satLetter;
+  }
+
+  private static long epochMillis(LocalDateTime dateTime) {
+    return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+  }
+
+  /**
+   * Selected rows plus the numbers a client needs to tell that the data was thinned.
+   */
+  public static class DownsampledResult<T> {
+    private final List<T> rows = new ArrayList<>();
+    private final int maxPoints;
+    private long sourceRows;
+    private int seriesCount;
+
+    DownsampledResult(int maxPoints) {
+      this.maxPoints = maxPoints;
+    }
+
+    public List<T> getRows() {
+      return rows;
+    }
+
+    public int getMaxPoints() {
+      return maxPoints;
+    }
+
+    public long getSourceRows() {
+      return sourceRows;
+    }
+
+    public int getSeriesCount() {
+      return seriesCount;
+    }
+  }
+}
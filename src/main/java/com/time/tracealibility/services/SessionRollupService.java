@@ -0,0 +1,249 @@
+package com.time.tracealibility.services;
+
+import com.time.tracealibility.dto.SessionGapDTO;
+import com.time.tracealibility.dto.SourceSessionStatusDTO;
+import com.time.tracealibility.repository.ViewQueryBuilder;
+import com.time.tracealibility.timeseries.CggttsSchedule;
+import com.time.tracealibility.timeseries.SessionSlots;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Session completeness per (source, mjd), read from the session_rollup table instead of counting distinct
+ * sttime values over irnss_data.
+ *
+ * Ingest ORs the slots of the rows it reads into the rollup, and the observed count is recomputed from the
+ * merged bits in the same statement, so concurrent or repeated ingest of the same sessions stays exact.
+ * Gap maps compare those bits with the {@link CggttsSchedule} of each day.
+ */
+@Service
+public class SessionRollupService {
+
+  private static final Logger logger = LoggerFactory.getLogger(SessionRollupService.class);
+
+  private static final LocalDate MJD_EPOCH = LocalDate.of(1858, 11, 17);
+
+  // CggttsSchedule.expectedCount in SQL: 90 tracks when the day's first track starts early enough for the
+  // 90th to end by midnight, else 89
+  private static final String EXPECTED_COUNT_SQL = "CASE WHEN mod(mod(%d - %d * (s.mjd - %d), %d) + %d, %d) <= %d THEN %d ELSE %d END"
+    .formatted(CggttsSchedule.REFERENCE_START_MINUTE, CggttsSchedule.DAILY_SHIFT_MINUTES, CggttsSchedule.REFERENCE_MJD,
+      SessionSlots.SLOT_MINUTES, SessionSlots.SLOT_MINUTES, SessionSlots.SLOT_MINUTES,
+      24 * 60 - CggttsSchedule.TRACK_MINUTES - SessionSlots.SLOT_MINUTES * (SessionSlots.SLOTS_PER_DAY - 1),
+      SessionSlots.SLOTS_PER_DAY, SessionSlots.SLOTS_PER_DAY - 1);
+
+  // Population count of a bigint; portable to PostgreSQL versions without bit_count()
+  private static final String POPCOUNT = "length(replace(CAST(%s AS bit(64))::text, '0', ''))";
+
+  private static final String UPSERT_SQL = """
+      INSERT INTO session_rollup (source, mjd, slots_lo, slots_hi, observed_count, updated_at)
+      VALUES (?, ?, ?, ?, ?, now())
+      ON CONFLICT (source, mjd) DO UPDATE SET
+          slots_lo = session_rollup.slots_lo | EXCLUDED.slots_lo,
+          slots_hi = session_rollup.slots_hi | EXCLUDED.slots_hi,
+          observed_count = %s + %s,
+          updated_at = EXCLUDED.updated_at
+      """.formatted(POPCOUNT.formatted("session_rollup.slots_lo | EXCLUDED.slots_lo"),
+    POPCOUNT.formatted("session_rollup.slots_hi | EXCLUDED.slots_hi"));
+
+  // One-off: builds the rollup from existing data the first time it runs against an empty table
+  private static final String BACKFILL_SQL = """
+      INSERT INTO session_rollup (source, mjd, slots_lo, slots_hi, observed_count, updated_at)
+      SELECT source, mjd, lo, hi, %s + %s, now()
+      FROM (
+          SELECT source, mjd,
+                 bit_or(CASE WHEN slot < 64 THEN 1::bigint << slot ELSE 0 END) AS lo,
+                 bit_or(CASE WHEN slot >= 64 THEN 1::bigint << (slot - 64) ELSE 0 END) AS hi
+          FROM (
+              SELECT source, mjd, (substr(sttime, 1, 2)::int * 60 + substr(sttime, 3, 2)::int) / %d AS slot
+              FROM irnss_data
+              WHERE sttime ~ '^[0-9]{6}$'
+          ) t
+          WHERE slot < %d
+          GROUP BY source, mjd
+      ) g
+      ON CONFLICT (source, mjd) DO NOTHING
+      """.formatted(POPCOUNT.formatted("lo"), POPCOUNT.formatted("hi"),
+    SessionSlots.SLOT_MINUTES, SessionSlots.SLOTS_PER_DAY);
+
+  // Held while backfilling so only one node scans irnss_data into the rollup
+  private static final String BACKFILL_LEASE = "session-rollup-backfill";
+  private static final int BACKFILL_LEASE_SECONDS = 3600;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+  @Autowired
+  private ClusterCoordinationService clusterCoordinationService;
+
+  /**
+   * Builds an empty rollup from irnss_data, under a cluster lease. Called by ingest before it first records
+   * sessions; ingest must not record any until this succeeded, or a partial rollup looks populated.
+   * @return true when the rollup is populated (or irnss_data is empty); false when the backfill failed or
+   *         another node is running it, in which case the caller retries later
+   */
+  public boolean backfillIfEmpty() {
+    boolean leased = false;
+    try {
+      if (!isEmpty()) {
+        return true;
+      }
+      if (!clusterCoordinationService.tryAcquireLease(BACKFILL_LEASE, BACKFILL_LEASE_SECONDS)) {
+        logger.info("🧮 Session rollup backfill is running on another node");
+        return false;
+      }
+      leased = true;
+      // Another node may have finished between the first check and taking the lease
+      if (isEmpty()) {
+        long start = System.currentTimeMillis();
+        int rows = jdbcTemplate.update(BACKFILL_SQL);
+        logger.info("🧮 Backfilled session rollup with {} (source, mjd) entries in {} ms", rows,
+          System.currentTimeMillis() - start);
+      }
+      return true;
+    } catch (Exception e) {
+      logger.error("❌ Could not backfill session rollup: {}", e.getMessage());
+      return false;
+    } finally {
+      if (leased) {
+        clusterCoordinationService.releaseLease(BACKFILL_LEASE);
+      }
+    }
+  }
+
+  private boolean isEmpty() {
+    return Boolean.TRUE.equals(
+      jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM session_rollup)", Boolean.class));
+  }
+
+  /**
+   * Merges observed sessions into the rollup.
+   * @param slotsByMjd per MJD, the {@link SessionSlots} bits {@code [lo, hi]} seen for {@code source}
+   */
+  public void recordSessions(String source, Map<Integer, long[]> slotsByMjd) {
+    if (slotsByMjd.isEmpty()) {
+      return;
+    }
+    List<Object[]> batch = new ArrayList<>(slotsByMjd.size());
+    slotsByMjd.forEach((mjd, bits) ->
+      batch.add(new Object[]{source, mjd, bits[0], bits[1], SessionSlots.count(bits[0], bits[1])}));
+    jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+  }
+
+  /**
+   * Completeness per source and MJD, optionally narrowed to days at or below a threshold.
+   * @param maxObserved only days with at most this many observed sessions
+   * @param expected sessions expected per day; defaults to the day's CGGTTS schedule (89 or 90 tracks)
+   * @param maxCompletenessPercent only days whose observed / expected is at most this percentage
+   */
+  public List<SourceSessionStatusDTO> getSessionCompleteness(String source, Integer mjd, Integer maxObserved,
+                                                            Integer expected, Integer maxCompletenessPercent) {
+    ViewQueryBuilder builder = ViewQueryBuilder.from("session_rollup")
+      .where("s.source = :source", "source", source)
+      .where("s.mjd = :mjd", "mjd", mjd)
+      .where("s.observed_count <= :maxObserved", "maxObserved", maxObserved);
+    if (maxCompletenessPercent != null) {
+      if (expected != null) {
+        builder.where("s.observed_count * 100 <= :maxPercent * :expected",
+          "maxPercent", maxCompletenessPercent, "expected", expected);
+      } else {
+        builder.where("s.observed_count * 100 <= :maxPercent * " + EXPECTED_COUNT_SQL,
+          "maxPercent", maxCompletenessPercent);
+      }
+    }
+    builder.orderBy("mjd", false).orderBy("source", false);
+
+    return namedParameterJdbcTemplate.query(builder.selectSql("s.source, s.mjd, s.observed_count"),
+      builder.getSelectParams(),
+      (rs, rowNum) -> {
+        int day = rs.getInt("mjd");
+        long expectedSessions = expected != null ? expected : CggttsSchedule.expectedCount(day);
+        return new SourceSessionStatusDTO(rs.getString("source"), (long) day, rs.getLong("observed_count"), expectedSessions);
+      });
+  }
+
+  /**
+   * The current MJD in UTC.
+   */
+  public int currentMjd() {
+    return (int) ChronoUnit.DAYS.between(MJD_EPOCH, LocalDate.now(ZoneOffset.UTC));
+  }
+
+  /**
+   * Missing CGGTTS tracks per source and day in {@code [mjdFrom, mjdTo]}, ordered by source then day.
+   * Days without any data from a source that reported within the range count as entirely missing; on the
+   * current UTC day only tracks that have already ended are expected.
+   * @param source one source, or null for every source in the rollup
+   */
+  public List<SessionGapDTO> getSessionGaps(String source, int mjdFrom, int mjdTo) {
+    LocalDateTime nowUtc = LocalDateTime.now(ZoneOffset.UTC);
+    int todayMjd = (int) ChronoUnit.DAYS.between(MJD_EPOCH, nowUtc.toLocalDate());
+    int lastMjd = Math.min(mjdTo, todayMjd);
+
+    ViewQueryBuilder builder = ViewQueryBuilder.from("session_rollup")
+      .where("s.source = :source", "source", source)
+      .where("s.mjd >= :mjdFrom", "mjdFrom", mjdFrom)
+      .where("s.mjd <= :mjdTo", "mjdTo", lastMjd);
+    Map<String, Map<Integer, long[]>> observed = new TreeMap<>();
+    if (source != null) {
+      observed.put(source, new HashMap<>());
+    }
+    namedParameterJdbcTemplate.query(builder.selectSql("s.source, s.mjd, s.slots_lo, s.slots_hi"),
+      builder.getSelectParams(), rs -> {
+        observed.computeIfAbsent(rs.getString("source"), key -> new HashMap<>())
+          .put(rs.getInt("mjd"), new long[]{rs.getLong("slots_lo"), rs.getLong("slots_hi")});
+      });
+
+    long[] none = new long[2];
+    int minuteOfDay = nowUtc.getHour() * 60 + nowUtc.getMinute();
+    List<SessionGapDTO> result = new ArrayList<>();
+    observed.forEach((src, days) -> {
+      for (int day = mjdFrom; day <= lastMjd; day++) {
+        long[] expected = day == todayMjd
+          ? CggttsSchedule.expectedSlotsEndingBy(day, minuteOfDay)
+          : CggttsSchedule.expectedSlots(day);
+        result.add(toGapDto(src, day, expected, days.getOrDefault(day, none)));
+      }
+    });
+    return result;
+  }
+
+  private static SessionGapDTO toGapDto(String source, int mjd, long[] expected, long[] observed) {
+    int expectedCount = SessionSlots.count(expected[0], expected[1]);
+    int observedCount = SessionSlots.count(expected[0] & observed[0], expected[1] & observed[1]);
+
+    char[] slots = new char[SessionSlots.SLOTS_PER_DAY];
+    for (int slot = 0; slot < slots.length; slot++) {
+      slots[slot] = SessionSlots.isSet(observed[0], observed[1], slot) ? '1'
+        : SessionSlots.isSet(expected[0], expected[1], slot) ? '0' : '-';
+    }
+
+    List<SessionGapDTO.Gap> gaps = new ArrayList<>();
+    for (CggttsSchedule.Gap gap : CggttsSchedule.gaps(mjd, expected, observed[0], observed[1])) {
+      gaps.add(new SessionGapDTO.Gap(gap.firstSlot(), gap.lastSlot(), formatMinute(gap.startMinute()),
+        formatMinute(gap.endMinute()), gap.tracks()));
+    }
+    return new SessionGapDTO(source, mjd, expectedCount, observedCount, expectedCount - observedCount,
+      new String(slots), gaps);
+  }
+
+  private static String formatMinute(int minuteOfDay) {
+    return String.format("%02d:%02d", minuteOfDay / 60, minuteOfDay % 60);
+  }
+}
@@ -0,0 +1,234 @@
+package com.time.tracealibility.services;
+
+import com.time.tracealibility.events.DataVersionChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Per-(source2, mjd) upload statistics in {@code stats_daily_rollup}, so statistics reports read one row per
+ * source and day instead of every view row of the range.
+ *
+ * Maintained like the aggregate pyramid, by the node that refreshed the common view: after the refresh commits,
+ * the days from (latest rolled-up MJD - lookback) and every MJD that ingest recorded in data_change_log since the
+ * rollup's own watermark are rebuilt, so late files for older days are picked up too. An empty table is
+ * backfilled from the whole view on the first refresh.
+ */
+@Service
+public class StatisticsRollupService {
+
+  private static final Logger logger = LoggerFactory.getLogger(StatisticsRollupService.class);
+
+  private static final String COMMON_VIEW = "sat_common_view_difference_materialized";
+  public static final String ROLLUP_TABLE = "stats_daily_rollup";
+
+  private static final String REBUILD_SQL = """
+      INSERT INTO stats_daily_rollup
+          (source2, mjd, day, record_count, quality_sum, first_upload, last_upload, hourly_records, updated_at)
+      SELECT
+          source2,
+          mjd,
+          MIN(DATE(mjd_date_time)),
+          COUNT(*),
+          SUM(CASE WHEN ABS(avg_refsys_difference) <= 30 THEN 95 ELSE 75 END),
+          MIN(mjd_date_time),
+          MAX(mjd_date_time),
+          %s,
+          now()
+      FROM sat_common_view_difference_materialized
+      WHERE source2 IS NOT NULL AND mjd_date_time IS NOT NULL AND %s
+      GROUP BY source2, mjd
+      """;
+
+  // Record count per UTC hour, built in the same pass
+  private static final String HOURLY_HISTOGRAM = IntStream.range(0, 24)
+    .mapToObj(hour -> "COUNT(*) FILTER (WHERE EXTRACT(HOUR FROM mjd_date_time) = " + hour + ")")
+    .collect(Collectors.joining(", ", "ARRAY[", "]::int[]"));
+
+  private static final String CHANGED_MJDS_SQL =
+    "SELECT DISTINCT mjd FROM data_change_log WHERE change_seq > ? AND change_seq <= ?";
+
+  /**
+   * Same columns and grouping ids as the view-based report query of {@link RealFileUploadStatisticsService}:
+   * the totals, per-day and per-source groups, followed by one row per hour from the histograms.
+   */
+  private static final String REPORT_SQL = """
+      WITH days AS (
+          SELECT source2, mjd, day, record_count, quality_sum, first_upload, last_upload, hourly_records
+          FROM stats_daily_rollup s
+          %s
+      )
+      SELECT
+          GROUPING(day, source2) * 2 + 1 as grouping_id,
+          day as upload_date,
+          source2,
+          NULL::int as hour,
+          COUNT(*) as file_count,
+          SUM(record_count) as total_records,
+          COUNT(DISTINCT source2) as unique_locations,
+          SUM(quality_sum)::float8 / NULLIF(SUM(record_count), 0) as avg_quality,
+          MIN(first_upload) as first_upload,
+          MAX(last_upload) as last_upload
+      FROM days
+      GROUP BY GROUPING SETS ((), (day), (source2))
+      UNION ALL
+      SELECT
+          6, NULL, NULL, (h.hour - 1)::int,
+          COUNT(*) FILTER (WHERE h.records > 0), SUM(h.records), NULL, NULL, NULL, NULL
+      FROM days, unnest(days.hourly_records) WITH ORDINALITY AS h(records, hour)
+      GROUP BY h.hour
+      """;
+
+  private static final String RECENT_SQL = """
+      SELECT
+          source2,
+          mjd,
+          last_upload as upload_timestamp,
+          record_count as total_records,
+          quality_sum::float8 / NULLIF(record_count, 0) as quality_score
+      FROM stats_daily_rollup s
+      WHERE last_upload >= CURRENT_DATE - INTERVAL '7 days'%s
+      ORDER BY last_upload DESC
+      LIMIT 10
+      """;
+
+  @Autowired
+  private ClusterCoordinationService clusterCoordinationService;
+
+  @Autowired
+  private DeltaSyncService deltaSyncService;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Value("${app.statistics.rollup.enabled:true}")
+  private boolean enabled;
+
+  @Value("${app.statistics.rollup.lookback-days:3}")
+  private int lookbackDays;
+
+  private NamedParameterJdbcTemplate namedJdbcTemplate;
+  private TransactionTemplate transactionTemplate;
+  private volatile boolean populated;
+
+  @PostConstruct
+  public void init() {
+    namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    // The event listener runs after the refresh transaction committed, where joining it is not possible
+    transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  /**
+   * Only the node that refreshed the common view rebuilds, so the work is done once per refresh cluster-wide.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onDataVersionChanged(DataVersionChangedEvent event) {
+    if (!enabled || !event.isViewChange() || !COMMON_VIEW.equals(event.getSubject())
+      || !clusterCoordinationService.getNodeId().equals(event.getOriginNode())) {
+      return;
+    }
+    try {
+      updateRollup();
+    } catch (Exception e) {
+      logger.error("❌ Failed to update statistics rollup: {}", e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Rebuilds the changed and recent days in one transaction, so a report never sees a day half-written.
+   */
+  public void updateRollup() {
+    long startTime = System.currentTimeMillis();
+    Long viewWatermark = deltaSyncService.getWatermark(COMMON_VIEW);
+    Long rollupWatermark = deltaSyncService.getWatermark(ROLLUP_TABLE);
+    long upTo = viewWatermark != null ? viewWatermark : 0L;
+
+    Integer rows = transactionTemplate.execute(status -> {
+      Integer latest = jdbcTemplate.queryForObject("SELECT MAX(mjd) FROM stats_daily_rollup", Integer.class);
+      MapSqlParameterSource params = new MapSqlParameterSource();
+      String scope;
+      if (latest == null) {
+        scope = "TRUE";
+      } else {
+        List<Integer> changed = jdbcTemplate.queryForList(CHANGED_MJDS_SQL, Integer.class,
+          rollupWatermark != null ? rollupWatermark : 0L, upTo);
+        scope = "(mjd >= :since OR mjd = ANY(:changed))";
+        params.addValue("since", latest - lookbackDays);
+        params.addValue("changed", changed.toArray(new Integer[0]));
+      }
+      namedJdbcTemplate.update("DELETE FROM stats_daily_rollup WHERE " + scope, params);
+      int inserted = namedJdbcTemplate.update(REBUILD_SQL.formatted(HOURLY_HISTOGRAM, scope), params);
+      deltaSyncService.saveWatermark(ROLLUP_TABLE, upTo);
+      return inserted;
+    });
+    populated = true;
+    logger.info("📈 Statistics rollup updated ({} source-days) in {} ms", rows, System.currentTimeMillis() - startTime);
+  }
+
+  /**
+   * Whether the rollup has been built; until then reports are computed from the view.
+   */
+  public boolean isReady() {
+    if (!enabled) {
+      return false;
+    }
+    if (!populated) {
+      populated = Boolean.TRUE.equals(
+        jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM stats_daily_rollup)", Boolean.class));
+    }
+    return populated;
+  }
+
+  /**
+   * Report aggregates for the days {@code [startDay, endDay]}, optionally limited to source2 values and one MJD.
+   */
+  public List<Map<String, Object>> queryReportAggregates(LocalDate startDay, LocalDate endDay, List<String> source2,
+                                                         Integer mjd) {
+    MapSqlParameterSource params = new MapSqlParameterSource()
+      .addValue("startDay", startDay)
+      .addValue("endDay", endDay);
+    String where = "WHERE s.day BETWEEN :startDay AND :endDay" + filters(params, source2, mjd);
+    return namedJdbcTemplate.queryForList(REPORT_SQL.formatted(where), params);
+  }
+
+  /**
+   * The ten most recently received (source2, mjd) files of the last week.
+   */
+  public List<Map<String, Object>> queryRecentUploads(List<String> source2, Integer mjd) {
+    MapSqlParameterSource params = new MapSqlParameterSource();
+    return namedJdbcTemplate.queryForList(RECENT_SQL.formatted(filters(params, source2, mjd)), params);
+  }
+
+  private static String filters(MapSqlParameterSource params, List<String> source2, Integer mjd) {
+    StringBuilder sql = new StringBuilder();
+    if (source2 != null && !source2.isEmpty()) {
+      sql.append(" AND s.source2 = ANY(:source2)");
+      params.addValue("source2", source2.toArray(new String[0]));
+    }
+    if (mjd != null) {
+      sql.append(" AND s.mjd = :mjd");
+      params.addValue("mjd", mjd);
+    }
+    return sql.toString();
+  }
+}
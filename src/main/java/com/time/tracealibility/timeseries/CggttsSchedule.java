@@ -0,0 +1,132 @@
+package com.time.tracealibility.timeseries;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The CGGTTS common-view tracking schedule: 13-minute tracks every 16 minutes, the first one starting at
+ * 00:02 UTC on MJD 50722 and every day 4 minutes earlier (one sidereal day), so the schedule repeats after
+ * four days. A track that would run past midnight is not scheduled, which leaves 90 tracks on days whose
+ * first start is 00:02 and 89 on the other three.
+ *
+ * Tracks are addressed by their {@link SessionSlots} slot, and a day's schedule is a 90-bit set, so comparing
+ * it with observed sessions is a few bitwise operations per (source, mjd).
+ */
+public final class CggttsSchedule {
+
+    public static final int REFERENCE_MJD = 50722;
+    public static final int REFERENCE_START_MINUTE = 2;
+    public static final int DAILY_SHIFT_MINUTES = 4;
+    public static final int TRACK_MINUTES = 13;
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    // The schedule only depends on mjd mod 4; index by the start offset's phase
+    private static final long[][] EXPECTED_BY_PHASE = new long[4][];
+
+    static {
+        for (int phase = 0; phase < 4; phase++) {
+            EXPECTED_BY_PHASE[phase] = buildExpected(REFERENCE_MJD + phase);
+        }
+    }
+
+    private CggttsSchedule() {
+    }
+
+    /**
+     * Minute of the day (0-15) at which the first track of {@code mjd} starts.
+     */
+    public static int startOffsetMinutes(int mjd) {
+        long shifted = REFERENCE_START_MINUTE - (long) DAILY_SHIFT_MINUTES * (mjd - REFERENCE_MJD);
+        return (int) Math.floorMod(shifted, SessionSlots.SLOT_MINUTES);
+    }
+
+    /**
+     * Scheduled slots of {@code mjd} as {@code [lo, hi]}; the returned array is shared, do not modify it.
+     */
+    public static long[] expectedSlots(int mjd) {
+        return EXPECTED_BY_PHASE[Math.floorMod(mjd - REFERENCE_MJD, 4)];
+    }
+
+    /**
+     * Slots of {@code mjd} whose track has ended by {@code minuteOfDay}, for the day in progress.
+     */
+    public static long[] expectedSlotsEndingBy(int mjd, int minuteOfDay) {
+        long[] expected = expectedSlots(mjd);
+        long[] bits = new long[2];
+        for (int slot = 0; slot < SessionSlots.SLOTS_PER_DAY; slot++) {
+            if (SessionSlots.isSet(expected[0], expected[1], slot)
+                    && trackStartMinute(mjd, slot) + TRACK_MINUTES <= minuteOfDay) {
+                SessionSlots.set(bits, slot);
+            }
+        }
+        return bits;
+    }
+
+    public static int expectedCount(int mjd) {
+        long[] expected = expectedSlots(mjd);
+        return SessionSlots.count(expected[0], expected[1]);
+    }
+
+    /**
+     * Start minute of the day of the track in {@code slot} on {@code mjd}.
+     */
+    public static int trackStartMinute(int mjd, int slot) {
+        return slot * SessionSlots.SLOT_MINUTES + startOffsetMinutes(mjd);
+    }
+
+    /**
+     * Scheduled but unobserved slots as {@code [lo, hi]}.
+     */
+    public static long[] missingSlots(long[] expected, long observedLo, long observedHi) {
+        return new long[]{expected[0] & ~observedLo, expected[1] & ~observedHi};
+    }
+
+    /**
+     * Runs of consecutive missing tracks of the full day, in schedule order.
+     */
+    public static List<Gap> gaps(int mjd, long observedLo, long observedHi) {
+        return gaps(mjd, expectedSlots(mjd), observedLo, observedHi);
+    }
+
+    /**
+     * Runs of consecutive tracks of {@code expected} that were not observed, in schedule order.
+     */
+    public static List<Gap> gaps(int mjd, long[] expected, long observedLo, long observedHi) {
+        long[] missing = missingSlots(expected, observedLo, observedHi);
+        List<Gap> gaps = new ArrayList<>();
+        int slot = 0;
+        while (slot < SessionSlots.SLOTS_PER_DAY) {
+            if (!SessionSlots.isSet(missing[0], missing[1], slot)) {
+                slot++;
+                continue;
+            }
+            int first = slot;
+            while (slot < SessionSlots.SLOTS_PER_DAY && SessionSlots.isSet(missing[0], missing[1], slot)) {
+                slot++;
+            }
+            gaps.add(new Gap(first, slot - 1, trackStartMinute(mjd, first), trackStartMinute(mjd, slot - 1) + TRACK_MINUTES));
+        }
+        return gaps;
+    }
+
+    private static long[] buildExpected(int mjd) {
+        long[] bits = new long[2];
+        for (int slot = 0; slot < SessionSlots.SLOTS_PER_DAY; slot++) {
+            if (trackStartMinute(mjd, slot) + TRACK_MINUTES <= MINUTES_PER_DAY) {
+                SessionSlots.set(bits, slot);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Missing tracks {@code firstSlot..lastSlot}, from the first one's start to the last one's end (minutes of the day).
+     */
+    public record Gap(int firstSlot, int lastSlot, int startMinute, int endMinute) {
+
+        public int tracks() {
+            return lastSlot - firstSlot + 1;
+        }
+    }
+}
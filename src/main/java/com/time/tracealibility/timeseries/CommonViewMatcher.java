@@ -0,0 +1,291 @@
+package com.time.tracealibility.timeseries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * In-memory common-view matching of the CGGTTS tracks of two receivers, for any (source1, source2) pair
+ * instead of only the pairs the materialized views were built for.
+ *
+ * Tracks of both sources are joined on (satellite, MJD, STTIME): the second source's tracks are put in a
+ * {@link LongIntHashMap} keyed by the packed join key, and the first source's tracks probe it. Matched tracks
+ * are then reduced per (satellite letter, MJD, STTIME) epoch into the columns of sat_combined_view_difference:
+ * <ul>
+ *   <li>{@code commonSatellites}: satellites of that constellation tracked by both receivers in the epoch</li>
+ *   <li>{@code avg1} / {@code avg2}: mean REFSYS of those satellites at source1 / source2</li>
+ *   <li>{@code avgDifference}: {@code avg1 - avg2}</li>
+ *   <li>{@code weightedAvg1} / {@code weightedAvg2} / {@code weightedAvgDifference}: the same means with each
+ *       satellite weighted by the given {@link Weighting}</li>
+ * </ul>
+ * Values are in the units of irnss_data.refsys (CGGTTS: 0.1 ns); scaling them is up to the caller.
+ *
+ * The MJD range is split into blocks of {@code daysPerTask} days that are matched in parallel on a
+ * {@link ForkJoinPool}; each block only builds a hash table for its own days, and results come back in
+ * (MJD, STTIME, satellite letter) order.
+ */
+public final class CommonViewMatcher {
+
+    // Join key: mjd | second of day (17 bits) | letter (5 bits) | satellite number (8 bits)
+    private static final int SAT_BITS = 13;
+    private static final int SECOND_BITS = 17;
+
+    private CommonViewMatcher() {
+    }
+
+    /**
+     * Weight of one common satellite in the weighted columns.
+     */
+    public enum Weighting {
+        /** Every satellite counts the same; the weighted columns equal the plain means. */
+        EQUAL,
+        /** Inverse variance of the difference, {@code 1 / (dsg1² + dsg2²)}, DSG floored at one unit. */
+        INVERSE_DSG
+    }
+
+    /**
+     * Result of one (satellite letter, MJD, STTIME) epoch with at least one common satellite.
+     */
+    public record Epoch(char satLetter, int mjd, int secondOfDay, int commonSatellites,
+                        double avg1, double avg2, double avgDifference,
+                        double weightedAvg1, double weightedAvg2, double weightedAvgDifference) {
+    }
+
+    /**
+     * Columnar CGGTTS tracks of one source, appended in (MJD, STTIME, satellite) order.
+     */
+    public static final class Tracks {
+
+        private int size;
+        private int[] mjds = new int[64];
+        private int[] seconds = new int[64];
+        private char[] letters = new char[64];
+        private int[] satNumbers = new int[64];
+        private int[] refsys = new int[64];
+        private int[] dsg = new int[64];
+
+        /**
+         * Appends one track; tracks must arrive in ascending (MJD, STTIME) order with the satellites of one
+         * constellation next to each other, i.e. ordered by MJD, STTIME and then the satellite letter.
+         */
+        public void add(int mjd, int secondOfDay, char satLetter, int satNumber, int refsysValue, int dsgValue) {
+            if (size > 0 && mjd < mjds[size - 1]) {
+                throw new IllegalArgumentException("Tracks must be added in MJD order");
+            }
+            if (size == mjds.length) {
+                int capacity = size * 2;
+                mjds = Arrays.copyOf(mjds, capacity);
+                seconds = Arrays.copyOf(seconds, capacity);
+                letters = Arrays.copyOf(letters, capacity);
+                satNumbers = Arrays.copyOf(satNumbers, capacity);
+                refsys = Arrays.copyOf(refsys, capacity);
+                dsg = Arrays.copyOf(dsg, capacity);
+            }
+            mjds[size] = mjd;
+            seconds[size] = secondOfDay;
+            letters[size] = Character.toUpperCase(satLetter);
+            satNumbers[size] = satNumber;
+            refsys[size] = refsysValue;
+            dsg[size] = dsgValue;
+            size++;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        long key(int i) {
+            return joinKey(mjds[i], seconds[i], letters[i], satNumbers[i]);
+        }
+
+        // First index whose MJD is >= mjd
+        int lowerBound(int mjd) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (mjds[mid] < mjd) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+
+    /**
+     * Matches {@code source1} against {@code source2} for MJDs {@code [startMjd, endMjd]} on {@code pool}.
+     */
+    public static List<Epoch> match(Tracks source1, Tracks source2, int startMjd, int endMjd, Weighting weighting,
+                                    ForkJoinPool pool, int daysPerTask) {
+        if (endMjd < startMjd || source1.size() == 0 || source2.size() == 0) {
+            return List.of();
+        }
+        return pool.invoke(new MatchTask(source1, source2, startMjd, endMjd, weighting, Math.max(1, daysPerTask)));
+    }
+
+    /**
+     * Matches MJDs {@code [startMjd, endMjd]} on the calling thread.
+     */
+    public static List<Epoch> matchRange(Tracks source1, Tracks source2, int startMjd, int endMjd,
+                                         Weighting weighting) {
+        int from1 = source1.lowerBound(startMjd);
+        int to1 = source1.lowerBound(endMjd + 1);
+        int from2 = source2.lowerBound(startMjd);
+        int to2 = source2.lowerBound(endMjd + 1);
+        if (from1 == to1 || from2 == to2) {
+            return List.of();
+        }
+
+        LongIntHashMap index = new LongIntHashMap(to2 - from2);
+        for (int j = from2; j < to2; j++) {
+            index.put(source2.key(j), j);
+        }
+
+        List<Epoch> epochs = new ArrayList<>();
+        EpochAccumulator epoch = new EpochAccumulator(weighting);
+        for (int i = from1; i < to1; i++) {
+            if (!epoch.isSame(source1, i)) {
+                epoch.flushTo(epochs);
+                epoch.start(source1, i);
+            }
+            int j = index.get(source1.key(i), -1);
+            if (j >= 0) {
+                epoch.add(source1.refsys[i], source1.dsg[i], source2.refsys[j], source2.dsg[j]);
+            }
+        }
+        epoch.flushTo(epochs);
+        return epochs;
+    }
+
+    static long joinKey(int mjd, int secondOfDay, char satLetter, int satNumber) {
+        int letter = satLetter >= 'A' && satLetter <= 'Z' ? satLetter - 'A' + 1 : 0;
+        long sat = ((long) letter << 8) | (satNumber & 0xFF);
+        return ((long) mjd << (SECOND_BITS + SAT_BITS)) | ((long) secondOfDay << SAT_BITS) | sat;
+    }
+
+    /**
+     * Second of the day of a CGGTTS STTIME ({@code hhmmss}), or -1 when it is not one.
+     */
+    public static int secondOfDay(String sttime) {
+        if (sttime == null || sttime.length() != 6) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < 6; i++) {
+            char c = sttime.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        int hours = value / 10000;
+        int minutes = value / 100 % 100;
+        int secs = value % 100;
+        if (hours > 23 || minutes > 59 || secs > 59) {
+            return -1;
+        }
+        return hours * 3600 + minutes * 60 + secs;
+    }
+
+    private static final class EpochAccumulator {
+
+        private final Weighting weighting;
+        private boolean started;
+        private char letter;
+        private int mjd;
+        private int second;
+        private int count;
+        private double sum1;
+        private double sum2;
+        private double weightSum;
+        private double weightedSum1;
+        private double weightedSum2;
+
+        EpochAccumulator(Weighting weighting) {
+            this.weighting = weighting;
+        }
+
+        boolean isSame(Tracks tracks, int i) {
+            return started && tracks.mjds[i] == mjd && tracks.seconds[i] == second && tracks.letters[i] == letter;
+        }
+
+        void start(Tracks tracks, int i) {
+            started = true;
+            letter = tracks.letters[i];
+            mjd = tracks.mjds[i];
+            second = tracks.seconds[i];
+            count = 0;
+            sum1 = sum2 = weightSum = weightedSum1 = weightedSum2 = 0;
+        }
+
+        void add(int refsys1, int dsg1, int refsys2, int dsg2) {
+            double weight = 1.0;
+            if (weighting == Weighting.INVERSE_DSG) {
+                double sigma1 = Math.max(1, Math.abs(dsg1));
+                double sigma2 = Math.max(1, Math.abs(dsg2));
+                weight = 1.0 / (sigma1 * sigma1 + sigma2 * sigma2);
+            }
+            count++;
+            sum1 += refsys1;
+            sum2 += refsys2;
+            weightSum += weight;
+            weightedSum1 += weight * refsys1;
+            weightedSum2 += weight * refsys2;
+        }
+
+        void flushTo(List<Epoch> epochs) {
+            if (!started || count == 0) {
+                return;
+            }
+            double avg1 = sum1 / count;
+            double avg2 = sum2 / count;
+            double weightedAvg1 = weightedSum1 / weightSum;
+            double weightedAvg2 = weightedSum2 / weightSum;
+            epochs.add(new Epoch(letter, mjd, second, count, avg1, avg2, avg1 - avg2,
+                weightedAvg1, weightedAvg2, weightedAvg1 - weightedAvg2));
+        }
+    }
+
+    private static final class MatchTask extends RecursiveTask<List<Epoch>> {
+
+        private final Tracks source1;
+        private final Tracks source2;
+        private final int startMjd;
+        private final int endMjd;
+        private final Weighting weighting;
+        private final int daysPerTask;
+
+        MatchTask(Tracks source1, Tracks source2, int startMjd, int endMjd, Weighting weighting, int daysPerTask) {
+            this.source1 = source1;
+            this.source2 = source2;
+            this.startMjd = startMjd;
+            this.endMjd = endMjd;
+            this.weighting = weighting;
+            this.daysPerTask = daysPerTask;
+        }
+
+        @Override
+        protected List<Epoch> compute() {
+            if (endMjd - startMjd + 1 <= daysPerTask) {
+                return matchRange(source1, source2, startMjd, endMjd, weighting);
+            }
+            int middle = startMjd + (endMjd - startMjd) / 2;
+            MatchTask left = new MatchTask(source1, source2, startMjd, middle, weighting, daysPerTask);
+            MatchTask right = new MatchTask(source1, source2, middle + 1, endMjd, weighting, daysPerTask);
+            left.fork();
+            List<Epoch> rightEpochs = right.compute();
+            List<Epoch> leftEpochs = left.join();
+            if (rightEpochs.isEmpty()) {
+                return leftEpochs;
+            }
+            List<Epoch> merged = new ArrayList<>(leftEpochs.size() + rightEpochs.size());
+            merged.addAll(leftEpochs);
+            merged.addAll(rightEpochs);
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.time.tracealibility.timeseries;
+
+import com.time.tracealibility.codec.GorillaBlock;
+import com.time.tracealibility.codec.GorillaDecoder;
+import com.time.tracealibility.codec.GorillaEncoder;
+import com.time.tracealibility.entity.SatCommonViewDifference;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Immutable, time-sorted columnar copy of common-view rows of one (source1, source2) pair.
+ *
+ * Every field is held in a primitive array instead of one entity object per row: timestamps as epoch millis (UTC),
+ * doubles with NaN standing in for SQL NULL, low-cardinality strings (satellite letter, sttime) as dictionary
+ * codes and ids as UTF-8 bytes in one shared buffer. Rows are only turned back into entities when they are returned.
+ *
+ * {@link #compress()} turns the numeric columns into one {@link GorillaBlock} (timestamps as delta-of-delta,
+ * every other column XOR-encoded), for data that will not change again. Compressed blocks are read by a
+ * sequential decode, which is cheap next to building the returned entities.
+ */
+public final class CommonViewSeriesBlock {
+
+    // Value columns of the compressed form, in encoding order
+    private static final int AVG1 = 0;
+    private static final int AVG2 = 1;
+    private static final int AVG_REFSYS_DIFFERENCE = 2;
+    private static final int MJD = 3;
+    private static final int COMMON_SATELLITES = 4;
+    private static final int SAT_LETTER_CODE = 5;
+    private static final int STTIME_CODE = 6;
+    private static final int COMPRESSED_COLUMNS = 7;
+
+    private final String source1;
+    private final String source2;
+    private final int size;
+    private final long firstTime;
+    private final long lastTime;
+    private final int[] idOffsets; // size + 1 entries into idBytes
+    private final byte[] idBytes;
+    private final String[] dictionary;
+
+    // Uncompressed columns; all null once compressed
+    private final long[] times;
+    private final int[] mjds;
+    private final int[] commonSatellites;
+    private final int[] satLetterCodes;
+    private final int[] sttimeCodes;
+    private final double[] avg1;
+    private final double[] avg2;
+    private final double[] avgRefsysDifference;
+
+    private final GorillaBlock packed;
+
+    private CommonViewSeriesBlock(String source1, String source2, long[] times, int[] mjds, int[] commonSatellites,
+                                  int[] satLetterCodes, int[] sttimeCodes, double[] avg1, double[] avg2,
+                                  double[] avgRefsysDifference, int[] idOffsets, byte[] idBytes, String[] dictionary) {
+        this.source1 = source1;
+        this.source2 = source2;
+        this.size = times.length;
+        this.firstTime = size == 0 ? Long.MAX_VALUE : times[0];
+        this.lastTime = size == 0 ? Long.MIN_VALUE : times[size - 1];
+        this.times = times;
+        this.mjds = mjds;
+        this.commonSatellites = commonSatellites;
+        this.satLetterCodes = satLetterCodes;
+        this.sttimeCodes = sttimeCodes;
+        this.avg1 = avg1;
+        this.avg2 = avg2;
+        this.avgRefsysDifference = avgRefsysDifference;
+        this.idOffsets = idOffsets;
+        this.idBytes = idBytes;
+        this.dictionary = dictionary;
+        this.packed = null;
+    }
+
+    private CommonViewSeriesBlock(CommonViewSeriesBlock raw, GorillaBlock packed) {
+        this.source1 = raw.source1;
+        this.source2 = raw.source2;
+        this.size = raw.size;
+        this.firstTime = raw.firstTime;
+        this.lastTime = raw.lastTime;
+        this.idOffsets = raw.idOffsets;
+        this.idBytes = raw.idBytes;
+        this.dictionary = raw.dictionary;
+        this.times = null;
+        this.mjds = null;
+        this.commonSatellites = null;
+        this.satLetterCodes = null;
+        this.sttimeCodes = null;
+        this.avg1 = null;
+        this.avg2 = null;
+        this.avgRefsysDifference = null;
+        this.packed = packed;
+    }
+
+    public String getSource1() {
+        return source1;
+    }
+
+    public String getSource2() {
+        return source2;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long firstTime() {
+        return firstTime;
+    }
+
+    public long lastTime() {
+        return lastTime;
+    }
+
+    public boolean isCompressed() {
+        return packed != null;
+    }
+
+    /**
+     * Gorilla-compressed copy of this block; returns this block if it is already compressed
+     * or if compression would not make it smaller.
+     */
+    public CommonViewSeriesBlock compress() {
+        if (packed != null) {
+            return this;
+        }
+        GorillaEncoder encoder = new GorillaEncoder(COMPRESSED_COLUMNS, size);
+        double[] row = new double[COMPRESSED_COLUMNS];
+        for (int i = 0; i < size; i++) {
+            row[AVG1] = avg1[i];
+            row[AVG2] = avg2[i];
+            row[AVG_REFSYS_DIFFERENCE] = avgRefsysDifference[i];
+            row[MJD] = mjds[i];
+            row[COMMON_SATELLITES] = commonSatellites[i];
+            row[SAT_LETTER_CODE] = satLetterCodes[i];
+            row[STTIME_CODE] = sttimeCodes[i];
+            encoder.append(times[i], row);
+        }
+        GorillaBlock block = encoder.finish();
+        // Noisy measurements can XOR to nearly full-width values; keep the raw arrays when packing does not pay
+        return block.getSizeInBytes() < rawColumnBytes() ? new CommonViewSeriesBlock(this, block) : this;
+    }
+
+    private long rawColumnBytes() {
+        return (long) size * (8 + 4 + 4 + 4 + 4 + 8 + 8 + 8);
+    }
+
+    /**
+     * Rebuilds entity rows for {@code [fromTime, toTime]} (inclusive) in time order.
+     */
+    public void forEachInRange(long fromTime, long toTime, Consumer<SatCommonViewDifference> consumer) {
+        if (size == 0 || fromTime > lastTime || toTime < firstTime) {
+            return;
+        }
+        if (packed == null) {
+            for (int i = lowerBound(fromTime); i < size && times[i] <= toTime; i++) {
+                consumer.accept(newRow(i, times[i], mjds[i], commonSatellites[i], satLetterCodes[i], sttimeCodes[i],
+                    avg1[i], avg2[i], avgRefsysDifference[i]));
+            }
+            return;
+        }
+        GorillaDecoder decoder = packed.decoder();
+        while (decoder.next()) {
+            long time = decoder.getTimestamp();
+            if (time > toTime) {
+                break;
+            }
+            if (time >= fromTime) {
+                consumer.accept(newRow(decoder.getIndex(), time, (int) decoder.getValue(MJD),
+                    (int) decoder.getValue(COMMON_SATELLITES), (int) decoder.getValue(SAT_LETTER_CODE),
+                    (int) decoder.getValue(STTIME_CODE), decoder.getValue(AVG1), decoder.getValue(AVG2),
+                    decoder.getValue(AVG_REFSYS_DIFFERENCE)));
+            }
+        }
+    }
+
+    /**
+     * Approximate heap footprint, used to enforce the cache memory budget.
+     */
+    public long estimatedBytes() {
+        long columnBytes = packed != null ? packed.getSizeInBytes() : rawColumnBytes();
+        // Dictionary strings are interned and shared by every chunk, so only the references count here
+        return 160 + columnBytes + 4L * (size + 1) + idBytes.length + 8L * dictionary.length;
+    }
+
+    private int lowerBound(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private SatCommonViewDifference newRow(int index, long time, int mjd, int commonSatelliteCount, int satLetterCode,
+                                           int sttimeCode, double avg1Value, double avg2Value, double differenceValue) {
+        SatCommonViewDifference row = new SatCommonViewDifference();
+        int idStart = idOffsets[index];
+        row.setId(new String(idBytes, idStart, idOffsets[index + 1] - idStart, StandardCharsets.UTF_8));
+        row.setSatLetter(dictionary[satLetterCode]);
+        row.setMjd(mjd);
+        row.setCommonSattelite(commonSatelliteCount);
+        row.setSttime(dictionary[sttimeCode]);
+        row.setMjdDateTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneOffset.UTC));
+        row.setSource1(source1);
+        row.setSource2(source2);
+        row.setAvg1(boxed(avg1Value));
+        row.setAvg2(boxed(avg2Value));
+        row.setAvgRefsysDifference(boxed(differenceValue));
+        return row;
+    }
+
+    private static Double boxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static double unboxed(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    public static long epochMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * Collects rows (in any order) and builds a sorted block.
+     */
+    public static final class Builder {
+        private final String source1;
+        private final String source2;
+        private final List<SatCommonViewDifference> rows = new ArrayList<>();
+
+        public Builder(String source1, String source2) {
+            this.source1 = source1;
+            this.source2 = source2;
+        }
+
+        public Builder add(SatCommonViewDifference row) {
+            if (row.getMjdDateTime() != null) {
+                rows.add(row);
+            }
+            return this;
+        }
+
+        public int size() {
+            return rows.size();
+        }
+
+        public CommonViewSeriesBlock build() {
+            rows.sort((a, b) -> a.getMjdDateTime().compareTo(b.getMjdDateTime()));
+            int size = rows.size();
+            long[] times = new long[size];
+            int[] mjds = new int[size];
+            int[] commonSatellites = new int[size];
+            int[] satLetterCodes = new int[size];
+            int[] sttimeCodes = new int[size];
+            double[] avg1 = new double[size];
+            double[] avg2 = new double[size];
+            double[] avgRefsysDifference = new double[size];
+            int[] idOffsets = new int[size + 1];
+            Map<String, Integer> codes = new HashMap<>();
+            List<String> dictionary = new ArrayList<>();
+            byte[][] ids = new byte[size][];
+            int idLength = 0;
+
+            for (int i = 0; i < size; i++) {
+                SatCommonViewDifference row = rows.get(i);
+                times[i] = epochMillis(row.getMjdDateTime());
+                mjds[i] = row.getMjd();
+                commonSatellites[i] = row.getCommonSattelite();
+                satLetterCodes[i] = code(codes, dictionary, row.getSatLetter());
+                sttimeCodes[i] = code(codes, dictionary, row.getSttime());
+                avg1[i] = unboxed(row.getAvg1());
+                avg2[i] = unboxed(row.getAvg2());
+                avgRefsysDifference[i] = unboxed(row.getAvgRefsysDifference());
+                ids[i] = row.getId() != null ? row.getId().getBytes(StandardCharsets.UTF_8) : new byte[0];
+                idLength += ids[i].length;
+            }
+
+            byte[] idBytes = new byte[idLength];
+            int offset = 0;
+            for (int i = 0; i < size; i++) {
+                idOffsets[i] = offset;
+                System.arraycopy(ids[i], 0, idBytes, offset, ids[i].length);
+                offset += ids[i].length;
+            }
+            idOffsets[size] = offset;
+
+            return new CommonViewSeriesBlock(source1, source2, times, mjds, commonSatellites, satLetterCodes,
+                sttimeCodes, avg1, avg2, avgRefsysDifference, idOffsets, idBytes, dictionary.toArray(new String[0]));
+        }
+
+        private static int code(Map<String, Integer> codes, List<String> dictionary, String value) {
+            return codes.computeIfAbsent(value, key -> {
+                dictionary.add(key != null ? key.intern() : null);
+                return dictionary.size() - 1;
+            });
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CommonViewSeriesBlock{" + source1 + "|" + source2 + ", rows=" + size
+            + (packed != null ? ", compressed" : "") + '}';
+    }
+}
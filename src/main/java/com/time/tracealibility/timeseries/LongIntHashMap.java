@@ -0,0 +1,88 @@
+package com.time.tracealibility.timeseries;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from non-negative {@code long} keys to {@code int} values, with linear probing and no
+ * boxing. Keys and values live in two parallel arrays, so a lookup touches one or two cache lines instead of
+ * a chain of {@code Long}/{@code Integer}/entry objects. Only puts and lookups are supported; there is no removal.
+ */
+final class LongIntHashMap {
+
+    private static final long EMPTY = -1L;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Maps {@code key} (must be {@code >= 0}) to {@code value}, replacing an earlier value.
+     */
+    void put(long key, int value) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Keys must not be negative: " + key);
+        }
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    /**
+     * Value of {@code key}, or {@code missing} when it is not mapped.
+     */
+    int get(long key, int missing) {
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return missing;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        // Fibonacci hashing spreads the packed key fields over the high bits
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
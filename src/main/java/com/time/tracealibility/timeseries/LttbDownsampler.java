@@ -0,0 +1,164 @@
+package com.time.tracealibility.timeseries;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Single-pass Largest-Triangle-Three-Buckets downsampler for one time series.
+ *
+ * The time range is split into {@code maxPoints - 2} equal-width buckets. Points must arrive in time order;
+ * only the bucket being filled and the one waiting for its successor's average are buffered, so memory is
+ * bounded by two buckets instead of the whole series. The first and last points are always kept and the
+ * selected payloads are handed to {@code sink} in time order.
+ *
+ * @param <T> the row carried along with each point
+ */
+public class LttbDownsampler<T> {
+
+    private final long startX;
+    private final double bucketWidth;
+    private final int middleBuckets;
+    private final Consumer<T> sink;
+
+    private Point<T> first;
+    private Point<T> last;
+    private Point<T> selected;
+
+    private List<Point<T>> pending;
+    private List<Point<T>> current = new ArrayList<>();
+    private int currentBucket = -1;
+
+    private long acceptedPoints;
+    private long emittedPoints;
+
+    /**
+     * @param startX    start of the plotted range (e.g. epoch millis)
+     * @param endX      end of the plotted range
+     * @param maxPoints upper bound on emitted points, at least 3
+     * @param sink      receives the selected rows
+     */
+    public LttbDownsampler(long startX, long endX, int maxPoints, Consumer<T> sink) {
+        if (maxPoints < 3) {
+            throw new IllegalArgumentException("maxPoints must be at least 3");
+        }
+        this.startX = startX;
+        this.middleBuckets = maxPoints - 2;
+        this.bucketWidth = Math.max(1.0, (double) (endX - startX) / middleBuckets);
+        this.sink = sink;
+    }
+
+    public void accept(long x, double y, T payload) {
+        acceptedPoints++;
+        Point<T> point = new Point<>(x, y, payload);
+        if (first == null) {
+            first = point;
+            selected = point;
+            emit(point);
+            return;
+        }
+        // Hold each point back by one so the very last point can be kept verbatim in finish()
+        if (last != null) {
+            addToBucket(last);
+        }
+        last = point;
+    }
+
+    /**
+     * Flushes the remaining buckets and the last point. Must be called once after the final {@link #accept}.
+     */
+    public void finish() {
+        if (last == null) {
+            return;
+        }
+        if (!current.isEmpty()) {
+            if (pending != null) {
+                selectFrom(pending, averageX(current), averageY(current));
+            }
+            pending = current;
+            current = new ArrayList<>();
+        }
+        if (pending != null) {
+            selectFrom(pending, last.x, last.y);
+            pending = null;
+        }
+        emit(last);
+        last = null;
+    }
+
+    public long getAcceptedPoints() {
+        return acceptedPoints;
+    }
+
+    public long getEmittedPoints() {
+        return emittedPoints;
+    }
+
+    private void addToBucket(Point<T> point) {
+        int bucket = bucketOf(point.x);
+        if (bucket != currentBucket && !current.isEmpty()) {
+            // The current bucket is complete: its average decides the pick in the bucket before it
+            if (pending != null) {
+                selectFrom(pending, averageX(current), averageY(current));
+            }
+            pending = current;
+            current = new ArrayList<>();
+        }
+        currentBucket = bucket;
+        current.add(point);
+    }
+
+    private int bucketOf(long x) {
+        long bucket = (long) ((x - startX) / bucketWidth);
+        return (int) Math.max(0, Math.min(middleBuckets - 1, bucket));
+    }
+
+    private void selectFrom(List<Point<T>> bucket, double cx, double cy) {
+        Point<T> best = bucket.get(0);
+        double bestArea = -1;
+        for (Point<T> candidate : bucket) {
+            // Twice the triangle area (selected, candidate, next-bucket average); the factor does not affect the argmax
+            double area = Math.abs((selected.x - cx) * (candidate.y - selected.y)
+                    - (selected.x - candidate.x) * (cy - selected.y));
+            if (area > bestArea) {
+                bestArea = area;
+                best = candidate;
+            }
+        }
+        selected = best;
+        emit(best);
+    }
+
+    private void emit(Point<T> point) {
+        emittedPoints++;
+        sink.accept(point.payload);
+    }
+
+    private static <T> double averageX(List<Point<T>> points) {
+        double sum = 0;
+        for (Point<T> point : points) {
+            sum += point.x;
+        }
+        return sum / points.size();
+    }
+
+    private static <T> double averageY(List<Point<T>> points) {
+        double sum = 0;
+        for (Point<T> point : points) {
+            sum += point.y;
+        }
+        return sum / points.size();
+    }
+
+    private static final class Point<T> {
+        final long x;
+        final double y;
+        final T payload;
+
+        Point(long x, double y, T payload) {
+            this.x = x;
+            this.y = y;
+            this.payload = payload;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.time.tracealibility.timeseries;
+
+/**
+ * The 90 CGGTTS tracking slots of a day as a 90-bit set held in two longs: slots 0-63 in {@code lo},
+ * slots 64-89 in the low bits of {@code hi}.
+ *
+ * A slot is {@code minuteOfDay / 16}. Track start times sit at a fixed offset below 16 minutes within their
+ * 16-minute period, so every track of a day falls into its own slot whatever that day's offset is.
+ */
+public final class SessionSlots {
+
+    public static final int SLOT_MINUTES = 16;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    private SessionSlots() {
+    }
+
+    /**
+     * Slot of an {@code HHMMSS} start time, or -1 if it is not one.
+     */
+    public static int slotOf(String sttime) {
+        if (sttime == null || sttime.length() != 6) {
+            return -1;
+        }
+        for (int i = 0; i < 6; i++) {
+            if (!Character.isDigit(sttime.charAt(i))) {
+                return -1;
+            }
+        }
+        int minuteOfDay = Integer.parseInt(sttime.substring(0, 2)) * 60 + Integer.parseInt(sttime.substring(2, 4));
+        int slot = minuteOfDay / SLOT_MINUTES;
+        return slot < SLOTS_PER_DAY ? slot : -1;
+    }
+
+    /**
+     * Sets {@code slot} in {@code bits} ({@code [lo, hi]}).
+     */
+    public static void set(long[] bits, int slot) {
+        if (slot < 64) {
+            bits[0] |= 1L << slot;
+        } else {
+            bits[1] |= 1L << (slot - 64);
+        }
+    }
+
+    public static boolean isSet(long lo, long hi, int slot) {
+        return slot < 64 ? (lo & (1L << slot)) != 0 : (hi & (1L << (slot - 64))) != 0;
+    }
+
+    public static int count(long lo, long hi) {
+        return Long.bitCount(lo) + Long.bitCount(hi);
+    }
+}
@@ -0,0 +1,70 @@
+package com.time.tracealibility.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GorillaCodecTest {
+
+    @Test
+    void roundTripsIrregularTimestampsAndArbitraryDoubles() {
+        Random random = new Random(42);
+        int rows = 5_000;
+        long[] timestamps = new long[rows];
+        double[][] values = new double[rows][3];
+        double[] specials = {Double.NaN, 0.0, -0.0, Double.MAX_VALUE, Double.MIN_VALUE,
+            Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY};
+
+        GorillaEncoder encoder = new GorillaEncoder(3);
+        long time = 1_700_000_000_000L;
+        for (int i = 0; i < rows; i++) {
+            // Mix of regular steps, duplicates, small jitter, huge jumps and the occasional step backwards
+            int kind = random.nextInt(10);
+            time += kind < 5 ? 960_000 : kind < 7 ? 0 : kind < 8 ? random.nextInt(5_000) - 2_500
+                : kind < 9 ? (long) random.nextInt(Integer.MAX_VALUE) * 1_000 : -random.nextInt(100_000);
+            timestamps[i] = time;
+            values[i][0] = random.nextGaussian() * 20;
+            values[i][1] = i % 7 == 0 ? specials[random.nextInt(specials.length)] : values[Math.max(0, i - 1)][1];
+            values[i][2] = i;
+            encoder.append(timestamps[i], values[i]);
+        }
+
+        GorillaBlock block = encoder.finish();
+        GorillaDecoder decoder = block.decoder();
+        for (int i = 0; i < rows; i++) {
+            assertTrue(decoder.next());
+            assertEquals(timestamps[i], decoder.getTimestamp(), "timestamp " + i);
+            for (int column = 0; column < 3; column++) {
+                assertEquals(Double.doubleToRawLongBits(values[i][column]),
+                    Double.doubleToRawLongBits(decoder.getValue(column)), "row " + i + " column " + column);
+            }
+        }
+        assertFalse(decoder.next());
+    }
+
+    @Test
+    void regularSessionsCompressWell() {
+        GorillaEncoder encoder = new GorillaEncoder(2);
+        long time = 1_700_000_000_000L;
+        for (int i = 0; i < 10_000; i++) {
+            // 16-minute tracks, a slowly drifting clock offset and a constant satellite count
+            encoder.append(time + i * 960_000L, 12.5 + (i / 90) * 0.25, 7.0);
+        }
+        GorillaBlock block = encoder.finish();
+
+        int rawBytes = block.getCount() * 3 * Long.BYTES;
+        assertTrue(block.getSizeInBytes() * 10 < rawBytes,
+            "expected at least 10x, got " + block.getSizeInBytes() + " of " + rawBytes + " bytes");
+    }
+
+    @Test
+    void emptyBlockDecodesToNothing() {
+        GorillaBlock block = new GorillaEncoder(1).finish();
+        assertEquals(0, block.getCount());
+        assertFalse(block.decoder().next());
+    }
+}
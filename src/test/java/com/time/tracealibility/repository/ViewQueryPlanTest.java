@@ -0,0 +1,90 @@
+package com.time.tracealibility.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks against a local PostgreSQL that every filter combination built by {@link ViewQueryBuilder} is planned
+ * as an index scan on a table shaped and indexed like the combined view (see database_migration_view_filters.sql).
+ *
+ * Enable with e.g. {@code TRACE_TEST_PG_URL=jdbc:postgresql://localhost:5432/postgres}
+ * (optionally {@code TRACE_TEST_PG_USER} / {@code TRACE_TEST_PG_PASSWORD}).
+ */
+@EnabledIfEnvironmentVariable(named = "TRACE_TEST_PG_URL", matches = ".+")
+class ViewQueryPlanTest {
+
+    private static final String TABLE = "view_query_plan_test";
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void createTable() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                System.getenv("TRACE_TEST_PG_URL"),
+                System.getenv().getOrDefault("TRACE_TEST_PG_USER", "postgres"),
+                System.getenv().getOrDefault("TRACE_TEST_PG_PASSWORD", "postgres")));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABLE);
+        // 100 days x 90 tracks x 20 receivers x 4 constellations
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + " AS"
+                + " SELECT concat(l, '_', src, '_', m, '_', k) AS id, l AS sat_letter, m AS mjd,"
+                + " (date '1858-11-17' + m) + (k * 16) * interval '1 minute' AS mjd_date_time,"
+                + " 'GZLI2P'::text AS source1, src AS source2, sin(m + k) AS weighted_avg_difference"
+                + " FROM generate_series(60800, 60899) m, generate_series(0, 89) k,"
+                + " (SELECT 'RCV' || lpad(n::text, 2, '0') AS src FROM generate_series(1, 20) n) r,"
+                + " unnest(array['G', 'I', 'E', 'R']) l");
+        jdbcTemplate.execute("CREATE INDEX ON " + TABLE + " (source2, mjd_date_time, id)");
+        jdbcTemplate.execute("CREATE INDEX ON " + TABLE + " (mjd_date_time, id)");
+        jdbcTemplate.execute("CREATE INDEX ON " + TABLE + " (source2, sat_letter, mjd_date_time)");
+        jdbcTemplate.execute("CREATE INDEX ON " + TABLE + " (sat_letter, mjd_date_time)");
+        jdbcTemplate.execute("ANALYZE " + TABLE);
+    }
+
+    @AfterAll
+    static void dropTable() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABLE);
+    }
+
+    @Test
+    void everyFilterCombinationUsesAnIndex() {
+        List<String> sources = List.of("RCV03", "RCV07");
+        assertIndexPlan(ViewQueryBuilder.from(TABLE).source2In(sources));
+        assertIndexPlan(ViewQueryBuilder.from(TABLE).source2In(sources).startDate("2025-05-01"));
+        assertIndexPlan(ViewQueryBuilder.from(TABLE).source2In(sources).satLetter("g"));
+        assertIndexPlan(ViewQueryBuilder.from(TABLE).source2In(sources).satLetter("G")
+                .startDate("2025-05-01").endDate("2025-05-03"));
+        assertIndexPlan(ViewQueryBuilder.from(TABLE).startDate("2025-05-01").endDate("2025-05-02"));
+        assertIndexPlan(ViewQueryBuilder.from(TABLE).satLetter("I").startDate("2025-05-01").endDate("2025-05-03"));
+    }
+
+    @Test
+    void pagedQueriesReadTheIndexInOrder() {
+        assertIndexPlan(ViewQueryBuilder.from(TABLE).source2In(List.of("RCV05"))
+                .orderBy(Sort.by(Sort.Direction.DESC, "mjdDateTime"), SatViewQueryRepository.COMBINED_SORT_COLUMNS)
+                .orderBy("id", true)
+                .limit(20).offset(40));
+        assertIndexPlan(ViewQueryBuilder.from(TABLE)
+                .orderBy(Sort.by(Sort.Direction.DESC, "mjd_date_time"), SatViewQueryRepository.COMBINED_SORT_COLUMNS)
+                .orderBy("id", true)
+                .limit(20).offset(0));
+    }
+
+    private static void assertIndexPlan(ViewQueryBuilder builder) {
+        NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(jdbcTemplate);
+        String sql = builder.selectSql();
+        String plan = String.join("\n", named.query("EXPLAIN " + sql, builder.toParameterSource(),
+                (rs, rowNum) -> rs.getString(1)));
+        assertTrue(plan.contains("Index"), sql + "\n" + plan);
+        assertFalse(plan.contains("Seq Scan"), sql + "\n" + plan);
+    }
+}
@@ -0,0 +1,83 @@
+package com.time.tracealibility.repository;
+
+import com.sun.management.ThreadMXBean;
+import com.time.tracealibility.entity.SatCombinedViewDifference;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares a large combined-view page read as managed entities (the previous EntityManager path) with the
+ * JDBC projection path of {@link SatViewQueryRepository}: bytes allocated per read and mean latency.
+ *
+ * Needs the application database with populated views; enable with {@code TRACE_BENCHMARK=true}.
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "TRACE_BENCHMARK", matches = "true")
+class ViewReadBenchmarkTest {
+
+    private static final int PAGE_SIZE = 5000;
+    private static final int ROUNDS = 20;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SatViewQueryRepository satViewQueryRepository;
+
+    @Test
+    void jdbcProjectionAllocatesLessThanManagedEntities() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Supplier<List<?>> managed = () -> transaction.execute(status -> entityManager
+            .createNativeQuery("SELECT * FROM sat_combined_view_difference_materialized s"
+                + " ORDER BY s.mjd_date_time DESC, s.id LIMIT " + PAGE_SIZE, SatCombinedViewDifference.class)
+            .getResultList());
+        Supplier<List<?>> projected = () -> satViewQueryRepository.findCombinedPage(null, null, null, null,
+            PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "mjdDateTime"))).getContent();
+
+        Result entities = measure(managed);
+        Result jdbc = measure(projected);
+        System.out.printf("%d-row page: managed entities %.1f KB / %.2f ms, JDBC projection %.1f KB / %.2f ms%n",
+            entities.rows, entities.bytes / 1024.0, entities.millis, jdbc.bytes / 1024.0, jdbc.millis);
+
+        assertEquals(entities.rows, jdbc.rows);
+        assertTrue(jdbc.bytes < entities.bytes, "projection allocated " + jdbc.bytes + " vs " + entities.bytes);
+    }
+
+    private static Result measure(Supplier<List<?>> read) {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int rows = 0;
+        for (int i = 0; i < 5; i++) {
+            rows = read.get().size();
+        }
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            read.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        return new Result(rows, bytes / ROUNDS, elapsed / 1_000_000.0 / ROUNDS);
+    }
+
+    private record Result(int rows, long bytes, double millis) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.time.tracealibility.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ArrivalLatencyServiceTest {
+
+    @Test
+    void measuresFromTheEndOfTheObservationDay() {
+        // MJD 60950 is 2025-10-02; its day ends 2025-10-03T00:00Z
+        LocalDateTime created = LocalDateTime.ofInstant(Instant.parse("2025-10-03T02:30:00Z"), ZoneId.systemDefault());
+        LocalDateTime duringDay = LocalDateTime.ofInstant(Instant.parse("2025-10-02T12:00:00Z"), ZoneId.systemDefault());
+
+        assertEquals(150, ArrivalLatencyService.latencyMinutes(60950, created));
+        assertEquals(0, ArrivalLatencyService.latencyMinutes(60950, duringDay));
+    }
+
+    @Test
+    void interpolatesPercentilesInsideBuckets() {
+        long[] counts = new long[ArrivalLatencyService.BUCKET_UPPER_MINUTES.length + 1];
+        // 10 files of up to 15 minutes, 10 between 60 and 120 minutes, the slowest one took 100
+        counts[ArrivalLatencyService.bucketOf(10)] = 10;
+        counts[ArrivalLatencyService.bucketOf(100)] = 10;
+
+        assertEquals(15.0, ArrivalLatencyService.percentile(counts, 100, 0.5));
+        assertEquals(92.0, ArrivalLatencyService.percentile(counts, 100, 0.9), 1e-9);
+        assertEquals(100.0, ArrivalLatencyService.percentile(counts, 100, 1.0));
+        assertNull(ArrivalLatencyService.percentile(new long[counts.length], -1, 0.5));
+    }
+}
@@ -0,0 +1,48 @@
+package com.time.tracealibility.services;
+
+import com.time.tracealibility.dto.AvailabilitySpansDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class AvailabilityMatrixServiceTest {
+
+    @Test
+    void encodesStatusRunsClippedToTheRange() {
+        AvailabilityMatrixService matrix = new AvailabilityMatrixService();
+        for (int mjd = 60900; mjd <= 60910; mjd++) {
+            matrix.record("GZLMB1", mjd, "AVAILABLE");
+        }
+        matrix.record("GZLMB1", 60905, "MISSING");
+        matrix.record("GZLMB1", 60906, "MISSING");
+        matrix.record("GZLMB1", 60912, "LATE");
+        matrix.record("GZLMF1", 60950, "AVAILABLE");
+
+        AvailabilitySpansDTO spans = matrix.getSpans(List.of("GZLMB1", "UNKNOWN"), 60902, 60920);
+
+        Map<String, List<int[]>> statuses = spans.getSpans().get("GZLMB1");
+        assertEquals(1, spans.getSpans().size());
+        assertEquals(2, statuses.get("AVAILABLE").size());
+        assertArrayEquals(new int[]{60902, 60904}, statuses.get("AVAILABLE").get(0));
+        assertArrayEquals(new int[]{60907, 60910}, statuses.get("AVAILABLE").get(1));
+        assertArrayEquals(new int[]{60905, 60906}, statuses.get("MISSING").get(0));
+        assertArrayEquals(new int[]{60912, 60912}, statuses.get("LATE").get(0));
+    }
+
+    @Test
+    void latestStatusOfADayWins() {
+        AvailabilityMatrixService matrix = new AvailabilityMatrixService();
+        matrix.record("GZLMB1", 60900, "MISSING");
+        matrix.record("GZLMB1", 60900, "AVAILABLE");
+
+        Map<String, List<int[]>> statuses = matrix.getSpans(List.of(), 60000, 61000).getSpans().get("GZLMB1");
+
+        assertFalse(statuses.containsKey("MISSING"));
+        assertArrayEquals(new int[]{60900, 60900}, statuses.get("AVAILABLE").get(0));
+    }
+}
@@ -0,0 +1,102 @@
+package com.time.tracealibility.services;
+
+import com.time.tracealibility.dto.CommonViewPointDTO;
+import com.time.tracealibility.timeseries.CommonViewMatcher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the on-demand matcher with the deployed sat_combined_view_difference_materialized for one
+ * (source1, source2) pair: every view row of the range must be produced with the same count and averages, and
+ * nothing else. Run it against a database with the production view after changing the matcher or the
+ * app.common-view weighting / refsys-scale settings.
+ *
+ * Enable with e.g. {@code TRACE_TEST_PG_URL=jdbc:postgresql://localhost:5432/postgres}
+ * (optionally {@code TRACE_TEST_PG_USER} / {@code TRACE_TEST_PG_PASSWORD}). The pair and range default to the
+ * view's newest day; set {@code TRACE_TEST_PARITY_SOURCE1}, {@code TRACE_TEST_PARITY_SOURCE2} and
+ * {@code TRACE_TEST_PARITY_MJD} to pick one. {@code TRACE_TEST_COMMON_VIEW_WEIGHTING} and
+ * {@code TRACE_TEST_COMMON_VIEW_REFSYS_SCALE} are required: the app.common-view values being verified.
+ */
+@EnabledIfEnvironmentVariable(named = "TRACE_TEST_PG_URL", matches = ".+")
+class CommonViewParityTest {
+
+    private static final String VIEW = "sat_combined_view_difference_materialized";
+    private static final double TOLERANCE = 1e-6;
+
+    @Test
+    void matchesTheCombinedViewForOnePair() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                System.getenv("TRACE_TEST_PG_URL"),
+                System.getenv().getOrDefault("TRACE_TEST_PG_USER", "postgres"),
+                System.getenv().getOrDefault("TRACE_TEST_PG_PASSWORD", "postgres")));
+        String configuredWeighting = System.getenv("TRACE_TEST_COMMON_VIEW_WEIGHTING");
+        String configuredScale = System.getenv("TRACE_TEST_COMMON_VIEW_REFSYS_SCALE");
+        assertNotNull(configuredWeighting, "Set TRACE_TEST_COMMON_VIEW_WEIGHTING to app.common-view.weighting");
+        assertNotNull(configuredScale, "Set TRACE_TEST_COMMON_VIEW_REFSYS_SCALE to app.common-view.refsys-scale");
+        CommonViewMatcher.Weighting weighting = CommonViewMatcher.Weighting.valueOf(configuredWeighting);
+        double scale = Double.parseDouble(configuredScale);
+
+        Map<String, Object> pair = jdbcTemplate.queryForMap(
+                "SELECT source1, source2, mjd FROM " + VIEW + " ORDER BY mjd DESC, source1, source2 LIMIT 1");
+        String source1 = System.getenv().getOrDefault("TRACE_TEST_PARITY_SOURCE1", (String) pair.get("source1"));
+        String source2 = System.getenv().getOrDefault("TRACE_TEST_PARITY_SOURCE2", (String) pair.get("source2"));
+        int mjd = Integer.parseInt(System.getenv().getOrDefault("TRACE_TEST_PARITY_MJD", String.valueOf(pair.get("mjd"))));
+
+        Map<String, Map<String, Object>> expected = new HashMap<>();
+        jdbcTemplate.queryForList("SELECT sat_letter, mjd, sttime, common_satellite_count, avg1, avg2, "
+                        + "avg_refsys_difference, weighted_avg1, weighted_avg2, weighted_avg_difference FROM " + VIEW
+                        + " WHERE source1 = ? AND source2 = ? AND mjd = ?", source1, source2, mjd)
+                .forEach(row -> expected.put(key((String) row.get("sat_letter"), (String) row.get("sttime")), row));
+        assertFalse(expected.isEmpty(), "No view rows for " + source1 + "/" + source2 + " on MJD " + mjd);
+
+        CommonViewMatcher.Tracks tracks1 = CommonViewMatchingService.loadTracks(jdbcTemplate, source1, mjd, mjd, null);
+        CommonViewMatcher.Tracks tracks2 = CommonViewMatchingService.loadTracks(jdbcTemplate, source2, mjd, mjd, null);
+        List<String> mismatches = new ArrayList<>();
+        for (CommonViewMatcher.Epoch epoch : CommonViewMatcher.matchRange(tracks1, tracks2, mjd, mjd, weighting)) {
+            CommonViewPointDTO point = CommonViewMatchingService.toPoint(epoch, source1, source2, scale, true);
+            String key = key(point.getSatLetter(), point.getSttime());
+            Map<String, Object> row = expected.remove(key);
+            if (row == null) {
+                mismatches.add(key + ": not in the view");
+                continue;
+            }
+            compare(mismatches, key, "common_satellite_count", row, point.getCommonSatelliteCount());
+            compare(mismatches, key, "avg1", row, point.getAvg1());
+            compare(mismatches, key, "avg2", row, point.getAvg2());
+            compare(mismatches, key, "avg_refsys_difference", row, point.getAvgRefsysDifference());
+            compare(mismatches, key, "weighted_avg1", row, point.getWeightedAvg1());
+            compare(mismatches, key, "weighted_avg2", row, point.getWeightedAvg2());
+            compare(mismatches, key, "weighted_avg_difference", row, point.getWeightedAvgDifference());
+        }
+        expected.keySet().forEach(key -> mismatches.add(key + ": in the view but not matched"));
+
+        assertTrue(mismatches.isEmpty(), mismatches.size() + " differences for " + source1 + "/" + source2
+                + " on MJD " + mjd + ", e.g. " + mismatches.subList(0, Math.min(10, mismatches.size())));
+    }
+
+    // sttime may be stored with or without leading zeros; compare by second of day
+    private static String key(String satLetter, String sttime) {
+        String padded = String.format("%6s", sttime.trim()).replace(' ', '0');
+        return satLetter.toUpperCase() + "@" + CommonViewMatcher.secondOfDay(padded);
+    }
+
+    private static void compare(List<String> mismatches, String key, String column, Map<String, Object> row,
+                                double actual) {
+        Object value = row.get(column);
+        double expected = value != null ? ((Number) value).doubleValue() : Double.NaN;
+        if (!(Math.abs(expected - actual) <= TOLERANCE * Math.max(1, Math.abs(expected)))) {
+            mismatches.add(key + " " + column + ": view " + expected + ", matcher " + actual);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.time.tracealibility.services;
+
+import com.time.tracealibility.events.DataVersionChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs two "nodes" against a local PostgreSQL and checks that a version bumped on one
+ * reaches the other through LISTEN/NOTIFY.
+ *
+ * Enable with e.g. {@code TRACE_TEST_PG_URL=jdbc:postgresql://localhost:5432/postgres}
+ * (optionally {@code TRACE_TEST_PG_USER} / {@code TRACE_TEST_PG_PASSWORD}).
+ */
+@EnabledIfEnvironmentVariable(named = "TRACE_TEST_PG_URL", matches = ".+")
+class DataVersionServiceIntegrationTest {
+
+    private static final String CHANNEL = "trace_data_events_test";
+
+    private DriverManagerDataSource dataSource;
+    private PgNotificationListener listenerB;
+    private DataVersionService nodeA;
+    private DataVersionService nodeB;
+    private final List<DataVersionChangedEvent> eventsOnB = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                System.getenv("TRACE_TEST_PG_URL"),
+                System.getenv().getOrDefault("TRACE_TEST_PG_USER", "postgres"),
+                System.getenv().getOrDefault("TRACE_TEST_PG_PASSWORD", "postgres"));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS data_version (" +
+                "id BIGSERIAL PRIMARY KEY, version_key VARCHAR(255) NOT NULL UNIQUE, " +
+                "version BIGINT NOT NULL, updated_at TIMESTAMP WITH TIME ZONE)");
+        jdbcTemplate.update("DELETE FROM data_version WHERE version_key LIKE 'test:%'");
+
+        nodeA = newNode(jdbcTemplate, "node-a", event -> { });
+        nodeB = newNode(jdbcTemplate, "node-b", eventsOnB::add);
+
+        listenerB = new PgNotificationListener();
+        ReflectionTestUtils.setField(listenerB, "dataSource", dataSource);
+        ReflectionTestUtils.setField(listenerB, "dataVersionService", nodeB);
+        ReflectionTestUtils.setField(listenerB, "enabled", true);
+        ReflectionTestUtils.setField(listenerB, "pollTimeoutMs", 200);
+        ReflectionTestUtils.setField(listenerB, "reconnectDelayMs", 500L);
+        listenerB.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        listenerB.stop();
+    }
+
+    @Test
+    void versionBumpedOnOneNodeReachesTheOther() throws InterruptedException {
+        // Give the listener time to issue LISTEN before the first NOTIFY
+        Thread.sleep(500);
+
+        long first = nodeA.bump("test:view");
+        long second = nodeA.bump("test:view");
+        assertEquals(first + 1, second);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (nodeB.getVersion("test:view") < second && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(second, nodeB.getVersion("test:view"));
+        assertTrue(eventsOnB.stream().anyMatch(e -> e.getVersion() == second && "node-a".equals(e.getOriginNode())));
+    }
+
+    private DataVersionService newNode(JdbcTemplate jdbcTemplate, String nodeId,
+                                       java.util.function.Consumer<DataVersionChangedEvent> sink) {
+        ClusterCoordinationService cluster = new ClusterCoordinationService();
+        ReflectionTestUtils.setField(cluster, "configuredNodeId", nodeId);
+
+        DataVersionService service = new DataVersionService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "clusterCoordinationService", cluster);
+        ReflectionTestUtils.setField(service, "channel", CHANNEL);
+        ReflectionTestUtils.setField(service, "eventPublisher",
+                (org.springframework.context.ApplicationEventPublisher) event -> {
+                    if (event instanceof DataVersionChangedEvent changed) {
+                        sink.accept(changed);
+                    }
+                });
+        return service;
+    }
+}
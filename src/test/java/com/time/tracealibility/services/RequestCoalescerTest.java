@@ -0,0 +1,86 @@
+package com.time.tracealibility.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestCoalescerTest {
+
+    private RequestCoalescer newCoalescer() {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        ReflectionTestUtils.setField(coalescer, "enabled", true);
+        return coalescer;
+    }
+
+    @Test
+    void concurrentIdenticalCallsShareOneExecution() throws Exception {
+        RequestCoalescer coalescer = newCoalescer();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> coalescer.execute("report", List.of("2025-01-01"), () -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return new Object();
+                })));
+            }
+            // Let every caller reach the coalescer before the leader finishes
+            while (inFlightCalls(coalescer) < 8) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            Object first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<Object> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, executions.get());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Nothing is cached once the call completed
+        coalescer.execute("report", List.of("2025-01-01"), executions::incrementAndGet);
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void failureIsRethrownAndNotRemembered() {
+        RequestCoalescer coalescer = newCoalescer();
+        assertThrows(IllegalStateException.class, () -> coalescer.execute("report", "k", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals("ok", coalescer.execute("report", "k", () -> "ok"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long inFlightCalls(RequestCoalescer coalescer) {
+        Map<String, Object> groups = (Map<String, Object>) coalescer.getStats().get("groups");
+        Map<String, Object> report = (Map<String, Object>) groups.get("report");
+        return report == null ? 0 : (long) report.get("executions") + (long) report.get("coalesced");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.time.tracealibility.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CggttsScheduleTest {
+
+    @Test
+    void shiftsFourMinutesEarlierEveryDay() {
+        assertEquals(2, CggttsSchedule.startOffsetMinutes(50722));
+        assertEquals(14, CggttsSchedule.startOffsetMinutes(50723));
+        assertEquals(10, CggttsSchedule.startOffsetMinutes(50724));
+        assertEquals(6, CggttsSchedule.startOffsetMinutes(50725));
+        assertEquals(2, CggttsSchedule.startOffsetMinutes(50726));
+        assertEquals(6, CggttsSchedule.startOffsetMinutes(50721));
+
+        assertEquals(90, CggttsSchedule.expectedCount(50722));
+        assertEquals(89, CggttsSchedule.expectedCount(50723));
+        // Last track of a 90-track day: 23:46 to 23:59
+        assertEquals(23 * 60 + 46, CggttsSchedule.trackStartMinute(50722, 89));
+    }
+
+    @Test
+    void everyScheduledTrackFallsInItsOwnSlot() {
+        for (int mjd = 60000; mjd < 60004; mjd++) {
+            long[] expected = CggttsSchedule.expectedSlots(mjd);
+            for (int slot = 0; slot < SessionSlots.SLOTS_PER_DAY; slot++) {
+                if (SessionSlots.isSet(expected[0], expected[1], slot)) {
+                    int minute = CggttsSchedule.trackStartMinute(mjd, slot);
+                    String sttime = String.format("%02d%02d00", minute / 60, minute % 60);
+                    assertEquals(slot, SessionSlots.slotOf(sttime), sttime);
+                }
+            }
+        }
+    }
+
+    @Test
+    void reportsRunsOfMissingTracks() {
+        int mjd = 50722;
+        long[] observed = CggttsSchedule.expectedSlots(mjd).clone();
+        observed[0] &= ~(0b111L << 10);
+        observed[1] &= ~(1L << (89 - 64));
+
+        List<CggttsSchedule.Gap> gaps = CggttsSchedule.gaps(mjd, observed[0], observed[1]);
+
+        assertEquals(2, gaps.size());
+        assertEquals(new CggttsSchedule.Gap(10, 12, 162, 207), gaps.get(0));
+        assertEquals(3, gaps.get(0).tracks());
+        assertEquals(89, gaps.get(1).firstSlot());
+        assertTrue(CggttsSchedule.gaps(mjd, observed[0] | (0b111L << 10), observed[1] | (1L << 25)).isEmpty());
+    }
+}
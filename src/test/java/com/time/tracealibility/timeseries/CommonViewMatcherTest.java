@@ -0,0 +1,80 @@
+package com.time.tracealibility.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CommonViewMatcherTest {
+
+    @Test
+    void averagesCommonSatellitesPerLetterAndEpoch() {
+        CommonViewMatcher.Tracks source1 = new CommonViewMatcher.Tracks();
+        source1.add(60000, 120, 'G', 1, 100, 3);
+        source1.add(60000, 120, 'G', 2, 50, 2);
+        source1.add(60000, 120, 'G', 3, 200, 4);
+        source1.add(60000, 120, 'R', 5, 10, 1);
+
+        CommonViewMatcher.Tracks source2 = new CommonViewMatcher.Tracks();
+        source2.add(60000, 120, 'E', 11, 7, 1);
+        source2.add(60000, 120, 'G', 1, 90, 4);
+        source2.add(60000, 120, 'G', 3, 180, 0);
+        source2.add(60000, 1080, 'R', 5, 12, 1);
+
+        List<CommonViewMatcher.Epoch> epochs = CommonViewMatcher.matchRange(source1, source2, 60000, 60000,
+                CommonViewMatcher.Weighting.INVERSE_DSG);
+
+        assertEquals(1, epochs.size());
+        CommonViewMatcher.Epoch epoch = epochs.get(0);
+        assertEquals('G', epoch.satLetter());
+        assertEquals(2, epoch.commonSatellites());
+        assertEquals(150.0, epoch.avg1(), 1e-9);
+        assertEquals(135.0, epoch.avg2(), 1e-9);
+        assertEquals(15.0, epoch.avgDifference(), 1e-9);
+        // G01 weighs 1/(3² + 4²), G03 1/(4² + 1²) with its zero DSG floored at one unit
+        double w1 = 1.0 / 25;
+        double w3 = 1.0 / 17;
+        assertEquals((w1 * 100 + w3 * 200) / (w1 + w3), epoch.weightedAvg1(), 1e-9);
+        assertEquals((w1 * 90 + w3 * 180) / (w1 + w3), epoch.weightedAvg2(), 1e-9);
+        assertEquals(epoch.weightedAvg1() - epoch.weightedAvg2(), epoch.weightedAvgDifference(), 1e-9);
+
+        CommonViewMatcher.Epoch equal = CommonViewMatcher.matchRange(source1, source2, 60000, 60000,
+                CommonViewMatcher.Weighting.EQUAL).get(0);
+        assertEquals(equal.avg1(), equal.weightedAvg1(), 1e-9);
+        assertEquals(equal.avgDifference(), equal.weightedAvgDifference(), 1e-9);
+    }
+
+    @Test
+    void parallelMatchEqualsSequentialMatch() {
+        CommonViewMatcher.Tracks source1 = new CommonViewMatcher.Tracks();
+        CommonViewMatcher.Tracks source2 = new CommonViewMatcher.Tracks();
+        for (int mjd = 60000; mjd < 60030; mjd++) {
+            for (int track = 0; track < 90; track++) {
+                int second = 120 + track * 960;
+                for (char letter : new char[] {'G', 'R'}) {
+                    for (int sat = 1; sat <= 12; sat++) {
+                        int refsys = (mjd * 31 + track * 7 + sat * 13 + letter) % 200 - 100;
+                        source1.add(mjd, second, letter, sat, refsys, 1 + sat % 5);
+                        if ((sat + track + mjd) % 3 != 0) {
+                            source2.add(mjd, second, letter, sat, refsys - sat, 2 + sat % 3);
+                        }
+                    }
+                }
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<CommonViewMatcher.Epoch> parallel = CommonViewMatcher.match(source1, source2, 60000, 60029,
+                    CommonViewMatcher.Weighting.INVERSE_DSG, pool, 1);
+            List<CommonViewMatcher.Epoch> sequential = CommonViewMatcher.matchRange(source1, source2, 60000, 60029,
+                    CommonViewMatcher.Weighting.INVERSE_DSG);
+            assertEquals(30 * 90 * 2, sequential.size());
+            assertEquals(sequential, parallel);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
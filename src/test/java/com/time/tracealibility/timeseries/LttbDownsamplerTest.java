@@ -0,0 +1,52 @@
+package com.time.tracealibility.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LttbDownsamplerTest {
+
+    @Test
+    void keepsEndpointsAndRespectsBudget() {
+        List<Integer> kept = new ArrayList<>();
+        LttbDownsampler<Integer> downsampler = new LttbDownsampler<>(0, 9_999, 100, kept::add);
+        for (int i = 0; i < 10_000; i++) {
+            downsampler.accept(i, Math.sin(i / 50.0), i);
+        }
+        downsampler.finish();
+
+        assertTrue(kept.size() <= 100, "emitted " + kept.size());
+        assertEquals(0, kept.get(0));
+        assertEquals(9_999, kept.get(kept.size() - 1));
+        for (int i = 1; i < kept.size(); i++) {
+            assertTrue(kept.get(i) > kept.get(i - 1), "output must stay in time order");
+        }
+    }
+
+    @Test
+    void preservesIsolatedSpike() {
+        List<Integer> kept = new ArrayList<>();
+        LttbDownsampler<Integer> downsampler = new LttbDownsampler<>(0, 999, 20, kept::add);
+        for (int i = 0; i < 1_000; i++) {
+            downsampler.accept(i, i == 517 ? 100.0 : 0.0, i);
+        }
+        downsampler.finish();
+
+        assertTrue(kept.contains(517), "spike was dropped: " + kept);
+    }
+
+    @Test
+    void passesThroughShortSeries() {
+        List<Integer> kept = new ArrayList<>();
+        LttbDownsampler<Integer> downsampler = new LttbDownsampler<>(0, 10, 50, kept::add);
+        downsampler.accept(0, 1.0, 0);
+        downsampler.accept(10, 2.0, 1);
+        downsampler.finish();
+
+        assertEquals(List.of(0, 1), kept);
+    }
+}